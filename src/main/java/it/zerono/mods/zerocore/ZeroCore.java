@@ -21,17 +21,23 @@ package it.zerono.mods.zerocore;
 import it.zerono.mods.zerocore.internal.Lib;
 import it.zerono.mods.zerocore.internal.command.ZeroCoreCommand;
 import it.zerono.mods.zerocore.internal.gamecontent.Content;
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.PerformanceInspector;
 import it.zerono.mods.zerocore.internal.network.Network;
+import it.zerono.mods.zerocore.internal.network.TileCommandIngress;
 import it.zerono.mods.zerocore.internal.proxy.ClientProxy;
 import it.zerono.mods.zerocore.internal.proxy.IProxy;
 import it.zerono.mods.zerocore.internal.proxy.ServerProxy;
+import it.zerono.mods.zerocore.lib.data.nbt.NBTFileStore;
 import it.zerono.mods.zerocore.lib.init.IModInitializationHandler;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 
 @Mod(value = ZeroCore.MOD_ID)
@@ -57,6 +63,7 @@ public final class ZeroCore implements IModInitializationHandler {
         s_proxy = DistExecutor.safeRunForDist(() -> ClientProxy::new, () -> ServerProxy::new);
         FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onCommonInit);
         MinecraftForge.EVENT_BUS.addListener(this::onRegisterCommands);
+        MinecraftForge.EVENT_BUS.addListener(this::onServerStopped);
         Lib.initialize();
         Content.initialize();
     }
@@ -80,6 +87,14 @@ public final class ZeroCore implements IModInitializationHandler {
         ZeroCoreCommand.register(event.getDispatcher());
     }
 
+    private void onServerStopped(final FMLServerStoppedEvent event) {
+        // wait for any pending NBT file write to complete
+        NBTFileStore.DEFAULT.flush().join();
+        TileCommandIngress.INSTANCE.clear();
+        NetworkStringTable.SERVER.clear();
+        PerformanceInspector.get(LogicalSide.SERVER).clear();
+    }
+
     private static ZeroCore s_instance;
     private static IProxy s_proxy;
 
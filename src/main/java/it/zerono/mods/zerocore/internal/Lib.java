@@ -18,14 +18,20 @@
 
 package it.zerono.mods.zerocore.internal;
 
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.PerformanceInspector;
 import it.zerono.mods.zerocore.internal.network.Network;
+import it.zerono.mods.zerocore.internal.network.TileCommandIngress;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
 import it.zerono.mods.zerocore.lib.recipe.ModRecipeType;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.item.crafting.IRecipeSerializer;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.common.Mod;
 
 import java.util.concurrent.CompletableFuture;
@@ -44,6 +50,9 @@ public final class Lib {
         bus = Mod.EventBusSubscriber.Bus.FORGE.bus().get();
         bus.addListener(Lib::onAddReloadListener);
         bus.addListener(Lib::onWorldTick);
+        bus.addListener(Lib::onServerTick);
+        bus.addListener(Lib::onPlayerLoggedIn);
+        bus.addListener(Lib::onPlayerLoggedOut);
     }
 
     public static boolean shouldInvalidateResourceCache() {
@@ -95,6 +104,35 @@ public final class Lib {
         }
     }
 
+    @SubscribeEvent
+    public static void onServerTick(final TickEvent.ServerTickEvent event) {
+
+        if (TickEvent.Phase.START == event.phase) {
+
+            TileCommandIngress.INSTANCE.tick();
+            PerformanceInspector.get(LogicalSide.SERVER).tick();
+
+        } else if (TickEvent.Phase.END == event.phase) {
+            NetworkStringTable.publishServerEntries();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(final PlayerEvent.PlayerLoggedInEvent event) {
+
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            NetworkStringTable.sendServerTableTo((ServerPlayerEntity)event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(final PlayerEvent.PlayerLoggedOutEvent event) {
+
+        if (event.getPlayer() instanceof ServerPlayerEntity) {
+            TileCommandIngress.INSTANCE.onPlayerLoggedOut((ServerPlayerEntity)event.getPlayer());
+        }
+    }
+
     //endregion
     //region internals
 
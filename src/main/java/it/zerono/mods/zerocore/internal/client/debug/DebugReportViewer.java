@@ -0,0 +1,145 @@
+/*
+ *
+ * DebugReportViewer.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.client.debug;
+
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.DebugReport;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.NewChatGui;
+import net.minecraft.util.text.IFormattableTextComponent;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.event.ClickEvent;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.client.event.ClientChatEvent;
+
+import javax.annotation.Nullable;
+
+/**
+ * Display a {@link DebugReport} in the chat, one page at a time.
+ *
+ * The last report received is kept around so that the player could move between its pages using the links
+ * shown below each page. The links are handled locally and they are never sent to the server.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class DebugReportViewer {
+
+    public static final DebugReportViewer INSTANCE = new DebugReportViewer();
+
+    /**
+     * Show the first page of a report
+     *
+     * @param report the report
+     */
+    public void show(final DebugReport report) {
+
+        this._report = report;
+        this.showPage(0);
+    }
+
+    /**
+     * Intercept the page links of the last report
+     *
+     * @param event the event
+     */
+    public void onClientChat(final ClientChatEvent event) {
+
+        final String message = event.getMessage();
+
+        if (message.startsWith(PAGE_COMMAND)) {
+
+            event.setCanceled(true);
+
+            try {
+                this.showPage(Integer.parseInt(message.substring(PAGE_COMMAND.length()).trim()));
+            } catch (NumberFormatException ex) {
+                // ignore
+            }
+        }
+    }
+
+    public void clear() {
+        this._report = null;
+    }
+
+    //region internals
+
+    private DebugReportViewer() {
+        this._report = null;
+    }
+
+    private void showPage(final int page) {
+
+        final DebugReport report = this._report;
+
+        if (null == report) {
+            return;
+        }
+
+        final int linesCount = report.getLinesCount();
+        final int pagesCount = Math.max(1, (linesCount + PAGE_SIZE - 1) / PAGE_SIZE);
+
+        if (page < 0 || page >= pagesCount) {
+            return;
+        }
+
+        final NewChatGui chat = Minecraft.getInstance().ingameGUI.getChatGUI();
+        final int last = Math.min(linesCount, (page + 1) * PAGE_SIZE);
+
+        chat.printChatMessage(new StringTextComponent("--------------------------------------------------"));
+        chat.printChatMessage(report.getHeader());
+
+        for (int i = page * PAGE_SIZE; i < last; ++i) {
+            chat.printChatMessage(report.getLine(i));
+        }
+
+        if (pagesCount > 1) {
+
+            final IFormattableTextComponent footer = new StringTextComponent("");
+
+            footer.append(this.createLink("<< ", page > 0 ? page - 1 : -1));
+            footer.appendString(String.format("page %d of %d", page + 1, pagesCount));
+            footer.append(this.createLink(" >>", page < pagesCount - 1 ? page + 1 : -1));
+            chat.printChatMessage(footer);
+        }
+    }
+
+    private ITextComponent createLink(final String text, final int page) {
+
+        final IFormattableTextComponent link = new StringTextComponent(text);
+
+        if (page >= 0) {
+            link.mergeStyle(TextFormatting.AQUA).modifyStyle(style -> style.setClickEvent(
+                    new ClickEvent(ClickEvent.Action.RUN_COMMAND, PAGE_COMMAND + page)));
+        } else {
+            link.mergeStyle(TextFormatting.DARK_GRAY);
+        }
+
+        return link;
+    }
+
+    private static final String PAGE_COMMAND = "/zerocore_debug_report_page ";
+    private static final int PAGE_SIZE = 18;
+
+    @Nullable
+    private DebugReport _report;
+
+    //endregion
+}
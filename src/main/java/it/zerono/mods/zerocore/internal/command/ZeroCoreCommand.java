@@ -19,12 +19,19 @@
 package it.zerono.mods.zerocore.internal.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import it.zerono.mods.zerocore.ZeroCore;
 import it.zerono.mods.zerocore.internal.network.Network;
+import it.zerono.mods.zerocore.internal.network.TileCommandIngress;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
+import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockRegistry;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.List;
 
 public final class ZeroCoreCommand {
 
@@ -39,10 +46,30 @@ public final class ZeroCoreCommand {
                                         .then(Commands.literal("disable").executes(ZeroCoreCommand::debugDisableGuiFrame))
                                 )
                         )
+                        .then(Commands.literal("tileCommands")
+                                .executes(ZeroCoreCommand::debugTileCommandsStats)
+                                .then(Commands.literal("reset").executes(ZeroCoreCommand::debugTileCommandsReset))
+                        )
                 )
                 .then(Commands.literal("recipe")
                         .then(Commands.literal("clearCache").executes(ZeroCoreCommand::recipeClearCache))
                 )
+                .then(Commands.literal("multiblock")
+                        .then(Commands.literal("parallelUpdates")
+                                .executes(ZeroCoreCommand::multiblockParallelUpdatesStatus)
+                                .then(Commands.literal("enable").executes(ZeroCoreCommand::multiblockEnableParallelUpdates))
+                                .then(Commands.literal("disable").executes(ZeroCoreCommand::multiblockDisableParallelUpdates))
+                        )
+                        .then(Commands.literal("throttled").executes(ZeroCoreCommand::multiblockThrottledControllers))
+                        .then(Commands.literal("throttling")
+                                .executes(ZeroCoreCommand::multiblockThrottlingStatus)
+                                .then(Commands.argument("budget", IntegerArgumentType.integer(0))
+                                        .then(Commands.argument("interval", IntegerArgumentType.integer(1))
+                                                .executes(ZeroCoreCommand::multiblockSetThrottling)
+                                        )
+                                )
+                        )
+                )
         );
 
         dispatcher.register(Commands.literal("zc").redirect(mainCmd));
@@ -65,11 +92,84 @@ public final class ZeroCoreCommand {
         return 0;
     }
 
+    private static int debugTileCommandsStats(CommandContext<CommandSource> context) {
+
+        final TileCommandIngress ingress = TileCommandIngress.INSTANCE;
+
+        context.getSource().sendFeedback(new StringTextComponent(String.format(
+                "Tile Commands - received: %d, processed: %d, coalesced: %d, rate limited: %d, dropped: %d, queued: %d, ticks over budget: %d",
+                ingress.getReceivedCount(), ingress.getProcessedCount(), ingress.getCoalescedCount(),
+                ingress.getRateLimitedCount(), ingress.getDroppedCount(), ingress.getQueuedCount(),
+                ingress.getOverBudgetTicksCount())), false);
+        return 0;
+    }
+
+    private static int debugTileCommandsReset(CommandContext<CommandSource> context) {
+
+        TileCommandIngress.INSTANCE.resetStatistics();
+        return 0;
+    }
+
     private static int recipeClearCache(CommandContext<CommandSource> context) {
 
         Network.sendClearRecipeCommand();
         return 0;
     }
 
+    private static int multiblockParallelUpdatesStatus(CommandContext<CommandSource> context) {
+
+        context.getSource().sendFeedback(new StringTextComponent("Multiblock parallel updates are " +
+                (MultiblockRegistry.isParallelUpdatesEnabled() ? "enabled" : "disabled")), false);
+        return 0;
+    }
+
+    private static int multiblockEnableParallelUpdates(CommandContext<CommandSource> context) {
+
+        MultiblockRegistry.setParallelUpdatesEnabled(true);
+        return multiblockParallelUpdatesStatus(context);
+    }
+
+    private static int multiblockDisableParallelUpdates(CommandContext<CommandSource> context) {
+
+        MultiblockRegistry.setParallelUpdatesEnabled(false);
+        return multiblockParallelUpdatesStatus(context);
+    }
+
+    private static int multiblockThrottledControllers(CommandContext<CommandSource> context) {
+
+        final List<String> controllers = MultiblockRegistry.getThrottledControllers();
+
+        if (controllers.isEmpty()) {
+
+            context.getSource().sendFeedback(new StringTextComponent("No multiblock controllers are throttled"), false);
+
+        } else {
+
+            context.getSource().sendFeedback(new StringTextComponent(String.format("%d multiblock controllers are throttled:", controllers.size())), false);
+            controllers.forEach(description -> context.getSource().sendFeedback(new StringTextComponent(description), false));
+        }
+
+        return controllers.size();
+    }
+
+    private static int multiblockThrottlingStatus(CommandContext<CommandSource> context) {
+
+        final long budget = MultiblockRegistry.getUpdateBudget();
+
+        context.getSource().sendFeedback(new StringTextComponent(budget > 0 ?
+                String.format("Multiblock controllers slower than %s are updated every %d ticks",
+                        PerformanceCounters.formatNanos(budget), MultiblockRegistry.getThrottledUpdateInterval()) :
+                "Multiblock controllers throttling is disabled"), false);
+        return 0;
+    }
+
+    private static int multiblockSetThrottling(CommandContext<CommandSource> context) {
+
+        // the budget is in microseconds
+        MultiblockRegistry.setUpdateThrottling(IntegerArgumentType.getInteger(context, "budget") * 1_000L,
+                IntegerArgumentType.getInteger(context, "interval"));
+        return multiblockThrottlingStatus(context);
+    }
+
     //endregion
 }
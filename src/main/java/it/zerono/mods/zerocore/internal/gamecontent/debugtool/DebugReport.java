@@ -0,0 +1,518 @@
+/*
+ *
+ * DebugReport.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.gamecontent.debugtool;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.zerono.mods.zerocore.lib.IDebugMessages;
+import it.zerono.mods.zerocore.lib.IDebuggable;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.text.IFormattableTextComponent;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.fml.LogicalSide;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A debug report collected from an {@link IDebuggable}.
+ *
+ * Messages are captured as format strings (or language keys) and their raw arguments: no text is formatted while
+ * the report is collected. The text components are built only when a line is displayed, on the client.
+ * Reports are sent to the client as a single compressed payload.
+ */
+public final class DebugReport
+        implements IDebugMessages {
+
+    public static DebugReport build(final IDebuggable debuggee, final LogicalSide side, final ITextComponent header) {
+
+        final DebugReport report = new DebugReport(header, 0);
+
+        debuggee.getDebugMessages(side, report);
+        return report;
+    }
+
+    public DebugReport(final ITextComponent header) {
+        this(header, 0);
+    }
+
+    public ITextComponent getHeader() {
+        return this._header;
+    }
+
+    public boolean isNotEmpty() {
+        return !this._lines.isEmpty();
+    }
+
+    public int getLinesCount() {
+        return this._lines.size();
+    }
+
+    /**
+     * Build the text of a line of the report
+     *
+     * @param index the index of the line
+     * @return the text of the line
+     */
+    public ITextComponent getLine(final int index) {
+
+        final Line line = this._lines.get(index);
+        final IFormattableTextComponent text = new StringTextComponent(PADDING.substring(0, Math.min(PADDING.length(), line.padding)));
+
+        for (final Part part : line.parts) {
+            text.append(part.toTextComponent());
+        }
+
+        return text;
+    }
+
+    //region IDebugMessages
+
+    /**
+     * Add an unlocalized text message to the messages list
+     *
+     * @param text the unlocalized text to add
+     */
+    @Override
+    public void addUnlocalized(final String text) {
+        this.addLine(new Part(KIND_TEXT, text, NO_ARGUMENTS));
+    }
+
+    /**
+     * Add an unlocalized text message to the messages list.
+     * The message will be composed when it will be displayed
+     *
+     * @param formatString the format string to be used to compose the unlocalized text
+     * @param parameters   the parameters to be used to compose the unlocalized text
+     */
+    @Override
+    public void addUnlocalized(final String formatString, final Object... parameters) {
+        this.addLine(new Part(parameters.length > 0 ? KIND_FORMAT : KIND_TEXT, formatString, parameters));
+    }
+
+    /**
+     * Add a message to the messages list
+     *
+     * @param message the message to add
+     */
+    @Override
+    public void add(final ITextComponent message) {
+        this.addLine(new Part(KIND_COMPONENT, "", new Object[]{message}));
+    }
+
+    /**
+     * Add a message to the messages list using a localized format string
+     *
+     * @param messageFormatStringResourceKey the language resource key of a format string to use to create the message
+     * @param messageParameters              the values to insert in the message
+     */
+    @Override
+    public void add(final String messageFormatStringResourceKey, final Object... messageParameters) {
+        this.addLine(createLabel(messageFormatStringResourceKey, messageParameters));
+    }
+
+    /**
+     * Add messages from another IDebuggable to this messages list
+     * <p>
+     * If the provided IDebuggable provide only one message, the message will be added at the same level of the other
+     * messages in this message list. If it provide more than one message, they will be added as nested messages
+     *
+     * @param side the LogicalSide of the caller
+     * @param debuggable the other IDebuggable to query for messages
+     * @param label      the label for the other IDebuggable messages
+     */
+    @Override
+    public void add(final LogicalSide side, final IDebuggable debuggable, final ITextComponent label) {
+
+        final DebugReport other = new DebugReport(this._header, this._depth + 1);
+
+        debuggable.getDebugMessages(side, other);
+        this.merge(other, new Part(KIND_COMPONENT, "", new Object[]{label}));
+    }
+
+    /**
+     * Add messages from another IDebuggable to this messages list
+     * <p>
+     * If the provided IDebuggable provide only one message, the message will be added at the same level of the other
+     * messages in this message list. If it provide more than one message, they will be added as nested messages
+     *
+     * @param side the LogicalSide of the caller
+     * @param debuggable                   the other IDebuggable to query for messages
+     * @param labelFormatStringResourceKey the language resource key of a format string to use to create the label
+     *                                     for the other IDebuggable messages
+     * @param labelParameters              the values to insert in the label
+     */
+    @Override
+    public void add(final LogicalSide side, final IDebuggable debuggable, final String labelFormatStringResourceKey,
+                    final Object... labelParameters) {
+
+        final DebugReport other = new DebugReport(this._header, this._depth + 1);
+
+        debuggable.getDebugMessages(side, other);
+        this.merge(other, createLabel(labelFormatStringResourceKey, labelParameters));
+    }
+
+    @Override
+    public <T> void add(final T debuggee, final BiConsumer<IDebugMessages, T> consumer, final ITextComponent label) {
+
+        final DebugReport other = new DebugReport(this._header, this._depth + 1);
+
+        consumer.accept(other, debuggee);
+        this.merge(other, new Part(KIND_COMPONENT, "", new Object[]{label}));
+    }
+
+    @Override
+    public <T> void add(final T debuggee, final BiConsumer<IDebugMessages, T> consumer, final String labelFormatStringResourceKey,
+                        final Object... labelParameters) {
+
+        final DebugReport other = new DebugReport(this._header, this._depth + 1);
+
+        consumer.accept(other, debuggee);
+        this.merge(other, createLabel(labelFormatStringResourceKey, labelParameters));
+    }
+
+    //endregion
+    //region network
+
+    /**
+     * Write the report, compressed, to the provided buffer
+     *
+     * @param buffer the buffer to write to
+     */
+    public void encodeTo(final PacketBuffer buffer) {
+
+        final ByteBuf raw = Unpooled.buffer(256);
+
+        try {
+
+            final PacketBuffer rawBuffer = new PacketBuffer(raw);
+
+            rawBuffer.writeTextComponent(this._header);
+            rawBuffer.writeVarInt(this._lines.size());
+
+            for (final Line line : this._lines) {
+
+                rawBuffer.writeVarInt(line.padding);
+                rawBuffer.writeVarInt(line.parts.length);
+
+                for (final Part part : line.parts) {
+                    part.encodeTo(rawBuffer);
+                }
+            }
+
+            final int rawLength = raw.readableBytes();
+            final byte[] input = new byte[rawLength];
+            final byte[] output = new byte[rawLength + (rawLength >> 8) + 64];
+            final Deflater deflater = new Deflater();
+
+            raw.readBytes(input);
+
+            try {
+
+                deflater.setInput(input);
+                deflater.finish();
+
+                final int compressedLength = deflater.deflate(output);
+
+                buffer.writeVarInt(rawLength);
+                buffer.writeVarInt(compressedLength);
+                buffer.writeBytes(output, 0, compressedLength);
+
+            } finally {
+
+                deflater.end();
+            }
+
+        } finally {
+
+            raw.release();
+        }
+    }
+
+    /**
+     * Read a report written by {@link #encodeTo(PacketBuffer)}
+     *
+     * @param buffer the buffer to read from
+     * @return the report
+     */
+    public static DebugReport decodeFrom(final PacketBuffer buffer) {
+
+        final int rawLength = buffer.readVarInt();
+        final int compressedLength = buffer.readVarInt();
+
+        if (rawLength < 0 || rawLength > MAX_RAW_SIZE || compressedLength < 0 || compressedLength > buffer.readableBytes()) {
+            throw new IllegalArgumentException("Invalid debug report size");
+        }
+
+        final byte[] compressed = new byte[compressedLength];
+        final byte[] raw = new byte[rawLength];
+        final Inflater inflater = new Inflater();
+
+        buffer.readBytes(compressed);
+
+        try {
+
+            inflater.setInput(compressed);
+
+            if (inflater.inflate(raw) != rawLength) {
+                throw new IllegalArgumentException("Invalid debug report data");
+            }
+
+        } catch (DataFormatException ex) {
+
+            throw new IllegalArgumentException("Invalid debug report data", ex);
+
+        } finally {
+
+            inflater.end();
+        }
+
+        final PacketBuffer rawBuffer = new PacketBuffer(Unpooled.wrappedBuffer(raw));
+        final DebugReport report = new DebugReport(rawBuffer.readTextComponent(), 0);
+        final int linesCount = rawBuffer.readVarInt();
+
+        for (int i = 0; i < linesCount; ++i) {
+
+            final int padding = rawBuffer.readVarInt();
+            final Part[] parts = new Part[rawBuffer.readVarInt()];
+
+            for (int p = 0; p < parts.length; ++p) {
+                parts[p] = Part.decodeFrom(rawBuffer);
+            }
+
+            report._lines.add(new Line(padding, parts));
+        }
+
+        return report;
+    }
+
+    //endregion
+    //region internals
+    //region Line
+
+    private static final class Line {
+
+        Line(final int padding, final Part... parts) {
+
+            this.padding = padding;
+            this.parts = parts;
+        }
+
+        final int padding;
+        final Part[] parts;
+    }
+
+    //endregion
+    //region Part
+
+    private static final class Part {
+
+        Part(final byte kind, final String text, final Object[] arguments) {
+
+            this.kind = kind;
+            this.text = text;
+            this.arguments = arguments;
+        }
+
+        ITextComponent toTextComponent() {
+
+            switch (this.kind) {
+
+                default:
+                case KIND_TEXT:
+                    return new StringTextComponent(this.text);
+
+                case KIND_FORMAT: {
+
+                    final Object[] arguments = new Object[this.arguments.length];
+
+                    for (int i = 0; i < arguments.length; ++i) {
+                        arguments[i] = this.arguments[i] instanceof ITextComponent ?
+                                ((ITextComponent)this.arguments[i]).getString() : this.arguments[i];
+                    }
+
+                    try {
+                        return new StringTextComponent(String.format(this.text, arguments));
+                    } catch (RuntimeException ex) {
+                        return new StringTextComponent(this.text);
+                    }
+                }
+
+                case KIND_TRANSLATION:
+                    return new TranslationTextComponent(this.text, this.arguments);
+
+                case KIND_COMPONENT:
+                    return (ITextComponent)this.arguments[0];
+            }
+        }
+
+        void encodeTo(final PacketBuffer buffer) {
+
+            buffer.writeByte(this.kind);
+            buffer.writeString(this.text);
+            buffer.writeVarInt(this.arguments.length);
+
+            for (final Object argument : this.arguments) {
+
+                if (argument instanceof Integer || argument instanceof Short || argument instanceof Byte) {
+
+                    buffer.writeByte(ARG_INT);
+                    buffer.writeVarInt(((Number)argument).intValue());
+
+                } else if (argument instanceof Long) {
+
+                    buffer.writeByte(ARG_LONG);
+                    buffer.writeVarLong((Long)argument);
+
+                } else if (argument instanceof Float || argument instanceof Double) {
+
+                    buffer.writeByte(ARG_DOUBLE);
+                    buffer.writeDouble(((Number)argument).doubleValue());
+
+                } else if (argument instanceof Boolean) {
+
+                    buffer.writeByte(ARG_BOOLEAN);
+                    buffer.writeBoolean((Boolean)argument);
+
+                } else if (argument instanceof ITextComponent) {
+
+                    buffer.writeByte(ARG_COMPONENT);
+                    buffer.writeTextComponent((ITextComponent)argument);
+
+                } else {
+
+                    buffer.writeByte(ARG_STRING);
+                    buffer.writeString(String.valueOf(argument));
+                }
+            }
+        }
+
+        static Part decodeFrom(final PacketBuffer buffer) {
+
+            final byte kind = buffer.readByte();
+            final String text = buffer.readString();
+            final Object[] arguments = new Object[buffer.readVarInt()];
+
+            for (int i = 0; i < arguments.length; ++i) {
+
+                switch (buffer.readByte()) {
+
+                    case ARG_INT:
+                        arguments[i] = buffer.readVarInt();
+                        break;
+
+                    case ARG_LONG:
+                        arguments[i] = buffer.readVarLong();
+                        break;
+
+                    case ARG_DOUBLE:
+                        arguments[i] = buffer.readDouble();
+                        break;
+
+                    case ARG_BOOLEAN:
+                        arguments[i] = buffer.readBoolean();
+                        break;
+
+                    case ARG_COMPONENT:
+                        arguments[i] = buffer.readTextComponent();
+                        break;
+
+                    default:
+                    case ARG_STRING:
+                        arguments[i] = buffer.readString();
+                        break;
+                }
+            }
+
+            return new Part(kind, text, arguments);
+        }
+
+        final byte kind;
+        final String text;
+        final Object[] arguments;
+    }
+
+    //endregion
+
+    private DebugReport(final ITextComponent header, final int depth) {
+
+        this._header = header;
+        this._lines = new ObjectArrayList<>(8);
+        this._depth = depth;
+    }
+
+    private void addLine(final Part part) {
+        this._lines.add(new Line(0, part));
+    }
+
+    private void merge(final DebugReport other, final Part label) {
+
+        if (1 == other._lines.size()) {
+
+            final Line line = other._lines.get(0);
+            final Part[] parts = new Part[line.parts.length + 2];
+
+            parts[0] = label;
+            parts[1] = SPACE;
+            System.arraycopy(line.parts, 0, parts, 2, line.parts.length);
+            this._lines.add(new Line(line.padding, parts));
+
+        } else {
+
+            this.addLine(label);
+
+            for (final Line line : other._lines) {
+                this._lines.add(new Line(line.padding + other._depth, line.parts));
+            }
+        }
+    }
+
+    private static Part createLabel(final String format, final Object... parameters) {
+        return new Part(parameters.length > 0 ? KIND_TRANSLATION : KIND_TEXT, format, parameters);
+    }
+
+    private static final byte KIND_TEXT = 0;
+    private static final byte KIND_FORMAT = 1;
+    private static final byte KIND_TRANSLATION = 2;
+    private static final byte KIND_COMPONENT = 3;
+
+    private static final byte ARG_INT = 0;
+    private static final byte ARG_LONG = 1;
+    private static final byte ARG_DOUBLE = 2;
+    private static final byte ARG_BOOLEAN = 3;
+    private static final byte ARG_STRING = 4;
+    private static final byte ARG_COMPONENT = 5;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final Part SPACE = new Part(KIND_TEXT, " ", NO_ARGUMENTS);
+    private static final String PADDING = "                    ";
+    private static final int MAX_RAW_SIZE = 4 * 1024 * 1024;
+
+    private final ITextComponent _header;
+    private final List<Line> _lines;
+    private final int _depth;
+
+    //endregion
+}
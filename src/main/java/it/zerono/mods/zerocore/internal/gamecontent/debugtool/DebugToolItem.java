@@ -18,18 +18,26 @@
 
 package it.zerono.mods.zerocore.internal.gamecontent.debugtool;
 
-import com.google.common.collect.Lists;
+import it.zerono.mods.zerocore.ZeroCore;
+import it.zerono.mods.zerocore.internal.network.DebugReportMessage;
+import it.zerono.mods.zerocore.internal.network.Network;
 import it.zerono.mods.zerocore.lib.CodeHelper;
-import it.zerono.mods.zerocore.lib.IDebugMessages;
 import it.zerono.mods.zerocore.lib.IDebuggable;
+import it.zerono.mods.zerocore.lib.debug.IPerformanceInspectable;
 import it.zerono.mods.zerocore.lib.item.ModItem;
+import it.zerono.mods.zerocore.lib.multiblock.IMultiblockPart;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.item.ItemGroup;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemUseContext;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ActionResult;
 import net.minecraft.util.ActionResultType;
+import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.*;
 import net.minecraft.world.IWorldReader;
@@ -39,9 +47,8 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.fml.LogicalSide;
 
 import javax.annotation.Nullable;
-import java.util.Iterator;
 import java.util.List;
-import java.util.function.BiConsumer;
+import java.util.Optional;
 
 public class DebugToolItem
         extends ModItem {
@@ -73,6 +80,29 @@ public class DebugToolItem
         tooltip.add(new TranslationTextComponent("zerocore:debugTool.block.tooltip2", TextFormatting.ITALIC.toString()));
         tooltip.add(new TranslationTextComponent("zerocore:debugTool.block.tooltip3", TextFormatting.GREEN,
                 TextFormatting.GRAY.toString() + TextFormatting.ITALIC.toString()));
+        tooltip.add(new TranslationTextComponent("zerocore:debugTool.block.tooltip4", TextFormatting.GREEN,
+                TextFormatting.GRAY.toString() + TextFormatting.ITALIC.toString()));
+        tooltip.add(getModeName(isInspectorMode(stack)).mergeStyle(TextFormatting.YELLOW));
+    }
+
+    /**
+     * Called to trigger the item's "innate" right click behavior. To handle when this item is used on a Block, see
+     * {@link #onItemUse}.
+     */
+    @Override
+    public ActionResult<ItemStack> onItemRightClick(final World world, final PlayerEntity player, final Hand hand) {
+
+        final ItemStack stack = player.getHeldItem(hand);
+
+        if (CodeHelper.calledByLogicalServer(world)) {
+
+            final boolean inspector = !isInspectorMode(stack);
+
+            stack.getOrCreateTag().putBoolean(NBT_INSPECTOR_MODE, inspector);
+            CodeHelper.sendStatusMessage(player, getModeName(inspector));
+        }
+
+        return ActionResult.resultSuccess(stack);
     }
 
     /**
@@ -101,13 +131,17 @@ public class DebugToolItem
             return ActionResultType.PASS;
         }
 
+        if (isInspectorMode(stack)) {
+            return this.inspect(player, world, pos, side) ? ActionResultType.SUCCESS : ActionResultType.PASS;
+        }
+
         if (WorldHelper.getTile(world, pos)
                 .filter(te -> te instanceof IDebuggable)
                 .map(te -> (IDebuggable)te)
-                .map(debuggee -> MessagesPool.build(debuggee, side))
-                .map(pool -> this.sendMessages(player,
+                .map(debuggee -> DebugReport.build(debuggee, side,
                         new StringTextComponent(String.format("%1$s side debug analysis report of Tile Entity at %2$d, %3$d, %4$d",
-                                CodeHelper.getWorldSideName(world), pos.getX(), pos.getY(), pos.getZ())), pool))
+                                CodeHelper.getWorldSideName(world), pos.getX(), pos.getY(), pos.getZ()))))
+                .map(report -> this.sendReport(player, report))
                 .filter(result -> result)
                 .isPresent()) {
             return ActionResultType.SUCCESS;
@@ -124,161 +158,76 @@ public class DebugToolItem
     //endregion
     //region internals
 
-    private boolean sendMessages(final PlayerEntity player, final ITextComponent header, final MessagesPool pool) {
+    private static boolean isInspectorMode(final ItemStack stack) {
 
-        if (pool.isNotEmpty()) {
+        final CompoundNBT data = stack.getTag();
 
-            CodeHelper.sendChatMessage(player, new StringTextComponent("--------------------------------------------------"));
-            CodeHelper.sendChatMessage(player, header);
-            pool.forEach(message -> CodeHelper.sendChatMessage(player, message));
-            return true;
-        }
-
-        return false;
+        return null != data && data.getBoolean(NBT_INSPECTOR_MODE);
     }
 
-    private static final class MessagesPool implements IDebugMessages, Iterable<ITextComponent> {
-
-        public static MessagesPool build(IDebuggable debuggee, LogicalSide side) {
-
-            final MessagesPool pool = new MessagesPool(0);
-
-            debuggee.getDebugMessages(side, pool);
-            return pool;
-        }
-
-        public boolean isNotEmpty() {
-            return !this._messages.isEmpty();
-        }
-
-        //region IDebugMessages
-
-        /**
-         * Add a message to the messages list
-         *
-         * @param message the language resource key of the message to add
-         */
-        @Override
-        public void add(final ITextComponent message) {
-            this._messages.add(message);
-        }
-
-        /**
-         * Add a message to the messages list using a localized format string
-         *
-         * @param messageFormatStringResourceKey the language resource key of a format string to use to create the message
-         * @param messageParameters              the values to insert in the message
-         */
-        @Override
-        public void add(final String messageFormatStringResourceKey, final Object... messageParameters) {
-            this.add(this.getFormattedTextComponent(messageFormatStringResourceKey, messageParameters));
-        }
-
-        /**
-         * Add messages from another IDebuggable to this messages list
-         * <p>
-         * If the provided IDebuggable provide only one message, the message will be added at the same level of the other
-         * messages in this message list. If it provide more than one message, they will be added as nested messages
-         *
-         * @param debuggable the other IDebuggable to query for messages
-         * @param label      the language resource key of the message to add as a label for the other IDebuggable messages
-         */
-        @Override
-        public void add(final LogicalSide side, final IDebuggable debuggable, final ITextComponent label) {
-
-            final MessagesPool other = new MessagesPool(this._depth + 1);
-
-            debuggable.getDebugMessages(side, other);
-            this.merge(other, label);
-        }
+    private static IFormattableTextComponent getModeName(final boolean inspector) {
+        return new TranslationTextComponent(inspector ? "zerocore:debugTool.mode.inspector" : "zerocore:debugTool.mode.debug");
+    }
 
-        /**
-         * Add messages from another IDebuggable to this messages list
-         * <p>
-         * If the provided IDebuggable provide only one message, the message will be added at the same level of the other
-         * messages in this message list. If it provide more than one message, they will be added as nested messages
-         *
-         * @param side the LogicalSide of the caller
-         * @param debuggable                   the other IDebuggable to query for messages
-         * @param labelFormatStringResourceKey the language resource key of a format string to use to create the label
-         *                                     for the other IDebuggable messages
-         * @param labelParameters              the values to insert in the label
-         */
-        @Override
-        public void add(final LogicalSide side, final IDebuggable debuggable, final String labelFormatStringResourceKey,
-                        final Object... labelParameters) {
-            this.add(side, debuggable, this.getFormattedTextComponent(labelFormatStringResourceKey, labelParameters));
-        }
+    /**
+     * Start a performance inspection of the block entity (or of it's multiblock controller) at the given position
+     * and show the data collected so far
+     */
+    private boolean inspect(final PlayerEntity player, final World world, final BlockPos pos, final LogicalSide side) {
 
-        @Override
-        public <T> void add(final T debuggee, final BiConsumer<IDebugMessages, T> consumer, final ITextComponent label) {
+        return WorldHelper.getTile(world, pos)
+                .flatMap(DebugToolItem::getInspectionTarget)
+                .map(target -> {
 
-            final MessagesPool other = new MessagesPool(this._depth + 1);
+                    final PerformanceInspector inspector = PerformanceInspector.get(side);
+                    final DebugReport report = new DebugReport(new StringTextComponent("").append(PerformanceInspector.getHeader(side))
+                            .appendString(String.format(" at %1$d, %2$d, %3$d", pos.getX(), pos.getY(), pos.getZ())));
 
-            consumer.accept(other, debuggee);
-            this.merge(other, label);
-        }
+                    if (inspector.inspect(player, target)) {
+                        report.addUnlocalized("Collecting performance data: use the tool again to update this report");
+                    }
 
-        @Override
-        public <T> void add(final T debuggee, final BiConsumer<IDebugMessages, T> consumer, final String labelFormatStringResourceKey,
-                        final Object... labelParameters) {
-            this.add(debuggee, consumer, this.getFormattedTextComponent(labelFormatStringResourceKey, labelParameters));
-        }
+                    target.getPerformanceMessages(side, report);
+                    return this.sendReport(player, report);
+                })
+                .orElse(false);
+    }
 
-        //endregion
-        //region Iterable<ITextComponent>
-
-        /**
-         * Returns an iterator over elements of type {@code T}.
-         *
-         * @return an Iterator.
-         */
-        @Override
-        public Iterator<ITextComponent> iterator() {
-            return this._messages.iterator();
-        }
+    private static Optional<IPerformanceInspectable> getInspectionTarget(final TileEntity tile) {
 
-        //endregion
-        //region internals
+        if (tile instanceof IMultiblockPart) {
 
-        private MessagesPool(final int depth) {
+            final Optional<?> controller = ((IMultiblockPart<?>)tile).getMultiblockController();
 
-            this._messages = Lists.newArrayListWithCapacity(2);
-            this._depth = depth;
+            if (controller.isPresent() && controller.get() instanceof IPerformanceInspectable) {
+                return Optional.of((IPerformanceInspectable)controller.get());
+            }
         }
 
-        private void merge(final MessagesPool other, final ITextComponent label) {
+        return tile instanceof IPerformanceInspectable ? Optional.of((IPerformanceInspectable)tile) : Optional.empty();
+    }
 
-            if (1 == other._messages.size()) {
+    /**
+     * Send the report to the player as a single network message or, on the client, display it directly
+     */
+    private boolean sendReport(final PlayerEntity player, final DebugReport report) {
 
-                this.add(new StringTextComponent("").append(label).appendString(" ").append(other._messages.get(0)));
+        if (report.isNotEmpty()) {
 
+            if (player instanceof ServerPlayerEntity) {
+                Network.HANDLER.sendToPlayer(new DebugReportMessage(report), (ServerPlayerEntity)player);
             } else {
-
-                this.add(label);
-                other._messages.forEach(message -> this.add(this.createPadding(other._depth).append(message)));
+                ZeroCore.getProxy().displayDebugReport(report);
             }
-        }
-
-        private IFormattableTextComponent createPadding(final int depth) {
-            return new StringTextComponent("                    ".substring(0, Math.min(20, depth)));
-        }
-
-        private ITextComponent getFormattedTextComponent(final String format, final Object... parameters) {
 
-            if (parameters.length > 0) {
-                return new TranslationTextComponent(format, parameters);
-            } else {
-                return new StringTextComponent(format);
-            }
+            return true;
         }
 
-        private final List<ITextComponent> _messages;
-        private final int _depth;
-
-        //endregion
+        return false;
     }
 
+    private static final String NBT_INSPECTOR_MODE = "inspector";
+
     private static ITestCallback s_testCallback = null;
 
     //endregion
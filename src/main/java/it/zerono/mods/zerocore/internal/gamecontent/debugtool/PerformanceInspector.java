@@ -0,0 +1,177 @@
+/*
+ *
+ * PerformanceInspector.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.gamecontent.debugtool;
+
+import com.google.common.collect.Maps;
+import it.zerono.mods.zerocore.lib.debug.IPerformanceInspectable;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.fml.LogicalSide;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keep track of the entities inspected by the players with the {@link DebugToolItem}.
+ *
+ * An inspected entity collect {@link PerformanceCounters} until the inspection expire. While an inspection is
+ * active, a summary of the counters is shown to the player every second.
+ *
+ * There is an inspector for each logical side and each inspector must be used only from the thread of it's side.
+ */
+public final class PerformanceInspector {
+
+    public static PerformanceInspector get(final LogicalSide side) {
+        return side.isServer() ? SERVER : CLIENT;
+    }
+
+    /**
+     * Start inspecting an entity or, if the player is already inspecting it, extend the current inspection
+     *
+     * @param player the player
+     * @param target the entity to inspect
+     * @return true if a new inspection was started, false otherwise
+     */
+    public boolean inspect(final PlayerEntity player, final IPerformanceInspectable target) {
+
+        final Inspection current = this._inspections.get(player.getUniqueID());
+
+        if (null != current && current._target == target) {
+
+            current._player = player;
+            current._expireTick = this._currentTick + INSPECTION_DURATION;
+            return false;
+        }
+
+        if (null != current) {
+            this.stop(player.getUniqueID(), current);
+        }
+
+        // share the counters if another player is already inspecting the same target
+        if (null == target.getPerformanceCounters()) {
+            target.setPerformanceCounters(new PerformanceCounters());
+        }
+
+        this._inspections.put(player.getUniqueID(), new Inspection(player, target, this._currentTick + INSPECTION_DURATION));
+        return true;
+    }
+
+    /**
+     * Update the active inspections. Must be called once per tick
+     */
+    public void tick() {
+
+        if (this._inspections.isEmpty()) {
+            return;
+        }
+
+        final long tick = ++this._currentTick;
+        final Iterator<Map.Entry<UUID, Inspection>> iterator = this._inspections.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+
+            final Inspection inspection = iterator.next().getValue();
+
+            if (tick >= inspection._expireTick || !inspection._player.isAlive()) {
+
+                iterator.remove();
+                this.release(inspection._target);
+                inspection._player.sendStatusMessage(new StringTextComponent("Performance inspection ended")
+                        .mergeStyle(TextFormatting.GRAY), true);
+
+            } else if (0 == tick % 20) {
+
+                final PerformanceCounters counters = inspection._target.getPerformanceCounters();
+
+                if (null != counters) {
+                    inspection._player.sendStatusMessage(counters.getSummary(), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop all the inspections
+     */
+    public void clear() {
+
+        this._inspections.values().forEach(inspection -> inspection._target.setPerformanceCounters(null));
+        this._inspections.clear();
+    }
+
+    public static ITextComponent getHeader(final LogicalSide side) {
+        return new StringTextComponent(String.format("%1$s side performance inspection (%2$ds)",
+                side.isServer() ? "Server" : "Client", INSPECTION_DURATION / 20));
+    }
+
+    //region internals
+
+    private static final class Inspection {
+
+        Inspection(final PlayerEntity player, final IPerformanceInspectable target, final long expireTick) {
+
+            this._player = player;
+            this._target = target;
+            this._expireTick = expireTick;
+        }
+
+        private PlayerEntity _player;
+        private final IPerformanceInspectable _target;
+        private long _expireTick;
+    }
+
+    private PerformanceInspector() {
+        this._inspections = Maps.newHashMap();
+    }
+
+    private void stop(final UUID playerId, final Inspection inspection) {
+
+        this._inspections.remove(playerId);
+        this.release(inspection._target);
+    }
+
+    /**
+     * Stop collecting data for the target if no other player is inspecting it
+     */
+    private void release(final IPerformanceInspectable target) {
+
+        for (final Inspection other : this._inspections.values()) {
+            if (other._target == target) {
+                return;
+            }
+        }
+
+        target.setPerformanceCounters(null);
+    }
+
+    // 30 seconds
+    private static final int INSPECTION_DURATION = 600;
+
+    private static final PerformanceInspector SERVER = new PerformanceInspector();
+    private static final PerformanceInspector CLIENT = new PerformanceInspector();
+
+    private final Map<UUID, Inspection> _inspections;
+    private long _currentTick;
+
+    //endregion
+}
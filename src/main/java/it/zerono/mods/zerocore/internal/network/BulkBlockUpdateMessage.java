@@ -0,0 +1,550 @@
+/*
+ *
+ * BulkBlockUpdateMessage.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.network;
+
+import com.google.common.collect.Lists;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.CodeHelper;
+import it.zerono.mods.zerocore.lib.block.AbstractModBlockEntity;
+import it.zerono.mods.zerocore.lib.network.AbstractModMessage;
+import it.zerono.mods.zerocore.lib.world.WorldHelper;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.SUpdateTileEntityPacket;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Send the blocks states and the tile entities data of a group of blocks to the clients in a single message.
+ *
+ * Blocks are grouped by chunk section: on the client, each section is re-rendered
+ * after all the blocks states and tile entities data were updated.
+ *
+ * Only the tile entities extending {@link AbstractModBlockEntity} are sent in bulk, with the same data they put in
+ * their update packet. Blocks with any other tile entity are left to the vanilla block update
+ *
+ * The blocks are split across multiple messages so that the encoded size of each message stay below the
+ * vanilla limit for a server to client custom payload
+ */
+public class BulkBlockUpdateMessage
+        extends AbstractModMessage {
+
+    /**
+     * Send all the blocks in the given range to the players tracking the chunks containing them
+     *
+     * @param world the world containing the blocks
+     * @param min the minimum coordinates of the range (inclusive)
+     * @param max the maximum coordinates of the range (inclusive)
+     */
+    public static void sendRange(final ServerWorld world, final BlockPos min, final BlockPos max) {
+
+        final Batch batch = new Batch(world);
+        final BlockPos.Mutable position = new BlockPos.Mutable();
+        final int minX = min.getX(), minY = min.getY(), minZ = min.getZ();
+        final int maxX = max.getX(), maxY = max.getY(), maxZ = max.getZ();
+
+        for (int sectionX = minX >> 4; sectionX <= maxX >> 4; ++sectionX) {
+            for (int sectionZ = minZ >> 4; sectionZ <= maxZ >> 4; ++sectionZ) {
+
+                if (!world.isBlockPresent(position.setPos(sectionX << 4, 0, sectionZ << 4))) {
+                    continue;
+                }
+
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; ++sectionY) {
+
+                    final int fromX = Math.max(minX, sectionX << 4), toX = Math.min(maxX, (sectionX << 4) + 15);
+                    final int fromY = Math.max(minY, sectionY << 4), toY = Math.min(maxY, (sectionY << 4) + 15);
+                    final int fromZ = Math.max(minZ, sectionZ << 4), toZ = Math.min(maxZ, (sectionZ << 4) + 15);
+
+                    batch.beginSection(sectionX, sectionY, sectionZ);
+
+                    for (int x = fromX; x <= toX; ++x) {
+                        for (int z = fromZ; z <= toZ; ++z) {
+                            for (int y = fromY; y <= toY; ++y) {
+                                batch.add(position.setPos(x, y, z));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        batch.flush();
+    }
+
+    /**
+     * Send the given blocks to the players tracking the chunks containing them
+     *
+     * @param world the world containing the blocks
+     * @param positions the positions of the blocks
+     */
+    public static void sendPositions(final ServerWorld world, final Collection<BlockPos> positions) {
+
+        final Long2ObjectLinkedOpenHashMap<List<BlockPos>> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+        for (final BlockPos position : positions) {
+            if (world.isBlockPresent(position)) {
+                sections.computeIfAbsent(SectionPos.asLong(position.getX() >> 4, position.getY() >> 4, position.getZ() >> 4),
+                        key -> Lists.newArrayList()).add(position);
+            }
+        }
+
+        final Batch batch = new Batch(world);
+
+        sections.long2ObjectEntrySet().forEach(entry -> {
+
+            final long section = entry.getLongKey();
+
+            batch.beginSection(SectionPos.extractX(section), SectionPos.extractY(section), SectionPos.extractZ(section));
+            entry.getValue().forEach(batch::add);
+        });
+
+        batch.flush();
+    }
+
+    public BulkBlockUpdateMessage(final PacketBuffer buffer) {
+
+        super(buffer);
+
+        final int sectionsCount = buffer.readVarInt();
+
+        this._sections = new long[sectionsCount];
+        this._sectionSizes = new int[sectionsCount];
+
+        for (int i = 0; i < sectionsCount; ++i) {
+
+            this._sections[i] = buffer.readLong();
+            this._sectionSizes[i] = buffer.readVarInt();
+        }
+
+        final int blocksCount = buffer.readVarInt();
+
+        this._positions = new short[blocksCount];
+        this._states = new int[blocksCount];
+
+        for (int i = 0; i < blocksCount; ++i) {
+
+            this._positions[i] = buffer.readShort();
+            this._states[i] = buffer.readVarInt();
+        }
+
+        final int tilesCount = buffer.readVarInt();
+
+        this._tilesCount = tilesCount;
+        this._encodedTiles = null;
+        this._tilePositions = new long[tilesCount];
+        this._tileTypes = new int[tilesCount];
+        this._tilesData = Lists.newArrayListWithCapacity(tilesCount);
+
+        for (int i = 0; i < tilesCount; ++i) {
+
+            this._tilePositions[i] = buffer.readLong();
+            this._tileTypes[i] = buffer.readVarInt();
+            this._tilesData.add(buffer.readCompoundTag());
+        }
+    }
+
+    //region AbstractModMessage
+
+    /**
+     * Encode your data into the {@link PacketBuffer} so it could be sent on the network to the other side.
+     *
+     * @param buffer the {@link PacketBuffer} to encode your data into
+     */
+    @Override
+    public void encodeTo(final PacketBuffer buffer) {
+
+        buffer.writeVarInt(this._sections.length);
+
+        for (int i = 0; i < this._sections.length; ++i) {
+
+            buffer.writeLong(this._sections[i]);
+            buffer.writeVarInt(this._sectionSizes[i]);
+        }
+
+        buffer.writeVarInt(this._positions.length);
+
+        for (int i = 0; i < this._positions.length; ++i) {
+
+            buffer.writeShort(this._positions[i]);
+            buffer.writeVarInt(this._states[i]);
+        }
+
+        buffer.writeVarInt(this._tilesCount);
+
+        if (null != this._encodedTiles) {
+
+            // the tile entities data were already encoded by the Batch
+            buffer.writeBytes(this._encodedTiles);
+
+        } else {
+
+            for (int i = 0; i < this._tilesCount; ++i) {
+
+                buffer.writeLong(this._tilePositions[i]);
+                buffer.writeVarInt(this._tileTypes[i]);
+                buffer.writeCompoundTag(this._tilesData.get(i));
+            }
+        }
+    }
+
+    /**
+     * Process the data received from the network.
+     *
+     * @param messageContext context for {@link NetworkEvent}
+     */
+    @Override
+    public void processMessage(final NetworkEvent.Context messageContext) {
+
+        if (NetworkDirection.PLAY_TO_CLIENT == messageContext.getDirection()) {
+            WorldHelper.getClientWorld().ifPresent(world -> this.apply(world, messageContext.getNetworkManager()));
+        }
+    }
+
+    //endregion
+    //region internals
+    //region Batch
+
+    /**
+     * Collect the blocks to send, section by section, splitting them across multiple messages if needed
+     */
+    private static final class Batch {
+
+        Batch(final ServerWorld world) {
+
+            this._world = world;
+            this._sections = new LongArrayList();
+            this._sectionSizes = new IntArrayList();
+            this._positions = new ShortArrayList();
+            this._states = new IntArrayList();
+            this._tiles = new PacketBuffer(Unpooled.buffer());
+            this._tileScratch = new PacketBuffer(Unpooled.buffer());
+            this._tilesCount = 0;
+            this._chunks = new LongOpenHashSet();
+            this._currentSection = 0;
+            this._currentSectionIndex = -1;
+            this._payloadSize = PAYLOAD_HEADER_SIZE;
+        }
+
+        void beginSection(final int sectionX, final int sectionY, final int sectionZ) {
+
+            this._currentSection = SectionPos.asLong(sectionX, sectionY, sectionZ);
+            this._currentSectionIndex = -1;
+            this._chunks.add(ChunkPos.asLong(sectionX, sectionZ));
+        }
+
+        void add(final BlockPos position) {
+
+            final BlockState state = this._world.getBlockState(position);
+            final int stateId = Block.getStateId(state);
+            int tileSize = 0;
+
+            this._tileScratch.clear();
+
+            if (state.hasTileEntity()) {
+
+                final TileEntity te = this._world.getTileEntity(position);
+
+                if (null != te && !(te instanceof AbstractModBlockEntity)) {
+
+                    // we don't know how this tile entity handle its data on the client: let vanilla send it
+                    this._world.notifyBlockUpdate(position, state, state, 3);
+                    return;
+                }
+
+                final SUpdateTileEntityPacket packet = null != te ? te.getUpdatePacket() : null;
+
+                if (null != packet && null != packet.getNbtCompound()) {
+
+                    this._tileScratch.writeLong(position.toLong());
+                    this._tileScratch.writeVarInt(packet.getTileEntityType());
+                    this._tileScratch.writeCompoundTag(packet.getNbtCompound());
+                    tileSize = this._tileScratch.readableBytes();
+
+                    if (tileSize > MAX_PAYLOAD_SIZE - PAYLOAD_HEADER_SIZE - SECTION_HEADER_SIZE - MAX_BLOCK_SIZE) {
+
+                        Log.LOGGER.warn(Log.NETWORK, "The data of the tile entity at {} is too big to be sent ({} bytes): skipping it",
+                                position, tileSize);
+                        tileSize = 0;
+                    }
+                }
+            }
+
+            final int blockSize = 2 + PacketBuffer.getVarIntSize(stateId) + tileSize +
+                    (-1 == this._currentSectionIndex ? SECTION_HEADER_SIZE : 0);
+
+            if (!this._positions.isEmpty() && this._payloadSize + blockSize > MAX_PAYLOAD_SIZE) {
+
+                final long section = this._currentSection;
+
+                this.flush();
+                // continue the current section in the next message
+                this._currentSection = section;
+                this._chunks.add(ChunkPos.asLong(SectionPos.extractX(section), SectionPos.extractZ(section)));
+            }
+
+            if (-1 == this._currentSectionIndex) {
+
+                this._currentSectionIndex = this._sections.size();
+                this._sections.add(this._currentSection);
+                this._sectionSizes.add(0);
+                this._payloadSize += SECTION_HEADER_SIZE;
+            }
+
+            this._positions.add(packLocalPosition(position));
+            this._states.add(stateId);
+            this._sectionSizes.set(this._currentSectionIndex, this._sectionSizes.getInt(this._currentSectionIndex) + 1);
+            this._payloadSize += 2 + PacketBuffer.getVarIntSize(stateId);
+
+            if (tileSize > 0) {
+
+                this._tiles.writeBytes(this._tileScratch);
+                ++this._tilesCount;
+                this._payloadSize += tileSize;
+            }
+        }
+
+        void flush() {
+
+            if (!this._positions.isEmpty()) {
+
+                final byte[] encodedTiles = new byte[this._tiles.readableBytes()];
+
+                this._tiles.readBytes(encodedTiles);
+
+                final BulkBlockUpdateMessage message = new BulkBlockUpdateMessage(this._sections.toLongArray(),
+                        this._sectionSizes.toIntArray(), this._positions.toShortArray(), this._states.toIntArray(),
+                        this._tilesCount, encodedTiles);
+                final Set<ServerPlayerEntity> players = new ReferenceOpenHashSet<>();
+
+                if (CodeHelper.isDevEnv()) {
+                    verifyEncoding(message, this._payloadSize);
+                }
+
+                this._chunks.forEach((long chunk) -> this._world.getChunkProvider().chunkManager
+                        .getTrackingPlayers(new ChunkPos(chunk), false)
+                        .forEach(players::add));
+
+                players.forEach(player -> Network.HANDLER.sendToPlayer(message, player));
+            }
+
+            this._sections.clear();
+            this._sectionSizes.clear();
+            this._positions.clear();
+            this._states.clear();
+            this._tiles.clear();
+            this._tilesCount = 0;
+            this._chunks.clear();
+            this._currentSectionIndex = -1;
+            this._payloadSize = PAYLOAD_HEADER_SIZE;
+        }
+
+        private final ServerWorld _world;
+        private final LongArrayList _sections;
+        private final IntArrayList _sectionSizes;
+        private final ShortArrayList _positions;
+        private final IntArrayList _states;
+        // the tile entities data, already encoded as they will be sent
+        private final PacketBuffer _tiles;
+        private final PacketBuffer _tileScratch;
+        private int _tilesCount;
+        private final LongSet _chunks;
+        private long _currentSection;
+        private int _currentSectionIndex;
+        // an upper bound of the encoded size of the message being built
+        private int _payloadSize;
+    }
+
+    //endregion
+
+    protected BulkBlockUpdateMessage(final long[] sections, final int[] sectionSizes, final short[] positions,
+                                     final int[] states, final int tilesCount, final byte[] encodedTiles) {
+
+        this._sections = sections;
+        this._sectionSizes = sectionSizes;
+        this._positions = positions;
+        this._states = states;
+        this._tilesCount = tilesCount;
+        this._encodedTiles = encodedTiles;
+        this._tilePositions = null;
+        this._tileTypes = null;
+        this._tilesData = null;
+    }
+
+    /**
+     * Encode the given message, decode it back and check that nothing was lost along the way
+     * and that the encoded message is not bigger than what was expected
+     *
+     * @param message the message to check
+     * @param expectedMaxSize the upper bound of the encoded size of the message
+     */
+    private static void verifyEncoding(final BulkBlockUpdateMessage message, final int expectedMaxSize) {
+
+        final PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+
+        try {
+
+            message.encodeTo(buffer);
+
+            final int size = buffer.readableBytes();
+            final BulkBlockUpdateMessage decoded = new BulkBlockUpdateMessage(buffer);
+
+            if (size > expectedMaxSize || size > MAX_PAYLOAD_SIZE || buffer.isReadable() ||
+                    !Arrays.equals(message._sections, decoded._sections) ||
+                    !Arrays.equals(message._sectionSizes, decoded._sectionSizes) ||
+                    !Arrays.equals(message._positions, decoded._positions) ||
+                    !Arrays.equals(message._states, decoded._states) ||
+                    message._tilesCount != decoded._tilesCount) {
+
+                Log.LOGGER.error(Log.NETWORK, "Bulk block update message round-trip failed: {} bytes encoded, {} bytes expected at most",
+                        size, expectedMaxSize);
+            }
+
+        } catch (RuntimeException ex) {
+
+            Log.LOGGER.error(Log.NETWORK, "Bulk block update message round-trip failed", ex);
+
+        } finally {
+
+            buffer.release();
+        }
+    }
+
+    private void apply(final World world, final NetworkManager networkManager) {
+
+        final BlockPos.Mutable position = new BlockPos.Mutable();
+        final int[] bounds = new int[this._sections.length * 6];
+        int block = 0;
+
+        // update the blocks states...
+
+        for (int section = 0; section < this._sections.length; ++section) {
+
+            final int originX = SectionPos.extractX(this._sections[section]) << 4;
+            final int originY = SectionPos.extractY(this._sections[section]) << 4;
+            final int originZ = SectionPos.extractZ(this._sections[section]) << 4;
+            int minX = 15, minY = 15, minZ = 15, maxX = 0, maxY = 0, maxZ = 0;
+
+            for (int i = 0; i < this._sectionSizes[section]; ++i, ++block) {
+
+                final short local = this._positions[block];
+                final int x = (local >> 8) & 15, z = (local >> 4) & 15, y = local & 15;
+                final BlockState state = Block.getStateById(this._states[block]);
+
+                position.setPos(originX + x, originY + y, originZ + z);
+
+                if (world.getBlockState(position) != state) {
+                    // same flags used by vanilla when a block change is received from the server
+                    world.setBlockState(position, state, CLIENT_BLOCK_UPDATE_FLAGS);
+                }
+
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+
+            final int base = section * 6;
+
+            bounds[base] = originX + minX;
+            bounds[base + 1] = originY + minY;
+            bounds[base + 2] = originZ + minZ;
+            bounds[base + 3] = originX + maxX;
+            bounds[base + 4] = originY + maxY;
+            bounds[base + 5] = originZ + maxZ;
+        }
+
+        // ... then the tile entities ...
+
+        for (int i = 0; i < this._tilesCount; ++i) {
+
+            position.setPos(this._tilePositions[i]);
+
+            final TileEntity te = world.getTileEntity(position);
+
+            if (te instanceof AbstractModBlockEntity) {
+                te.onDataPacket(networkManager, new SUpdateTileEntityPacket(position.toImmutable(), this._tileTypes[i], this._tilesData.get(i)));
+            }
+        }
+
+        // ... and finally re-render each section, now that the tile entities data is in place
+
+        for (int base = 0; base < bounds.length; base += 6) {
+            WorldHelper.markBlockRangeForRenderUpdate(new BlockPos(bounds[base], bounds[base + 1], bounds[base + 2]),
+                    new BlockPos(bounds[base + 3], bounds[base + 4], bounds[base + 5]));
+        }
+    }
+
+    /**
+     * Pack the coordinates of the given position, relative to it's chunk section, in a short (same layout used by vanilla)
+     */
+    private static short packLocalPosition(final BlockPos position) {
+        return (short)((position.getX() & 15) << 8 | (position.getZ() & 15) << 4 | (position.getY() & 15));
+    }
+
+    // vanilla limit for a server to client custom payload (1 MiB) minus some room for the channel data
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024 - 1024;
+    // the three counts, as VarInts
+    private static final int PAYLOAD_HEADER_SIZE = 3 * 5;
+    // the section position and the section size, as a VarInt
+    private static final int SECTION_HEADER_SIZE = 8 + 5;
+    // the packed position and the state id, as a VarInt
+    private static final int MAX_BLOCK_SIZE = 2 + 5;
+
+    private static final int CLIENT_BLOCK_UPDATE_FLAGS = 19;
+
+    private final long[] _sections;
+    private final int[] _sectionSizes;
+    private final short[] _positions;
+    private final int[] _states;
+    private final int _tilesCount;
+    // server side only
+    private final byte[] _encodedTiles;
+    // client side only
+    private final long[] _tilePositions;
+    private final int[] _tileTypes;
+    private final List<CompoundNBT> _tilesData;
+
+    //endregion
+}
@@ -36,6 +36,9 @@ public final class Network {
         HANDLER.registerMessage(ModSyncableTileMessage.class, ModSyncableTileMessage::new);
         HANDLER.registerMessage(ErrorReportMessage.class, ErrorReportMessage::new);
         HANDLER.registerMessage(InternalCommandMessage.class, InternalCommandMessage::new);
+        HANDLER.registerMessage(BulkBlockUpdateMessage.class, BulkBlockUpdateMessage::new);
+        HANDLER.registerMessage(StringTableMessage.class, StringTableMessage::new);
+        HANDLER.registerMessage(DebugReportMessage.class, DebugReportMessage::new);
     }
 
     public static <Message extends IModMessage> void sendToAllPlayers(final Message message) {
@@ -55,6 +58,6 @@ public final class Network {
     }
 
     static {
-        HANDLER = new NetworkHandler(ZeroCore.newID("network"), "1");
+        HANDLER = new NetworkHandler(ZeroCore.newID("network"), "2");
     }
 }
@@ -0,0 +1,111 @@
+/*
+ *
+ * StringTableMessage.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.network;
+
+import com.google.common.collect.ImmutableList;
+import it.zerono.mods.zerocore.lib.network.AbstractModMessage;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.List;
+
+/**
+ * Send the content of the server {@link NetworkStringTable} to the clients
+ */
+public class StringTableMessage
+        extends AbstractModMessage {
+
+    /**
+     * Construct the local message to be sent over the network.
+     *
+     * @param reset if true, values contains the whole table
+     * @param firstId the id of the first string in values
+     * @param values the strings to send
+     */
+    public StringTableMessage(final boolean reset, final int firstId, final List<String> values) {
+
+        this._reset = reset;
+        this._firstId = firstId;
+        this._values = values;
+    }
+
+    /**
+     * Construct the message from the data received from the network.
+     * Read your payload from the {@link PacketBuffer} and store it locally for later processing.
+     *
+     * @param buffer the {@link PacketBuffer} containing the data received from the network.
+     */
+    public StringTableMessage(final PacketBuffer buffer) {
+
+        super(buffer);
+        this._reset = buffer.readBoolean();
+        this._firstId = buffer.readVarInt();
+
+        final int count = buffer.readVarInt();
+        final ImmutableList.Builder<String> values = ImmutableList.builder();
+
+        for (int i = 0; i < count; ++i) {
+            values.add(buffer.readString(MAX_LENGTH));
+        }
+
+        this._values = values.build();
+    }
+
+    //region AbstractModMessage
+
+    /**
+     * Encode your data into the {@link PacketBuffer} so it could be sent on the network to the other side.
+     *
+     * @param buffer the {@link PacketBuffer} to encode your data into
+     */
+    @Override
+    public void encodeTo(final PacketBuffer buffer) {
+
+        buffer.writeBoolean(this._reset);
+        buffer.writeVarInt(this._firstId);
+        buffer.writeVarInt(this._values.size());
+        this._values.forEach(value -> buffer.writeString(value, MAX_LENGTH));
+    }
+
+    /**
+     * Process the data received from the network.
+     *
+     * @param messageContext context for {@link NetworkEvent}
+     */
+    @Override
+    public void processMessage(final NetworkEvent.Context messageContext) {
+
+        if (NetworkDirection.PLAY_TO_CLIENT == messageContext.getDirection()) {
+            NetworkStringTable.CLIENT.update(this._reset, this._firstId, this._values);
+        }
+    }
+
+    //endregion
+    //region internals
+
+    private static final int MAX_LENGTH = 32767;
+
+    private final boolean _reset;
+    private final int _firstId;
+    private final List<String> _values;
+
+    //endregion
+}
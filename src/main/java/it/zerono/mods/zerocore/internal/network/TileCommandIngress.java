@@ -0,0 +1,385 @@
+/*
+ *
+ * TileCommandIngress.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.internal.network;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.block.TileCommandDispatcher;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.LogicalSide;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The server side entry point for the Tile Commands sent by the clients.
+ *
+ * Incoming commands are checked against two token buckets, one for each player and one for each player and
+ * command name, and then queued in a bounded per-player queue. The name of a command is resolved only after the
+ * command is accepted. Identical idempotent commands (same tile, name and parameters) already waiting in a queue are
+ * coalesced in a single one (see {@link TileCommandDispatcher#isIdempotentCommand(String)}): all the other commands
+ * are always processed one by one.
+ * The queues are drained at the start of every server tick, in a round-robin fashion between the players,
+ * up to a fixed number of commands per tick: what is left over will be processed in the next ticks.
+ *
+ * All the methods must be called from the server thread.
+ */
+public final class TileCommandIngress {
+
+    public static final TileCommandIngress INSTANCE = new TileCommandIngress();
+
+    /**
+     * Accept a command from a player, if the player is allowed to send it
+     *
+     * @param player the player that sent the command
+     * @param message the command
+     */
+    void offer(final ServerPlayerEntity player, final TileCommandMessage message) {
+
+        ++this._received;
+
+        final PlayerQueue queue = this._queues.computeIfAbsent(player.getUniqueID(), id -> new PlayerQueue(player));
+
+        // the player entity is replaced when the player respawn
+        queue._player = player;
+        final Object nameKey = message.getUnresolvedNameKey();
+
+        if (!queue.tryAcquire(nameKey, this._currentTick)) {
+
+            if (0 == this._rateLimited++ % 100) {
+                Log.LOGGER.warn(Log.NETWORK, "Player {} is sending too many Tile Commands ({}): dropping them",
+                        player.getName().getString(), nameKey);
+            }
+
+            return;
+        }
+
+        if (!message.resolveName(LogicalSide.SERVER)) {
+            return;
+        }
+
+        final CommandKey key = TileCommandDispatcher.isIdempotentCommand(message.getCommandName()) ? new CommandKey(message) : null;
+
+        if (null != key && queue._pendingKeys.contains(key)) {
+
+            ++this._coalesced;
+            return;
+        }
+
+        if (queue._commands.size() >= MAX_QUEUED_PER_PLAYER) {
+
+            ++this._dropped;
+            return;
+        }
+
+        queue._commands.add(new QueuedCommand(message, key));
+        ++this._queuedCount;
+
+        if (null != key) {
+            queue._pendingKeys.add(key);
+        }
+    }
+
+    /**
+     * Process the queued commands. Called at the start of every server tick
+     */
+    public void tick() {
+
+        ++this._currentTick;
+
+        int budget = MAX_PROCESSED_PER_TICK;
+
+        while (budget > 0 && this._queuedCount > 0) {
+
+            final ObjectIterator<PlayerQueue> queues = this._queues.values().iterator();
+
+            while (budget > 0 && queues.hasNext()) {
+
+                final PlayerQueue queue = queues.next();
+                final QueuedCommand command = queue._commands.poll();
+
+                if (null != command) {
+
+                    if (null != command._key) {
+                        queue._pendingKeys.remove(command._key);
+                    }
+
+                    --this._queuedCount;
+                    --budget;
+                    ++this._processed;
+
+                    command._message.dispatch(queue._player);
+                }
+            }
+        }
+
+        if (this._queuedCount > 0) {
+            ++this._overBudgetTicks;
+        }
+    }
+
+    /**
+     * Drop all the state and the pending commands of a player that left the server
+     *
+     * @param player the player
+     */
+    public void onPlayerLoggedOut(final ServerPlayerEntity player) {
+
+        final PlayerQueue queue = this._queues.remove(player.getUniqueID());
+
+        if (null != queue) {
+            this._queuedCount -= queue._commands.size();
+        }
+    }
+
+    /**
+     * Drop all the pending commands and reset the statistics
+     */
+    public void clear() {
+
+        this._queues.clear();
+        this._queuedCount = 0;
+        this.resetStatistics();
+    }
+
+    //region statistics
+
+    public long getReceivedCount() {
+        return this._received;
+    }
+
+    public long getProcessedCount() {
+        return this._processed;
+    }
+
+    public long getCoalescedCount() {
+        return this._coalesced;
+    }
+
+    public long getRateLimitedCount() {
+        return this._rateLimited;
+    }
+
+    public long getDroppedCount() {
+        return this._dropped;
+    }
+
+    public long getOverBudgetTicksCount() {
+        return this._overBudgetTicks;
+    }
+
+    public int getQueuedCount() {
+        return this._queuedCount;
+    }
+
+    public void resetStatistics() {
+        this._received = this._processed = this._coalesced = this._rateLimited = this._dropped = this._overBudgetTicks = 0;
+    }
+
+    //endregion
+    //region internals
+    //region TokenBucket
+
+    private static final class TokenBucket {
+
+        TokenBucket(final int capacity, final float refillPerTick, final long currentTick) {
+
+            this._capacity = capacity;
+            this._refillPerTick = refillPerTick;
+            this._tokens = capacity;
+            this._lastRefillTick = currentTick;
+        }
+
+        boolean canAcquire(final long currentTick) {
+
+            if (currentTick != this._lastRefillTick) {
+
+                this._tokens = Math.min(this._capacity, this._tokens + (currentTick - this._lastRefillTick) * this._refillPerTick);
+                this._lastRefillTick = currentTick;
+            }
+
+            return this._tokens >= 1.0f;
+        }
+
+        void acquire() {
+            this._tokens -= 1.0f;
+        }
+
+        private final int _capacity;
+        private final float _refillPerTick;
+        private float _tokens;
+        private long _lastRefillTick;
+    }
+
+    //endregion
+    //region PlayerQueue
+
+    private static final class PlayerQueue {
+
+        PlayerQueue(final ServerPlayerEntity player) {
+
+            this._player = player;
+            this._commands = new ArrayDeque<>(16);
+            this._pendingKeys = new ObjectOpenHashSet<>(16);
+            this._commandBuckets = new Object2ObjectOpenHashMap<>(8);
+            this._bucket = null;
+        }
+
+        boolean tryAcquire(final Object commandName, final long currentTick) {
+
+            if (null == this._bucket) {
+                this._bucket = new TokenBucket(PLAYER_BURST, PLAYER_REFILL_PER_TICK, currentTick);
+            }
+
+            TokenBucket commandBucket = this._commandBuckets.get(commandName);
+
+            if (null == commandBucket) {
+
+                if (this._commandBuckets.size() >= MAX_COMMAND_NAMES_PER_PLAYER) {
+                    return false;
+                }
+
+                this._commandBuckets.put(commandName, commandBucket = new TokenBucket(COMMAND_BURST, COMMAND_REFILL_PER_TICK, currentTick));
+            }
+
+            if (this._bucket.canAcquire(currentTick) && commandBucket.canAcquire(currentTick)) {
+
+                this._bucket.acquire();
+                commandBucket.acquire();
+                return true;
+            }
+
+            return false;
+        }
+
+        private ServerPlayerEntity _player;
+        private final Deque<QueuedCommand> _commands;
+        // the keys of the idempotent commands waiting in the queue
+        private final Set<CommandKey> _pendingKeys;
+        private final Map<Object, TokenBucket> _commandBuckets;
+        private TokenBucket _bucket;
+    }
+
+    //endregion
+    //region QueuedCommand
+
+    private static final class QueuedCommand {
+
+        QueuedCommand(final TileCommandMessage message, @Nullable final CommandKey key) {
+
+            this._message = message;
+            this._key = key;
+        }
+
+        private final TileCommandMessage _message;
+        @Nullable
+        private final CommandKey _key;
+    }
+
+    //endregion
+    //region CommandKey
+
+    private static final class CommandKey {
+
+        CommandKey(final TileCommandMessage message) {
+
+            this._dimension = message.getDimension().orElse(null);
+            this._position = message.getTileEntityPosition().toLong();
+            this._name = message.getCommandName();
+            this._parameters = message.getParameters();
+            this._hash = Objects.hash(this._dimension, this._position, this._name, this._parameters);
+        }
+
+        //region Object
+
+        @Override
+        public boolean equals(final Object other) {
+
+            if (this == other) {
+                return true;
+            }
+
+            if (other instanceof CommandKey) {
+
+                final CommandKey key = (CommandKey)other;
+
+                return this._hash == key._hash && this._position == key._position && this._dimension == key._dimension &&
+                        this._name.equals(key._name) && this._parameters.equals(key._parameters);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return this._hash;
+        }
+
+        //endregion
+
+        @Nullable
+        private final RegistryKey<World> _dimension;
+        private final long _position;
+        private final String _name;
+        private final CompoundNBT _parameters;
+        private final int _hash;
+    }
+
+    //endregion
+
+    private TileCommandIngress() {
+        this._queues = new Object2ObjectLinkedOpenHashMap<>(16);
+    }
+
+    // a player could send up to PLAYER_BURST commands at once and then 20 commands per second
+    private static final int PLAYER_BURST = 40;
+    private static final float PLAYER_REFILL_PER_TICK = 1.0f;
+
+    // ... and up to COMMAND_BURST commands with the same name at once and then 5 per second
+    private static final int COMMAND_BURST = 10;
+    private static final float COMMAND_REFILL_PER_TICK = 0.25f;
+
+    private static final int MAX_COMMAND_NAMES_PER_PLAYER = 64;
+    private static final int MAX_QUEUED_PER_PLAYER = 64;
+    private static final int MAX_PROCESSED_PER_TICK = 256;
+
+    private final Object2ObjectLinkedOpenHashMap<UUID, PlayerQueue> _queues;
+    private int _queuedCount;
+    private long _currentTick;
+
+    private long _received;
+    private long _processed;
+    private long _coalesced;
+    private long _rateLimited;
+    private long _dropped;
+    private long _overBudgetTicks;
+
+    //endregion
+}
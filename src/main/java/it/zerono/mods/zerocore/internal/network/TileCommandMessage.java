@@ -22,12 +22,17 @@ import it.zerono.mods.zerocore.internal.Log;
 import it.zerono.mods.zerocore.lib.block.AbstractModBlockEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.NBTHelper;
 import it.zerono.mods.zerocore.lib.network.AbstractModTileMessage;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkEvent;
 
 import java.util.Objects;
+import java.util.Optional;
 
 public class TileCommandMessage
         extends AbstractModTileMessage {
@@ -59,7 +64,8 @@ public class TileCommandMessage
     public TileCommandMessage(final PacketBuffer buffer) {
 
         super(buffer);
-        this._name = buffer.readString(4096);
+        this._name = null;
+        this._nameReference = NetworkStringTable.read(buffer, 4096);
 
         if (buffer.readBoolean()) {
             this._parameters = buffer.readCompoundTag();
@@ -74,7 +80,7 @@ public class TileCommandMessage
     public void encodeTo(final PacketBuffer buffer) {
 
         super.encodeTo(buffer);
-        buffer.writeString(this._name);
+        NetworkStringTable.write(buffer, Objects.requireNonNull(this._name));
 
         if (this._parameters.isEmpty()) {
 
@@ -87,6 +93,33 @@ public class TileCommandMessage
         }
     }
 
+    /**
+     * Process the data received from the network.
+     * Commands coming from a client are handed to the {@link TileCommandIngress} that will process them later on
+     *
+     * @param messageContext the message context
+     */
+    @Override
+    public void processMessage(final NetworkEvent.Context messageContext) {
+
+        final NetworkDirection direction = messageContext.getDirection();
+        final ServerPlayerEntity sender = messageContext.getSender();
+
+        if (!this.resolveDimension(direction.getReceptionSide())) {
+            return;
+        }
+
+        if (NetworkDirection.PLAY_TO_SERVER == direction && null != sender) {
+
+            // the name will be resolved by the ingress, only if the command is accepted
+            TileCommandIngress.INSTANCE.offer(sender, this);
+
+        } else if (this.resolveName(direction.getReceptionSide())) {
+
+            this.processMessage(direction, sender);
+        }
+    }
+
     /**
      * Process the data received from the network.
      *
@@ -96,7 +129,7 @@ public class TileCommandMessage
     protected void processTileEntityMessage(LogicalSide sourceSide, TileEntity tileEntity) {
 
         if (tileEntity instanceof AbstractModBlockEntity) {
-            ((AbstractModBlockEntity)tileEntity).handleCommand(sourceSide, this._name, this._parameters);
+            ((AbstractModBlockEntity)tileEntity).handleCommand(sourceSide, this.getCommandId(), this.getCommandName(), this._parameters);
         } else {
             Log.LOGGER.error(Log.NETWORK, "No command-aware Tile Entity found while processing a command message: skipping");
         }
@@ -105,6 +138,59 @@ public class TileCommandMessage
     //endregion
     //region internals
 
+    String getCommandName() {
+        return Objects.requireNonNull(this._name);
+    }
+
+    int getCommandId() {
+        return null != this._nameReference ? this._nameReference.getId() : -1;
+    }
+
+    CompoundNBT getParameters() {
+        return this._parameters;
+    }
+
+    /**
+     * Get a key identifying the command name, as it was received from the network, without resolving it.
+     *
+     * @return the id of the command name, if it was sent as one, or the name itself
+     */
+    Object getUnresolvedNameKey() {
+
+        final int id = this.getCommandId();
+
+        // a name sent in full is resolved without looking at the string table
+        return -1 != id ? Integer.valueOf(id) : this._nameReference.resolve(LogicalSide.SERVER).orElse("");
+    }
+
+    /**
+     * Process a command, coming from a client, that was accepted by the {@link TileCommandIngress}
+     *
+     * @param sender the player that sent the command
+     */
+    void dispatch(final ServerPlayerEntity sender) {
+        this.processMessage(NetworkDirection.PLAY_TO_SERVER, sender);
+    }
+
+    boolean resolveName(final LogicalSide receiver) {
+
+        if (null == this._name) {
+
+            final Optional<String> name = this._nameReference.resolve(receiver);
+
+            if (!name.isPresent()) {
+
+                Log.LOGGER.error(Log.NETWORK, "Unknown command id {} found while processing a command message: skipping",
+                        this._nameReference.getId());
+                return false;
+            }
+
+            this._name = name.get();
+        }
+
+        return true;
+    }
+
     /**
      * Construct the message on the sender side
      *
@@ -119,10 +205,12 @@ public class TileCommandMessage
         //super(tileEntityPosition);
         super(tile.getPos(), Objects.requireNonNull(tile.getWorld()).getDimensionKey());
         this._name = commandName;
+        this._nameReference = null;
         this._parameters = parameters;
     }
 
-    private final String _name;
+    private String _name;
+    private final NetworkStringTable.Reference _nameReference;
     private final CompoundNBT _parameters;
 
     //endregion
@@ -21,13 +21,19 @@ package it.zerono.mods.zerocore.internal.proxy;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import it.zerono.mods.zerocore.internal.InternalCommand;
 import it.zerono.mods.zerocore.internal.client.RenderTypes;
+import it.zerono.mods.zerocore.internal.client.debug.DebugReportViewer;
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.DebugReport;
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.PerformanceInspector;
 import it.zerono.mods.zerocore.lib.CodeHelper;
 import it.zerono.mods.zerocore.lib.client.gui.GuiHelper;
 import it.zerono.mods.zerocore.lib.client.gui.IRichText;
 import it.zerono.mods.zerocore.lib.client.gui.sprite.AtlasSpriteSupplier;
 import it.zerono.mods.zerocore.lib.client.model.BakedModelSupplier;
 import it.zerono.mods.zerocore.lib.client.render.ModRenderHelper;
+import it.zerono.mods.zerocore.lib.client.render.RenderUpdateScheduler;
+import it.zerono.mods.zerocore.lib.client.text.TextLayoutCache;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
 import it.zerono.mods.zerocore.lib.recipe.ModRecipeType;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.network.play.ClientPlayNetHandler;
@@ -43,6 +49,7 @@ import net.minecraft.util.math.shapes.VoxelShapes;
 import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.world.World;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.DrawHighlightEvent;
 import net.minecraftforge.client.event.GuiScreenEvent;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
@@ -81,6 +88,9 @@ public class ClientProxy
         forgeBus.addListener(EventPriority.NORMAL, true, this::onGameOverlayRender);
         forgeBus.addListener(EventPriority.NORMAL, true, this::onGuiDrawScreenEventPost);
         forgeBus.addListener(EventPriority.NORMAL, true, this::onHighlightBlock);
+        forgeBus.addListener(this::onLoggedOut);
+        forgeBus.addListener(this::onClientTick);
+        forgeBus.addListener(DebugReportViewer.INSTANCE::onClientChat);
     }
 
     /**
@@ -91,6 +101,7 @@ public class ClientProxy
     @SubscribeEvent
     public void onClientInit(final FMLClientSetupEvent event) {
         CodeHelper.addResourceReloadListener(AtlasSpriteSupplier.INSTANCE);
+        CodeHelper.addResourceReloadListener(TextLayoutCache.INSTANCE);
     }
 
     @Override
@@ -100,8 +111,14 @@ public class ClientProxy
 
     @Override
     public void markBlockRangeForRenderUpdate(BlockPos min, BlockPos max) {
-        Minecraft.getInstance().worldRenderer.markBlockRangeForRenderUpdate(min.getX(), min.getY(), min.getZ(),
-                max.getX(), max.getY(), max.getZ());
+
+        final Minecraft mc = Minecraft.getInstance();
+
+        if (mc.isOnExecutionThread()) {
+            RenderUpdateScheduler.INSTANCE.request(min, max);
+        } else {
+            mc.execute(() -> RenderUpdateScheduler.INSTANCE.request(min, max));
+        }
     }
 
     @Override
@@ -160,6 +177,11 @@ public class ClientProxy
         }
     }
 
+    @Override
+    public void displayDebugReport(final DebugReport report) {
+        DebugReportViewer.INSTANCE.show(report);
+    }
+
     @Override
     public void handleInternalCommand(final InternalCommand command, final CompoundNBT data, final NetworkDirection direction) {
 
@@ -181,9 +203,27 @@ public class ClientProxy
 
     //region internals
 
-    private void onRenderTick(final TickEvent.RenderTickEvent event) {
+    private void onLoggedOut(final ClientPlayerNetworkEvent.LoggedOutEvent event) {
+
+        NetworkStringTable.CLIENT.clear();
+        PerformanceInspector.get(LogicalSide.CLIENT).clear();
+        DebugReportViewer.INSTANCE.clear();
+    }
+
+    private void onClientTick(final TickEvent.ClientTickEvent event) {
 
         if (TickEvent.Phase.END == event.phase) {
+            PerformanceInspector.get(LogicalSide.CLIENT).tick();
+        }
+    }
+
+    private void onRenderTick(final TickEvent.RenderTickEvent event) {
+
+        if (TickEvent.Phase.START == event.phase) {
+
+            RenderUpdateScheduler.INSTANCE.flush(System.currentTimeMillis());
+
+        } else if (TickEvent.Phase.END == event.phase) {
 
             s_lastRenderTime = System.currentTimeMillis();
             this._guiErrorData.tick();
@@ -19,6 +19,7 @@
 package it.zerono.mods.zerocore.internal.proxy;
 
 import it.zerono.mods.zerocore.internal.InternalCommand;
+import it.zerono.mods.zerocore.internal.gamecontent.debugtool.DebugReport;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.crafting.RecipeManager;
 import net.minecraft.nbt.CompoundNBT;
@@ -55,6 +56,9 @@ public interface IProxy {
     @Nullable
     RecipeManager getRecipeManager();
 
+    default void displayDebugReport(final DebugReport report) {
+    }
+
     default void handleInternalCommand(final InternalCommand command, final CompoundNBT data, final NetworkDirection direction) {
         // handle commands that are common to both distributions here
     }
@@ -18,6 +18,7 @@
 
 package it.zerono.mods.zerocore.lib.block;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.zerono.mods.zerocore.internal.network.Network;
 import it.zerono.mods.zerocore.internal.network.TileCommandMessage;
 import it.zerono.mods.zerocore.lib.CodeHelper;
@@ -26,6 +27,8 @@ import it.zerono.mods.zerocore.lib.IDebuggable;
 import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.IVersionAwareSyncableEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.NBTHelper;
+import it.zerono.mods.zerocore.lib.debug.IPerformanceInspectable;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
 import it.zerono.mods.zerocore.lib.event.Event;
 import it.zerono.mods.zerocore.lib.event.IEvent;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
@@ -40,9 +43,11 @@ import net.minecraft.network.play.server.SUpdateTileEntityPacket;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.IBlockReader;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.network.NetworkHooks;
@@ -52,6 +57,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.function.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -59,7 +65,7 @@ import java.util.stream.Stream;
  */
 public abstract class AbstractModBlockEntity
         extends TileEntity
-        implements IBlockStateUpdater, ISyncableEntity, IDebuggable {
+        implements IBlockStateUpdater, ISyncableEntity, IDebuggable, IPerformanceInspectable {
 
     public final IEvent<Runnable> DataUpdate;
 
@@ -345,8 +351,18 @@ public abstract class AbstractModBlockEntity
 //        this.syncDataTo(data, ISyncableEntity.SyncReason.NetworkUpdate);
 //        return new SUpdateTileEntityPacket(this.getPos(), 0, data);
 
-        return new SUpdateTileEntityPacket(this.getPos(), 0,
-                this.syncEntityDataTo(new CompoundNBT(), SyncReason.NetworkUpdate));
+        final CompoundNBT data = this.syncEntityDataTo(new CompoundNBT(), SyncReason.NetworkUpdate);
+
+        if (null != this._performanceCounters && this.world instanceof ServerWorld) {
+
+            final PerformanceCounters counters = this._performanceCounters;
+            final int size = PerformanceCounters.getSize(data);
+
+            ((ServerWorld)this.world).getChunkProvider().chunkManager.getTrackingPlayers(new ChunkPos(this.getPos()), false)
+                    .forEach(player -> counters.recordSync(player.getName().getString(), size));
+        }
+
+        return new SUpdateTileEntityPacket(this.getPos(), 0, data);
     }
 
     protected void onDataUpdate() {
@@ -446,6 +462,18 @@ public abstract class AbstractModBlockEntity
         this._commandDispatcher.dispatch(source, name, parameters);
     }
 
+    /**
+     * Handle a command coming from the corresponding Tile Entity on the other side
+     *
+     * @param source the source side
+     * @param id the network id of the command name or -1 if the command name has no id
+     * @param name the command name
+     * @param parameters the parameters for the command, if any
+     */
+    public void handleCommand(final LogicalSide source, final int id, final String name, final CompoundNBT parameters) {
+        this._commandDispatcher.dispatch(source, id, name, parameters);
+    }
+
     protected void setCommandDispatcher(final ITileCommandDispatcher dispatcher) {
         this._commandDispatcher = Objects.requireNonNull(dispatcher);
     }
@@ -502,11 +530,18 @@ public abstract class AbstractModBlockEntity
     }
 
     public static <T extends AbstractModBlockEntity> void notifyBlockUpdate(final Collection<T> entities) {
-        entities.forEach(AbstractModBlockEntity::notifyBlockUpdate);
+        notifyBlockUpdate(entities.stream());
     }
 
+    /**
+     * Notify a block update for all the given entities, sending the updates in bulk for each world
+     */
     public static <T extends AbstractModBlockEntity> void notifyBlockUpdate(final Stream<T> entities) {
-        entities.forEach(AbstractModBlockEntity::notifyBlockUpdate);
+        entities
+                .filter(entity -> null != entity.getWorld())
+                .collect(Collectors.groupingBy(AbstractModBlockEntity::getWorld, Reference2ObjectOpenHashMap::new,
+                        Collectors.mapping(AbstractModBlockEntity::getPos, Collectors.toList())))
+                .forEach(WorldHelper::notifyBlocksUpdate);
     }
 
     public void notifyTileEntityUpdate() {
@@ -521,6 +556,11 @@ public abstract class AbstractModBlockEntity
     }
 
     public void markForRenderUpdate() {
+
+        if (null != this._performanceCounters) {
+            this._performanceCounters.recordRenderRebuild();
+        }
+
         WorldHelper.markBlockRangeForRenderUpdate(this.getPos(), this.getPos());
     }
 
@@ -585,6 +625,28 @@ public abstract class AbstractModBlockEntity
         messages.addUnlocalized("Tile Entity class: %1$s", this.getClass().getSimpleName());
     }
 
+    //endregion
+    //region IPerformanceInspectable
+
+    @Nullable
+    @Override
+    public PerformanceCounters getPerformanceCounters() {
+        return this._performanceCounters;
+    }
+
+    @Override
+    public void setPerformanceCounters(@Nullable final PerformanceCounters counters) {
+        this._performanceCounters = counters;
+    }
+
+    @Override
+    public void getPerformanceMessages(final LogicalSide side, final IDebugMessages messages) {
+
+        messages.addUnlocalized("Tile Entity class: %1$s", this.getClass().getSimpleName());
+        messages.addUnlocalized("Serialized NBT size: %1$d bytes", PerformanceCounters.getSize(this.write(new CompoundNBT())));
+        IPerformanceInspectable.super.getPerformanceMessages(side, messages);
+    }
+
     //endregion
     //region internals
 
@@ -627,6 +689,7 @@ public abstract class AbstractModBlockEntity
     private static final int EVENT_CLIENT_RENDER_UPDATE = 1;
 
     private ITileCommandDispatcher _commandDispatcher;
+    private PerformanceCounters _performanceCounters;
 
     //endregion
 }
@@ -29,10 +29,37 @@ public interface ITileCommandDispatcher {
 
     void dispatch(LogicalSide source, String name, CompoundNBT parameters);
 
+    /**
+     * Dispatch a command using the id assigned to its name by the {@link it.zerono.mods.zerocore.lib.network.NetworkStringTable}
+     *
+     * @param source the source side
+     * @param id the id of the command name or -1 if the command name has no id
+     * @param name the command name
+     * @param parameters the parameters for the command
+     */
+    default void dispatch(LogicalSide source, int id, String name, CompoundNBT parameters) {
+        this.dispatch(source, name, parameters);
+    }
+
     interface Builder<T extends AbstractModBlockEntity> {
 
         Builder<T> addHandler(String name, ITileCommandHandler<T> handler);
 
+        /**
+         * Add an handler for a command that could be executed many times in a row with the same parameters
+         * without changing the result of the first execution (for example, a command that set a value).
+         * Identical commands of this kind sent by a player in a short amount of time could be coalesced in a single one.
+         *
+         * Never use this method for commands like toggles or increments
+         *
+         * @param name the command name
+         * @param handler the handler
+         * @return this builder
+         */
+        default Builder<T> addIdempotentHandler(String name, ITileCommandHandler<T> handler) {
+            return this.addHandler(name, handler);
+        }
+
         default ITileCommandDispatcher.Builder<T> addHandler(String name, BiConsumer<T, LogicalSide> handler) {
             return this.addHandler(name, (tile, source, parameters) -> handler.accept(tile, source));
         }
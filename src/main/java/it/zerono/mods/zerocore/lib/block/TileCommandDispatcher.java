@@ -19,11 +19,17 @@
 package it.zerono.mods.zerocore.lib.block;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.network.NetworkStringTable;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.common.thread.EffectiveSide;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TileCommandDispatcher<T extends AbstractModBlockEntity>
     implements ITileCommandDispatcher {
@@ -40,10 +46,27 @@ public class TileCommandDispatcher<T extends AbstractModBlockEntity>
         public ITileCommandDispatcher.Builder<T> addHandler(String name, ITileCommandHandler<T> handler) {
 
             this._handlers.put(name, handler);
+            this._idempotentNames.remove(name);
+            return this;
+        }
+
+        @Override
+        public ITileCommandDispatcher.Builder<T> addIdempotentHandler(String name, ITileCommandHandler<T> handler) {
+
+            this._handlers.put(name, handler);
+            this._idempotentNames.add(name);
             return this;
         }
 
         public ITileCommandDispatcher build(final T tile) {
+
+            // let the clients send the command names as ids. Only the server table is shared with the clients
+            if (EffectiveSide.get().isServer()) {
+                this._handlers.keySet().forEach(NetworkStringTable::register);
+            }
+
+            // a command name is idempotent only if every handler registered for it is
+            this._handlers.keySet().forEach(name -> s_idempotentCommands.merge(name, this._idempotentNames.contains(name), Boolean::logicalAnd));
             return new TileCommandDispatcher<>(tile, this._handlers);
         }
 
@@ -51,20 +74,72 @@ public class TileCommandDispatcher<T extends AbstractModBlockEntity>
 
         private Builder() {
             this._handlers = Maps.newHashMap();
+            this._idempotentNames = Sets.newHashSet();
         }
 
         private final Map<String, ITileCommandHandler<T>> _handlers;
+        private final Set<String> _idempotentNames;
 
         //endregion
     }
 
     //endregion
+
+    /**
+     * Check if a command was declared idempotent by all the handlers registered for it
+     *
+     * @param name the command name
+     * @return true if the command is idempotent, false otherwise
+     */
+    public static boolean isIdempotentCommand(final String name) {
+        return s_idempotentCommands.getOrDefault(name, false);
+    }
+
     //region ITileCommandDispatcher
 
     @Override
     public void dispatch(LogicalSide source, String name, CompoundNBT parameters) {
-        this._handlers.getOrDefault(name, (t, s, p) -> Log.LOGGER.error("No handler for Tile Command {}", name))
-                .handle(this._tile, source, parameters);
+
+        final ITileCommandHandler<T> handler = this._handlers.get(name);
+
+        if (null != handler) {
+            handler.handle(this._tile, source, parameters);
+        } else {
+            Log.LOGGER.error("No handler for Tile Command {}", name);
+        }
+    }
+
+    @Override
+    public void dispatch(LogicalSide source, int id, String name, CompoundNBT parameters) {
+
+        if (id < 0 || id >= MAX_INDEXED_ID) {
+
+            this.dispatch(source, name, parameters);
+            return;
+        }
+
+        ITileCommandHandler<T>[] byId = this._handlersById;
+
+        if (id >= byId.length) {
+            this._handlersById = byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+        }
+
+        ITileCommandHandler<T> handler = byId[id];
+
+        if (null == handler) {
+
+            handler = this._handlers.get(name);
+
+            if (null == handler) {
+
+                Log.LOGGER.error("No handler for Tile Command {}", name);
+                return;
+            }
+
+            byId[id] = handler;
+        }
+
+        handler.handle(this._tile, source, parameters);
     }
 
     //endregion
@@ -74,10 +149,19 @@ public class TileCommandDispatcher<T extends AbstractModBlockEntity>
 
         this._tile = tile;
         this._handlers = map;
+        //noinspection unchecked
+        this._handlersById = (ITileCommandHandler<T>[])new ITileCommandHandler[0];
     }
 
+    // ids above this are looked up by name
+    private static final int MAX_INDEXED_ID = 1024;
+
+    private static final Map<String, Boolean> s_idempotentCommands = new ConcurrentHashMap<>();
+
     private final T _tile;
     private final Map<String, ITileCommandHandler<T>> _handlers;
+    // handlers indexed by the network id of their name, filled on first use
+    private ITileCommandHandler<T>[] _handlersById;
 
     //endregion
 }
@@ -25,6 +25,7 @@ import com.google.common.collect.Lists;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import it.zerono.mods.zerocore.lib.client.gui.sprite.ISprite;
 import it.zerono.mods.zerocore.lib.client.render.ModRenderHelper;
+import it.zerono.mods.zerocore.lib.client.text.TextLayoutCache;
 import it.zerono.mods.zerocore.lib.data.geometry.Point;
 import it.zerono.mods.zerocore.lib.data.geometry.Rectangle;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
@@ -42,6 +43,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class RichText
@@ -311,7 +313,7 @@ public class RichText
 
         @Override
         public int getWidth() {
-            return this._fontSupplier.get().getStringWidth(this.get().get());
+            return TextLayoutCache.INSTANCE.getWidth(this.get().get(), this._fontSupplier.get());
         }
 
         //endregion
@@ -460,8 +462,11 @@ public class RichText
         }
 
         protected ITextChunk chunk(final String text) {
-            return new TextChunk<>(text, this._fontSupplier.get().getStringWidth(text),
-                    this._fontSupplier.get().FONT_HEIGHT, RichText::paintString);
+            return this.chunk(text, TextLayoutCache.INSTANCE.getWidth(text, this._fontSupplier.get()));
+        }
+
+        protected ITextChunk chunk(final String text, final int width) {
+            return new TextChunk<>(text, width, this._fontSupplier.get().FONT_HEIGHT, RichText::paintString);
         }
 
         private ITextChunk chunk(final Supplier<String> text) {
@@ -609,22 +614,24 @@ public class RichText
 
         private Stream<TextLine> splitTextOnlyLine(final ITextComponent line) {
 
-            final FontRenderer font = this._fontSupplier.get();
             final String text = line.getString();
+            final TextLayoutCache.TextLayout layout = TextLayoutCache.INSTANCE.getLayout(text, this._maxWidth,
+                    this._fontSupplier.get());
 
-            if (this._maxWidth > font.getStringWidth(text)) {
+            if (this._maxWidth > layout.getTextWidth()) {
                 // no need to split the line
-                return Stream.of(TextLine.from(this.chunk(text)));
+                return Stream.of(TextLine.from(this.chunk(text, layout.getTextWidth())));
             } else {
                 // split the line
-                return ModRenderHelper.wrapLines(text, this._maxWidth, font).stream().map(s -> TextLine.from(this.chunk(s)));
+                return IntStream.range(0, layout.getLinesCount())
+                        .mapToObj(i -> TextLine.from(this.chunk(layout.getLine(i), layout.getLineWidth(i))));
             }
         }
 
         private Stream<TextLine> splitFormattedLine(final ITextComponent line) {
 
             final List<ITextChunk> chunks = this.splitFormattedTextLineChunks(line);
-            final Integer[] chunksWidths = chunks.stream().map(ITextChunk::getWidth).toArray(Integer[]::new);
+            final int[] chunksWidths = chunks.stream().mapToInt(ITextChunk::getWidth).toArray();
 
             final List<TextLine> lines = Lists.newLinkedList();
             final List<ITextChunk> currentLineChunks = Lists.newLinkedList();
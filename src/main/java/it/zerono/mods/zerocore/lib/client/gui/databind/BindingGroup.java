@@ -19,30 +19,97 @@
 package it.zerono.mods.zerocore.lib.client.gui.databind;
 
 import com.google.common.collect.Lists;
+import it.zerono.mods.zerocore.lib.event.IEvent;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
+/**
+ * A group of bindings updated together.
+ *
+ * A polling group re-evaluates all of its bindings every time {@link #update()} is called.
+ * An event-driven group instead re-evaluates its bindings only after the provided change event was raised
+ * (usually the DataUpdate event of a tile entity or the PersistentDataUpdated event of a multiblock controller)
+ * or after {@link #markDirty()} was called.
+ *
+ * The change event must keep its subscribers until {@link #close()} is called: do not use the DataUpdated event of a
+ * multiblock controller as its subscribers are removed every time the machine is assembled, disassembled or paused.
+ */
 public class BindingGroup {
 
+    /**
+     * Create a polling binding group
+     */
     public BindingGroup() {
+
+        this._bindings = Lists.newArrayList();
+        this._changeEvent = null;
+        this._changeHandler = null;
+        this._dirty = true;
+    }
+
+    /**
+     * Create an event-driven binding group
+     *
+     * @param changeEvent the event signaling that the source of the bindings has changed
+     */
+    public BindingGroup(final IEvent<Runnable> changeEvent) {
+
         this._bindings = Lists.newArrayList();
+        this._changeEvent = changeEvent;
+        this._changeHandler = changeEvent.subscribe(this::markDirty);
+        this._dirty = true;
     }
 
     public void addBinding(final IBinding binding) {
+
         this._bindings.add(binding);
+        this._dirty = true;
+    }
+
+    public boolean isEventDriven() {
+        return null != this._changeEvent;
+    }
+
+    /**
+     * Force the re-evaluation of all the bindings on the next update
+     */
+    public void markDirty() {
+        this._dirty = true;
     }
 
     public void update() {
-        this._bindings.forEach(IBinding::update);
+
+        if (null != this._changeEvent && !this._dirty) {
+            return;
+        }
+
+        this._dirty = false;
+
+        final List<IBinding> bindings = this._bindings;
+
+        for (int i = 0; i < bindings.size(); ++i) {
+            bindings.get(i).update();
+        }
     }
 
     public void close() {
+
+        if (null != this._changeEvent) {
+            this._changeEvent.unsubscribe(this._changeHandler);
+        }
+
         this._bindings.forEach(IBinding::close);
     }
 
     //region internals
 
     final List<IBinding> _bindings;
+    @Nullable
+    private final IEvent<Runnable> _changeEvent;
+    @Nullable
+    private final Runnable _changeHandler;
+    private boolean _dirty;
 
     //endregion
 }
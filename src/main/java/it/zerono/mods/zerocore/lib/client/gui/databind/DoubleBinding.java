@@ -0,0 +1,84 @@
+/*
+ *
+ * DoubleBinding.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.client.gui.databind;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A binding for double values that does not box the value it tracks
+ *
+ * @param <Source> the type of the source of the value
+ */
+public class DoubleBinding<Source>
+        implements IBinding {
+
+    public DoubleBinding(final Source source, final ToDoubleFunction<Source> supplier, final DoubleConsumer... consumers) {
+
+        this._source = source;
+        this._supplier = supplier;
+        this._consumers = consumers;
+        this._cache = 0.0;
+        this._cacheValid = false;
+    }
+
+    //region IBinding
+
+    @Override
+    public void update() {
+
+        final double current = this._supplier.applyAsDouble(this._source);
+
+        if (!this._cacheValid || Double.doubleToLongBits(this._cache) != Double.doubleToLongBits(current)) {
+
+            this._cache = current;
+            this._cacheValid = true;
+
+            for (final DoubleConsumer consumer : this._consumers) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this._consumers = NO_CONSUMERS;
+    }
+
+    //endregion
+    //region Object
+
+    @Override
+    public String toString() {
+        return "Cached value: " + (this._cacheValid ? Double.toString(this._cache) : "<NONE>");
+    }
+
+    //endregion
+    //region internals
+
+    private static final DoubleConsumer[] NO_CONSUMERS = new DoubleConsumer[0];
+
+    private final Source _source;
+    private final ToDoubleFunction<Source> _supplier;
+    private DoubleConsumer[] _consumers;
+    private double _cache;
+    private boolean _cacheValid;
+
+    //endregion
+}
@@ -0,0 +1,84 @@
+/*
+ *
+ * IntBinding.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.client.gui.databind;
+
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A binding for int values that does not box the value it tracks
+ *
+ * @param <Source> the type of the source of the value
+ */
+public class IntBinding<Source>
+        implements IBinding {
+
+    public IntBinding(final Source source, final ToIntFunction<Source> supplier, final IntConsumer... consumers) {
+
+        this._source = source;
+        this._supplier = supplier;
+        this._consumers = consumers;
+        this._cache = 0;
+        this._cacheValid = false;
+    }
+
+    //region IBinding
+
+    @Override
+    public void update() {
+
+        final int current = this._supplier.applyAsInt(this._source);
+
+        if (!this._cacheValid || this._cache != current) {
+
+            this._cache = current;
+            this._cacheValid = true;
+
+            for (final IntConsumer consumer : this._consumers) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this._consumers = NO_CONSUMERS;
+    }
+
+    //endregion
+    //region Object
+
+    @Override
+    public String toString() {
+        return "Cached value: " + (this._cacheValid ? Integer.toString(this._cache) : "<NONE>");
+    }
+
+    //endregion
+    //region internals
+
+    private static final IntConsumer[] NO_CONSUMERS = new IntConsumer[0];
+
+    private final Source _source;
+    private final ToIntFunction<Source> _supplier;
+    private IntConsumer[] _consumers;
+    private int _cache;
+    private boolean _cacheValid;
+
+    //endregion
+}
@@ -34,6 +34,9 @@ import net.minecraftforge.client.model.data.EmptyModelData;
 import net.minecraftforge.client.model.data.IDynamicBakedModel;
 import net.minecraftforge.client.model.pipeline.BakedQuadBuilder;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 @OnlyIn(Dist.CLIENT)
 public abstract class AbstractDynamicBakedModel
         implements IDynamicBakedModel {
@@ -203,17 +206,22 @@ public abstract class AbstractDynamicBakedModel
     }
 
     private static Vector3d normal(final Vector3d v1, final Vector3d v2, final Vector3d v3, final Vector3d v4) {
-        return v3.subtract(v2).crossProduct(v1.subtract(v2)).normalize();
+        return v3.toMutable().subtract(v2).crossProduct(v1.toMutable().subtract(v2)).normalize().toImmutable();
     }
 
     private static Vector3d reversedNormal(final Vector3d v1, final Vector3d v2, final Vector3d v3, final Vector3d v4) {
-        return v3.subtract(v1).crossProduct(v2.subtract(v1)).normalize();
+        return v3.toMutable().subtract(v1).crossProduct(v2.toMutable().subtract(v1)).normalize().toImmutable();
     }
 
     private static Vector3d normal(final Direction direction) {
-        return Vector3d.from(direction.getDirectionVec());
+        return FACE_NORMALS[direction.getIndex()];
     }
 
+    private static final Vector3d[] FACE_NORMALS = Arrays.stream(Direction.values())
+            .sorted(Comparator.comparingInt(Direction::getIndex))
+            .map(direction -> Vector3d.from(direction.getDirectionVec()))
+            .toArray(Vector3d[]::new);
+
     private enum SupportFlags {
 
         AmbientOcclusion,
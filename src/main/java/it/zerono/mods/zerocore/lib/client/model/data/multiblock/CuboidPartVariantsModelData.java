@@ -29,18 +29,65 @@ public class CuboidPartVariantsModelData extends AbstractModelDataMap {
         this.addProperty(GenericProperties.ID, blockId);
         this.addProperty(GenericProperties.VARIANT_INDEX, variantIndex);
         this.addProperty(PartProperties.OUTWARD_FACING, outwardFacing);
+        this._blockId = blockId;
+        this._variantIndex = variantIndex;
+        this._outwardFacing = outwardFacing;
+        this._key = key(blockId, variantIndex, outwardFacing);
     }
 
+    /**
+     * @deprecated this hash only use the lower 8 bits of the block id and could collide: use {@link #key} instead
+     */
+    @Deprecated
     public static int hash(final int blockId, final int variantIndex, final BlockFacings outwardFacing) {
         return (variantIndex << 16) | ((blockId & 0xff) << 8) | outwardFacing.value();
     }
 
+    /**
+     * Compute a collision-free key for the given values
+     *
+     * @param blockId the block id
+     * @param variantIndex the variant index (only the lower 24 bits are used)
+     * @param outwardFacing the outward facings
+     * @return the key
+     */
+    public static long key(final int blockId, final int variantIndex, final BlockFacings outwardFacing) {
+        return ((long)blockId << 32) | ((long)(variantIndex & 0xffffff) << 8) | outwardFacing.value();
+    }
+
+    public int getBlockId() {
+        return this._blockId;
+    }
+
+    public int getVariantIndex() {
+        return this._variantIndex;
+    }
+
+    public BlockFacings getOutwardFacing() {
+        return this._outwardFacing;
+    }
+
+    /**
+     * @return the key of this model data, as computed by {@link #key}
+     */
+    public long getKey() {
+        return this._key;
+    }
+
     //region Object
 
     @Override
     public int hashCode() {
-        return hash(GenericProperties.getId(this), GenericProperties.getVariantIndex(this), PartProperties.getOutwardFacing(this));
+        return Long.hashCode(this._key);
     }
 
+    //endregion
+    //region internals
+
+    private final int _blockId;
+    private final int _variantIndex;
+    private final BlockFacings _outwardFacing;
+    private final long _key;
+
     //endregion
 }
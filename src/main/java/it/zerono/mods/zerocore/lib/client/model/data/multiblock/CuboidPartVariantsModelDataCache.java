@@ -18,27 +18,45 @@
 
 package it.zerono.mods.zerocore.lib.client.model.data.multiblock;
 
-import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.zerono.mods.zerocore.lib.block.BlockFacings;
 import net.minecraftforge.common.util.NonNullSupplier;
 
-import java.util.Map;
-
+/**
+ * A cache of immutable {@link CuboidPartVariantsModelData}, keyed by {@link CuboidPartVariantsModelData#key}
+ */
 public class CuboidPartVariantsModelDataCache {
 
     public CuboidPartVariantsModelDataCache() {
-        this._cache = Maps.newHashMap();
+        this._cache = new Long2ObjectOpenHashMap<>();
     }
 
     public CuboidPartVariantsModelData computeIfAbsent(final int blockId, final int variantIndex, final BlockFacings outwardFacing,
                                                        final NonNullSupplier<CuboidPartVariantsModelData> missingDataSupplier) {
-        return this._cache.computeIfAbsent(CuboidPartVariantsModelData.hash(blockId, variantIndex, outwardFacing),
-                k -> missingDataSupplier.get());
+
+        final long key = CuboidPartVariantsModelData.key(blockId, variantIndex, outwardFacing);
+
+        synchronized (this._cache) {
+            return this._cache.computeIfAbsent(key, k -> missingDataSupplier.get());
+        }
+    }
+
+    public CuboidPartVariantsModelData computeIfAbsent(final int blockId, final int variantIndex, final BlockFacings outwardFacing) {
+        return this.computeIfAbsent(blockId, variantIndex, outwardFacing,
+                () -> new CuboidPartVariantsModelData(blockId, variantIndex, outwardFacing));
+    }
+
+    public void clear() {
+
+        synchronized (this._cache) {
+            this._cache.clear();
+        }
     }
 
     //region internals
 
-    private final Map<Integer, CuboidPartVariantsModelData> _cache;
+    private final Long2ObjectMap<CuboidPartVariantsModelData> _cache;
 
     //endregion
 }
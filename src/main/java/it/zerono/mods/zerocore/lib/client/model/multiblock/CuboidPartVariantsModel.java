@@ -18,7 +18,10 @@
 
 package it.zerono.mods.zerocore.lib.client.model.multiblock;
 
+import com.google.common.collect.ImmutableList;
+import it.zerono.mods.zerocore.lib.CodeHelper;
 import it.zerono.mods.zerocore.lib.client.model.BlockVariantsModel;
+import it.zerono.mods.zerocore.lib.client.model.data.multiblock.CuboidPartVariantsModelData;
 import it.zerono.mods.zerocore.lib.client.model.data.multiblock.PartProperties;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.renderer.model.BakedQuad;
@@ -29,14 +32,34 @@ import net.minecraftforge.client.model.data.IModelData;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A {@link BlockVariantsModel} for cuboid multiblock parts.
+ *
+ * If the model is constructed with cacheQuads set to true, the quads for a {@link CuboidPartVariantsModelData} are
+ * computed once for each side and cached, keyed by the block state and {@link CuboidPartVariantsModelData#getKey()}.
+ * The random value passed to getQuads() can't be part of the key so only enable the cache if the variants and template
+ * models never pick random quads. Subclasses of {@link CuboidPartVariantsModelData} are never cached as their key
+ * may not cover all of their properties.
+ * The cache is bound to this model instance and it is thus discarded every time the models are baked again.
+ */
 @SuppressWarnings("unused")
 public class CuboidPartVariantsModel extends BlockVariantsModel {
 
     public CuboidPartVariantsModel(final IBakedModel template, final int blocksCount, final boolean ambientOcclusion) {
+        this(template, blocksCount, ambientOcclusion, false);
+    }
+
+    public CuboidPartVariantsModel(final IBakedModel template, final int blocksCount, final boolean ambientOcclusion,
+                                   final boolean cacheQuads) {
 
         super(blocksCount, ambientOcclusion, true, false);
         this._template = template;
+        this._cacheQuads = cacheQuads;
+        this._quadsCache = cacheQuads ? new ConcurrentHashMap<>() : null;
+        this._nullStateQuadsCache = cacheQuads ? new ConcurrentHashMap<>() : null;
     }
 
     //region IDynamicBakedModel
@@ -45,6 +68,19 @@ public class CuboidPartVariantsModel extends BlockVariantsModel {
     public List<BakedQuad> getQuads(@Nullable BlockState state, @Nullable Direction renderSide,
                                     Random rand, IModelData data) {
 
+        if (this._cacheQuads && null != data && CuboidPartVariantsModelData.class == data.getClass()) {
+            return this.getCachedQuads(state, rand, (CuboidPartVariantsModelData)data)[null == renderSide ? GENERAL_QUADS : renderSide.getIndex()];
+        }
+
+        return this.computeQuads(state, renderSide, rand, data);
+    }
+
+    //endregion
+    //region internals
+
+    private List<BakedQuad> computeQuads(@Nullable BlockState state, @Nullable Direction renderSide,
+                                         Random rand, IModelData data) {
+
         if (null != renderSide && data.hasProperty(PartProperties.OUTWARD_FACING) && PartProperties.getOutwardFacing(data).except(renderSide) /*.isSet(renderSide)*/) {
             return this._template.getQuads(state, renderSide, rand, data);
         }
@@ -52,10 +88,49 @@ public class CuboidPartVariantsModel extends BlockVariantsModel {
         return super.getQuads(state, renderSide, rand, data);
     }
 
-    //endregion
-    //region internals
+    private List<BakedQuad>[] getCachedQuads(@Nullable BlockState state, Random rand, final CuboidPartVariantsModelData data) {
+
+        final ConcurrentMap<Long, List<BakedQuad>[]> stateCache = null == state ? this._nullStateQuadsCache :
+                this._quadsCache.computeIfAbsent(state, k -> new ConcurrentHashMap<>());
+        final Long key = data.getKey();
+        List<BakedQuad>[] quads = stateCache.get(key);
+
+        if (null == quads) {
+
+            // two threads could compute the same quads at once, but the result is the same
+            quads = this.computeAllQuads(state, rand, data);
+
+            final List<BakedQuad>[] previous = stateCache.putIfAbsent(key, quads);
+
+            if (null != previous) {
+                quads = previous;
+            }
+        }
+
+        return quads;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BakedQuad>[] computeAllQuads(@Nullable BlockState state, Random rand, final CuboidPartVariantsModelData data) {
+
+        final List<BakedQuad>[] quads = new List[GENERAL_QUADS + 1];
+
+        for (final Direction side : CodeHelper.DIRECTIONS) {
+            quads[side.getIndex()] = ImmutableList.copyOf(this.computeQuads(state, side, rand, data));
+        }
+
+        quads[GENERAL_QUADS] = ImmutableList.copyOf(this.computeQuads(state, null, rand, data));
+        return quads;
+    }
+
+    private static final int GENERAL_QUADS = 6;
 
     private final IBakedModel _template;
+    private final boolean _cacheQuads;
+    // the cached quads, by block state and model data key
+    private final ConcurrentMap<BlockState, ConcurrentMap<Long, List<BakedQuad>[]>> _quadsCache;
+    // the cached quads for a null block state, by model data key
+    private final ConcurrentMap<Long, List<BakedQuad>[]> _nullStateQuadsCache;
 
     //endregion
 }
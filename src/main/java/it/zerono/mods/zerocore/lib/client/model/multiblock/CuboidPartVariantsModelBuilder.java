@@ -29,14 +29,23 @@ import net.minecraftforge.client.model.ModelLoader;
 public class CuboidPartVariantsModelBuilder extends BlockVariantsModelBuilder {
 
     public CuboidPartVariantsModelBuilder(final ResourceLocation template, final boolean ambientOcclusion) {
+        this(template, ambientOcclusion, false);
+    }
+
+    /**
+     * @param cacheQuads if true, the quads of the replacement models are cached. See {@link CuboidPartVariantsModel}
+     */
+    public CuboidPartVariantsModelBuilder(final ResourceLocation template, final boolean ambientOcclusion,
+                                          final boolean cacheQuads) {
 
         super(ambientOcclusion, true, false);
         this._templateId = template;
+        this._cacheQuads = cacheQuads;
     }
 
     @Override
     protected BlockVariantsModel createReplacementModel(int blockCount, boolean ambientOcclusion, boolean guid3D, boolean builtInRenderer) {
-        return new CuboidPartVariantsModel(this._templateModel, blockCount, ambientOcclusion);
+        return new CuboidPartVariantsModel(this._templateModel, blockCount, ambientOcclusion, this._cacheQuads);
     }
 
     //region ICustomModelBuilder
@@ -59,6 +68,7 @@ public class CuboidPartVariantsModelBuilder extends BlockVariantsModelBuilder {
     //region internals
 
     private final ResourceLocation _templateId;
+    private final boolean _cacheQuads;
     private IBakedModel _templateModel;
 
     //endregion
@@ -18,40 +18,129 @@
 
 package it.zerono.mods.zerocore.lib.client.render;
 
+import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.IVertexBuilder;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import org.lwjgl.opengl.GL11;
 
+/**
+ * A render that is tessellated once into a {@link DisplayList} and then replayed until it is invalidated.
+ *
+ * Call {@link #invalidate()} when the render must be rebuilt and {@link #close()} to release the GPU memory
+ * held by it. All the methods must be called from the render thread.
+ */
 @OnlyIn(Dist.CLIENT)
 @SuppressWarnings({"unused", "WeakerAccess"})
-public abstract class CachedRender {
+public abstract class CachedRender
+        implements AutoCloseable {
 
     public void paint(final double x, final double y, final double z) {
 
-        if (null == this._list) {
-
-            this._list = new DisplayList();
-            this._list.beginList();
-            this.buildRender();
-            this._list.endList();
-        }
+        final DisplayList list = this.getList();
 
         this.onBeginPainting(x, y, z);
         ModRenderHelper.bindTexture(this.getTexture());
-        this._list.play();
+        list.play();
         this.onEndPainting(x, y, z);
     }
 
+    /**
+     * Paint the render applying the current transformation of the given MatrixStack
+     *
+     * @param matrix the MatrixStack
+     */
+    public void paint(final MatrixStack matrix) {
+
+        final DisplayList list = this.getList();
+
+        ModRenderHelper.bindTexture(this.getTexture());
+        list.play(matrix.getLast().getMatrix());
+    }
+
+    /**
+     * Mark the render as outdated: it will be rebuilt the next time it is painted, reusing the same GPU buffer
+     */
     public void invalidate() {
-        this._list = null;
+        this._valid = false;
     }
 
+    /**
+     * @return the number of bytes held by this render in GPU memory
+     */
+    public int getSize() {
+        return null != this._list ? this._list.getSize() : 0;
+    }
+
+    /**
+     * Tessellate the render into a new BufferBuilder without uploading it to the GPU
+     *
+     * @return the finished BufferBuilder
+     */
+    public BufferBuilder tessellate() {
+
+        final BufferBuilder builder = new BufferBuilder(this.getVertexFormat().getSize() * 64);
+
+        builder.begin(this.getDrawMode(), this.getVertexFormat());
+        this.buildRender(builder);
+        builder.finishDrawing();
+        return builder;
+    }
+
+    //region AutoCloseable
+
+    /**
+     * Release the GPU memory held by this render. The render will be rebuilt if it is painted again
+     */
+    @Override
+    public void close() {
+
+        if (null != this._list) {
+
+            this._list.close();
+            this._list = null;
+        }
+
+        this._valid = false;
+    }
+
+    //endregion
     //region internals
 
     protected abstract ResourceLocation getTexture();
 
-    protected abstract void buildRender();
+    /**
+     * Tessellate the render
+     *
+     * The default implementation call {@link #buildRender()} so that the renders written for the previous
+     * version of this class still work: override this method instead
+     *
+     * @param builder the builder to send the vertices to. It already was set up with the vertex format and the
+     *                draw mode of this render
+     */
+    protected void buildRender(IVertexBuilder builder) {
+        this.buildRender();
+    }
+
+    /**
+     * @deprecated override {@link #buildRender(IVertexBuilder)} instead
+     */
+    @Deprecated
+    protected void buildRender() {
+    }
+
+    protected VertexFormat getVertexFormat() {
+        return DefaultVertexFormats.BLOCK;
+    }
+
+    protected int getDrawMode() {
+        return GL11.GL_QUADS;
+    }
 
     protected void onBeginPainting(final double x, final double y, final double z) {
 
@@ -65,5 +154,26 @@ public abstract class CachedRender {
         RenderSystem.popMatrix();
     }
 
+    private DisplayList getList() {
+
+        if (null == this._list) {
+
+            this._list = new DisplayList(this.getVertexFormat(), this.getDrawMode());
+            this._valid = false;
+        }
+
+        if (!this._valid) {
+
+            this.buildRender(this._list.beginList());
+            this._list.endList();
+            this._valid = true;
+        }
+
+        return this._list;
+    }
+
     private DisplayList _list;
+    private boolean _valid;
+
+    //endregion
 }
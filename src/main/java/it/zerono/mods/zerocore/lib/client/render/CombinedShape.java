@@ -21,6 +21,7 @@ package it.zerono.mods.zerocore.lib.client.render;
 import com.google.common.collect.Lists;
 import it.zerono.mods.zerocore.lib.client.render.builder.IPrimitiveBuilder;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -31,7 +32,9 @@ public class CombinedShape implements /*IVertexSource*/ IVertexSequence {
     }
 
     public CombinedShape(final int initialSize) {
+
         this._shapes = Lists.newArrayListWithCapacity(initialSize);
+        this._shapesView = Collections.unmodifiableList(this._shapes);
     }
 
     public CombinedShape addShape(final Shape shape) {
@@ -44,6 +47,10 @@ public class CombinedShape implements /*IVertexSource*/ IVertexSequence {
         return this.addShape(builder.build());
     }
 
+    public List<Shape> getShapes() {
+        return this._shapesView;
+    }
+
     //region IVertexSequence
 
     @Override
@@ -74,6 +81,7 @@ public class CombinedShape implements /*IVertexSource*/ IVertexSequence {
     //region internals
 
     private final List<Shape> _shapes;
+    private final List<Shape> _shapesView;
 
     //endregion
 }
@@ -18,40 +18,298 @@
 
 package it.zerono.mods.zerocore.lib.client.render;
 
+import com.google.common.base.Preconditions;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.math.vector.Matrix4f;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
 
+import javax.annotation.Nullable;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A compiled sequence of vertices stored in a GPU vertex buffer object.
+ *
+ * Fill the BufferBuilder returned by {@link #beginList()}, call {@link #endList()} to upload it and then
+ * {@link #play()} it as many times as needed. The GPU memory is released by {@link #close()}: if a list is garbage
+ * collected without being closed, its buffer is released (on the render thread) the next time a list is uploaded or closed.
+ *
+ * All the methods must be called from the render thread.
+ */
 @OnlyIn(Dist.CLIENT)
-@SuppressWarnings("WeakerAccess")
-public final class DisplayList {
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class DisplayList
+        implements AutoCloseable {
 
-    public DisplayList() {
-        //TODO replace?
-        this._id = 0;//GlStateManager.genLists(1);
+    public DisplayList(final VertexFormat format) {
+        this(format, GL11.GL_QUADS);
     }
 
-    @Override
-    public void finalize() {
-        //TODO replace?
-        //GlStateManager.deleteLists(this._id, 1);
+    public DisplayList(final VertexFormat format, final int drawMode) {
+
+        this._format = format;
+        this._drawMode = drawMode;
+        this._buffer = null;
+        this._verticesCount = 0;
+        this._closed = false;
+    }
+
+    /**
+     * @return the total number of bytes currently held by all the DisplayLists in GPU memory
+     */
+    public static long getTotalSize() {
+        return s_totalSize.get();
+    }
+
+    /**
+     * @return the number of DisplayLists currently holding a GPU buffer
+     */
+    public static int getAllocatedCount() {
+        return s_allocatedCount.get();
+    }
+
+    public VertexFormat getVertexFormat() {
+        return this._format;
+    }
+
+    public int getDrawMode() {
+        return this._drawMode;
+    }
+
+    public int getVerticesCount() {
+        return this._verticesCount;
+    }
+
+    /**
+     * @return the number of bytes held by this DisplayList in GPU memory
+     */
+    public int getSize() {
+        return null != this._buffer ? this._buffer._size : 0;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this._verticesCount;
     }
 
-    public void beginList() {
-        //TODO replace?
-        //GlStateManager.newList(this._id, GL11.GL_COMPILE);
+    public boolean isClosed() {
+        return this._closed;
     }
 
+    /**
+     * Start compiling this list.
+     *
+     * @return a BufferBuilder, shared between all the DisplayLists, ready to receive the vertices of the list
+     */
+    public BufferBuilder beginList() {
+
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+        Preconditions.checkState(!this._closed, "The display list was closed");
+
+        final BufferBuilder builder = getSharedBuilder();
+
+        builder.begin(this._drawMode, this._format);
+        return builder;
+    }
+
+    /**
+     * Complete the compilation started by {@link #beginList()} and upload the vertices to the GPU
+     */
     public void endList() {
-        //TODO replace?
-        //GlStateManager.endList();
+
+        final BufferBuilder builder = getSharedBuilder();
+
+        builder.finishDrawing();
+        this.upload(builder);
+    }
+
+    /**
+     * Upload the vertices of a finished BufferBuilder to the GPU, replacing the current content of this list
+     *
+     * @param builder the BufferBuilder. {@link BufferBuilder#finishDrawing()} must have been called on it
+     */
+    public void upload(final BufferBuilder builder) {
+
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+        Preconditions.checkState(!this._closed, "The display list was closed");
+
+        final Pair<BufferBuilder.DrawState, ByteBuffer> next = builder.getNextBuffer();
+        final BufferBuilder.DrawState state = next.getFirst();
+        final ByteBuffer data = next.getSecond();
+
+        Preconditions.checkArgument(state.getFormat().equals(this._format), "Mismatched vertex format");
+
+        releaseLeakedBuffers();
+
+        if (null == this._buffer) {
+
+            RenderSystem.glGenBuffers(id -> this._buffer = new Buffer(this, id));
+            s_allocatedCount.incrementAndGet();
+        }
+
+        final Buffer buffer = this._buffer;
+
+        buffer.setSize(data.remaining());
+        this._verticesCount = state.getVertexCount();
+
+        RenderSystem.glBindBuffer(GL15.GL_ARRAY_BUFFER, () -> buffer._id);
+        RenderSystem.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+        RenderSystem.glBindBuffer(GL15.GL_ARRAY_BUFFER, () -> 0);
     }
 
+    /**
+     * Draw the list with the current transformation
+     */
     public void play() {
-        //TODO replace?
-        //GlStateManager.callList(this._id);
+        this.play(null);
+    }
+
+    /**
+     * Draw the list applying the given transformation on top of the current one
+     *
+     * @param transform the transformation to apply or null to use the current one
+     */
+    public void play(@Nullable final Matrix4f transform) {
+
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+
+        if (this._closed || this.isEmpty()) {
+            return;
+        }
+
+        final Buffer buffer = this._buffer;
+
+        RenderSystem.glBindBuffer(GL15.GL_ARRAY_BUFFER, () -> buffer._id);
+        this._format.setupBufferState(0L);
+
+        if (null != transform) {
+
+            RenderSystem.pushMatrix();
+            RenderSystem.multMatrix(transform);
+        }
+
+        RenderSystem.drawArrays(this._drawMode, 0, this._verticesCount);
+
+        if (null != transform) {
+            RenderSystem.popMatrix();
+        }
+
+        this._format.clearBufferState();
+        RenderSystem.glBindBuffer(GL15.GL_ARRAY_BUFFER, () -> 0);
+    }
+
+    //region AutoCloseable
+
+    /**
+     * Release the GPU buffer of this list. A closed list cannot be used anymore
+     */
+    @Override
+    public void close() {
+
+        if (this._closed) {
+            return;
+        }
+
+        this._closed = true;
+
+        if (null != this._buffer) {
+
+            this._buffer.release();
+            this._buffer = null;
+        }
+
+        this._verticesCount = 0;
+        releaseLeakedBuffers();
     }
 
+    //endregion
     //region internals
+    //region Buffer
+
+    /**
+     * The GPU buffer of a list. It outlive the list if the list is garbage collected without being closed
+     */
+    private static final class Buffer
+            extends PhantomReference<DisplayList> {
+
+        Buffer(final DisplayList list, final int id) {
+
+            super(list, s_leakedBuffers);
+            this._id = id;
+            this._size = 0;
+            s_liveBuffers.add(this);
+        }
+
+        void setSize(final int size) {
+
+            s_totalSize.addAndGet(size - this._size);
+            this._size = size;
+        }
+
+        void release() {
+
+            if (s_liveBuffers.remove(this)) {
+
+                this.clear();
+                this.setSize(0);
+                RenderSystem.glDeleteBuffers(this._id);
+                s_allocatedCount.decrementAndGet();
+            }
+        }
+
+        private final int _id;
+        private int _size;
+    }
+
+    //endregion
+
+    /**
+     * Release the buffers of the lists that were garbage collected without being closed
+     */
+    private static void releaseLeakedBuffers() {
+
+        Reference<? extends DisplayList> leaked;
+
+        while (null != (leaked = s_leakedBuffers.poll())) {
+            ((Buffer)leaked).release();
+        }
+    }
+
+    private static BufferBuilder getSharedBuilder() {
+
+        if (null == s_sharedBuilder) {
+            s_sharedBuilder = new BufferBuilder(SHARED_BUILDER_INITIAL_SIZE);
+        }
+
+        return s_sharedBuilder;
+    }
+
+    private static final int SHARED_BUILDER_INITIAL_SIZE = 262144;
+
+    private static final AtomicLong s_totalSize = new AtomicLong();
+    private static final AtomicInteger s_allocatedCount = new AtomicInteger();
+    private static BufferBuilder s_sharedBuilder;
+    private static final ReferenceQueue<DisplayList> s_leakedBuffers = new ReferenceQueue<>();
+    // keep the buffers reachable until they are released
+    private static final Set<Buffer> s_liveBuffers = new ReferenceOpenHashSet<>();
+
+    private final VertexFormat _format;
+    private final int _drawMode;
+    @Nullable
+    private Buffer _buffer;
+    private int _verticesCount;
+    private boolean _closed;
 
-    private final int _id;
+    //endregion
 }
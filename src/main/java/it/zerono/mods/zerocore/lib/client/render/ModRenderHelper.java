@@ -18,7 +18,6 @@
 
 package it.zerono.mods.zerocore.lib.client.render;
 
-import com.google.common.collect.Lists;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
@@ -28,8 +27,10 @@ import it.zerono.mods.zerocore.lib.CodeHelper;
 import it.zerono.mods.zerocore.lib.client.gui.IRichText;
 import it.zerono.mods.zerocore.lib.client.gui.sprite.AtlasSpriteTextureMap;
 import it.zerono.mods.zerocore.lib.client.gui.sprite.ISprite;
+import it.zerono.mods.zerocore.lib.client.text.TextLayoutCache;
 import it.zerono.mods.zerocore.lib.data.geometry.Point;
 import it.zerono.mods.zerocore.lib.data.geometry.Rectangle;
+import it.zerono.mods.zerocore.lib.data.geometry.MutableVector3d;
 import it.zerono.mods.zerocore.lib.data.geometry.Vector3d;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
 import net.minecraft.block.BlockState;
@@ -59,7 +60,6 @@ import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -183,47 +183,16 @@ public final class ModRenderHelper {
         }
     }
 
+    /**
+     * Wrap the given text to fit the given width. The result is cached in the {@link TextLayoutCache}
+     *
+     * @param text the text to wrap
+     * @param maxLineWidth the maximum width of a line
+     * @param font the font used to measure the text
+     * @return an immutable list of the wrapped lines
+     */
     public static List<String> wrapLines(final String text, final int maxLineWidth, final FontRenderer font) {
-
-        final List<String> lines = Lists.newLinkedList();
-        final int spaceWidth = font.getStringWidth(" ");
-
-        final String[] tokens = text.split("\\s+");
-        final Integer[] tokenWidths = Arrays.stream(tokens).map(font::getStringWidth).toArray(Integer[]::new);
-
-        StringBuilder wrappedLine = new StringBuilder(text.length());
-        int lineWidth = 0;
-
-        for (int i = 0; i < tokens.length; ++i) {
-
-            final String token = tokens[i];
-            final int tokenWidth = tokenWidths[i];
-
-            if (lineWidth + tokenWidth + spaceWidth > maxLineWidth) {
-
-                lines.add(wrappedLine.toString());
-                wrappedLine = new StringBuilder(text.length());
-                lineWidth = 0;
-            }
-
-            if (i < tokens.length - 1 && (lineWidth + tokenWidth + spaceWidth + tokenWidths[i + 1] <= maxLineWidth)) {
-
-                wrappedLine.append(token);
-                wrappedLine.append(" ");
-                lineWidth += tokenWidth + spaceWidth;
-
-            } else {
-
-                wrappedLine.append(token);
-                lineWidth += tokenWidth;
-            }
-        }
-
-        if (wrappedLine.length() > 0) {
-            lines.add(wrappedLine.toString());
-        }
-
-        return lines;
+        return TextLayoutCache.INSTANCE.getLayout(text, maxLineWidth, font).getLines();
     }
 
     //region render BakedQuad(s)
@@ -393,41 +362,28 @@ public final class ModRenderHelper {
 
         // convert to half
 
-        leftToRight = leftToRight.multiply(width * 0.5);
-        bottomToTop = bottomToTop.multiply(height * 0.5);
-        nearToFar = nearToFar.multiply(depth * 0.5);
+        final double halfWidth = width * 0.5, halfHeight = height * 0.5, halfDepth = depth * 0.5;
+        final double ltrX = leftToRight.X * halfWidth, ltrY = leftToRight.Y * halfWidth, ltrZ = leftToRight.Z * halfWidth;
+        final double bttX = bottomToTop.X * halfHeight, bttY = bottomToTop.Y * halfHeight, bttZ = bottomToTop.Z * halfHeight;
 
-        // calculate the four vertices based on the centre of the face
+        // calculate the four vertices based on the centre of the face (moved to the face plane and by the offset)
 
+        final MutableVector3d centre = Vector3d.HALF.toMutable()
+                .add(nearToFar.X * halfDepth, nearToFar.Y * halfDepth, nearToFar.Z * halfDepth)
+                .add(offset);
         final Vector3d[] vertices = new Vector3d[4];
 
         // bottom left
-        vertices[0] = Vector3d.HALF
-                .subtract(leftToRight)
-                .subtract(bottomToTop)
-                .add(nearToFar)
-                .add(offset);
+        vertices[0] = new Vector3d(centre.X - ltrX - bttX, centre.Y - ltrY - bttY, centre.Z - ltrZ - bttZ);
 
         // bottom right
-        vertices[1] = Vector3d.HALF
-                .add(leftToRight)
-                .subtract(bottomToTop)
-                .add(nearToFar)
-                .add(offset);
+        vertices[1] = new Vector3d(centre.X + ltrX - bttX, centre.Y + ltrY - bttY, centre.Z + ltrZ - bttZ);
 
         // top right
-        vertices[2] = Vector3d.HALF
-                .add(leftToRight)
-                .add(bottomToTop)
-                .add(nearToFar)
-                .add(offset);
+        vertices[2] = new Vector3d(centre.X + ltrX + bttX, centre.Y + ltrY + bttY, centre.Z + ltrZ + bttZ);
 
         // top left
-        vertices[3] = Vector3d.HALF
-                .subtract(leftToRight)
-                .add(bottomToTop)
-                .add(nearToFar)
-                .add(offset);
+        vertices[3] = new Vector3d(centre.X - ltrX + bttX, centre.Y - ltrY + bttY, centre.Z - ltrZ + bttZ);
 
         return vertices;
     }
@@ -0,0 +1,320 @@
+/*
+ *
+ * PackedVertices.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.client.render;
+
+import it.zerono.mods.zerocore.lib.client.render.builder.VertexElementType;
+import it.zerono.mods.zerocore.lib.data.geometry.Vector3d;
+import it.zerono.mods.zerocore.lib.data.gfx.Colour;
+import it.zerono.mods.zerocore.lib.data.gfx.LightMap;
+import it.zerono.mods.zerocore.lib.data.gfx.UV;
+import net.minecraft.dispenser.IPosition;
+import net.minecraft.util.math.vector.Vector3f;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * An immutable sequence of vertices stored as a struct-of-arrays.
+ *
+ * Each vertex element is stored in it's own primitive array. Colours are packed as RGBA integers and light/overlay maps
+ * are packed as combined integers (U in the lower 16 bits, V in the upper 16 bits).
+ * Which elements are available for a vertex is described by a bit mask of {@link VertexElementType}s (see {@link #maskOf}).
+ *
+ * The arrays returned by the getters are the internal ones and must not be modified.
+ */
+@OnlyIn(Dist.CLIENT)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class PackedVertices {
+
+    public static final PackedVertices EMPTY = new Builder(0).build();
+
+    public static int maskOf(final VertexElementType element) {
+        return 1 << element.ordinal();
+    }
+
+    public static int maskOf(final VertexElementType... elements) {
+
+        int mask = 0;
+
+        for (final VertexElementType element : elements) {
+            mask |= maskOf(element);
+        }
+
+        return mask;
+    }
+
+    public int getVerticesCount() {
+        return this._count;
+    }
+
+    /**
+     * @return the elements available in every vertex
+     */
+    public int getCommonMask() {
+        return this._commonMask;
+    }
+
+    /**
+     * @return the elements available in at least one vertex
+     */
+    public int getUnionMask() {
+        return this._unionMask;
+    }
+
+    public int getMask(final int vertexIndex) {
+        return this._masks[vertexIndex];
+    }
+
+    public boolean has(final int vertexIndex, final VertexElementType element) {
+        return 0 != (this._masks[vertexIndex] & maskOf(element));
+    }
+
+    /**
+     * @return the X, Y, Z position of each vertex
+     */
+    public float[] getPositions() {
+        return this._positions;
+    }
+
+    /**
+     * @return the X, Y, Z normal of each vertex
+     */
+    public float[] getNormals() {
+        return this._normals;
+    }
+
+    /**
+     * @return the U, V texture coordinates of each vertex
+     */
+    public float[] getUVs() {
+        return this._uvs;
+    }
+
+    /**
+     * @return the packed RGBA colour of each vertex
+     */
+    public int[] getColours() {
+        return this._colours;
+    }
+
+    /**
+     * @return the packed light map of each vertex
+     */
+    public int[] getLightMaps() {
+        return this._lightMaps;
+    }
+
+    /**
+     * @return the packed overlay map of each vertex
+     */
+    public int[] getOverlayMaps() {
+        return this._overlayMaps;
+    }
+
+    /**
+     * Create a new {@link Vertex} from the data of the requested vertex
+     *
+     * @param vertexIndex the index of the vertex
+     * @return the new Vertex
+     */
+    public Vertex toVertex(final int vertexIndex) {
+
+        final int mask = this._masks[vertexIndex];
+        final int p = vertexIndex * 3;
+        final int t = vertexIndex * 2;
+
+        final Vertex vertex = new Vertex(new Vector3d(this._positions[p], this._positions[p + 1], this._positions[p + 2]),
+                hasElement(mask, VertexElementType.Normal) ? new Vector3f(this._normals[p], this._normals[p + 1], this._normals[p + 2]) : null,
+                hasElement(mask, VertexElementType.Texture) ? new UV(this._uvs[t], this._uvs[t + 1]) : null,
+                hasElement(mask, VertexElementType.Colour) ? Colour.fromRGBA(this._colours[vertexIndex]) : null,
+                hasElement(mask, VertexElementType.LightMap) ? new LightMap(this._lightMaps[vertexIndex]) : null,
+                hasElement(mask, VertexElementType.OverlayMap) ? new LightMap(this._overlayMaps[vertexIndex]) : null);
+
+        vertex.IDX = vertexIndex;
+        return vertex;
+    }
+
+    public static int packColour(final Colour colour) {
+        return (colour.R & 0xff) << 24 | (colour.G & 0xff) << 16 | (colour.B & 0xff) << 8 | (colour.A & 0xff);
+    }
+
+    public static int packLightMap(final LightMap map) {
+        return (map.U & 0xffff) | (map.V & 0xffff) << 16;
+    }
+
+    //region Builder
+
+    @OnlyIn(Dist.CLIENT)
+    public static final class Builder {
+
+        public Builder(final int initialCapacity) {
+
+            final int capacity = Math.max(1, initialCapacity);
+
+            this._positions = new float[capacity * 3];
+            this._normals = new float[capacity * 3];
+            this._uvs = new float[capacity * 2];
+            this._colours = new int[capacity];
+            this._lightMaps = new int[capacity];
+            this._overlayMaps = new int[capacity];
+            this._masks = new byte[capacity];
+            this._count = 0;
+        }
+
+        public int getVerticesCount() {
+            return this._count;
+        }
+
+        public Builder add(final IPosition position, @Nullable final Vector3f normal, @Nullable final UV uv,
+                           @Nullable final Colour colour, @Nullable final LightMap lightMap,
+                           @Nullable final LightMap overlayMap) {
+
+            if (this._count == this._masks.length) {
+                this.grow();
+            }
+
+            final int index = this._count++;
+            final int p = index * 3;
+            int mask = maskOf(VertexElementType.Position);
+
+            this._positions[p] = (float)position.getX();
+            this._positions[p + 1] = (float)position.getY();
+            this._positions[p + 2] = (float)position.getZ();
+
+            if (null != normal) {
+
+                this._normals[p] = normal.getX();
+                this._normals[p + 1] = normal.getY();
+                this._normals[p + 2] = normal.getZ();
+                mask |= maskOf(VertexElementType.Normal);
+            }
+
+            if (null != uv) {
+
+                this._uvs[index * 2] = uv.U;
+                this._uvs[index * 2 + 1] = uv.V;
+                mask |= maskOf(VertexElementType.Texture);
+            }
+
+            if (null != colour) {
+
+                this._colours[index] = packColour(colour);
+                mask |= maskOf(VertexElementType.Colour);
+            }
+
+            if (null != lightMap) {
+
+                this._lightMaps[index] = packLightMap(lightMap);
+                mask |= maskOf(VertexElementType.LightMap);
+            }
+
+            if (null != overlayMap) {
+
+                this._overlayMaps[index] = packLightMap(overlayMap);
+                mask |= maskOf(VertexElementType.OverlayMap);
+            }
+
+            this._masks[index] = (byte)mask;
+            return this;
+        }
+
+        public PackedVertices build() {
+
+            final int count = this._count;
+
+            return new PackedVertices(count, Arrays.copyOf(this._positions, count * 3), Arrays.copyOf(this._normals, count * 3),
+                    Arrays.copyOf(this._uvs, count * 2), Arrays.copyOf(this._colours, count),
+                    Arrays.copyOf(this._lightMaps, count), Arrays.copyOf(this._overlayMaps, count),
+                    Arrays.copyOf(this._masks, count));
+        }
+
+        //region internals
+
+        private void grow() {
+
+            final int capacity = this._masks.length * 2;
+
+            this._positions = Arrays.copyOf(this._positions, capacity * 3);
+            this._normals = Arrays.copyOf(this._normals, capacity * 3);
+            this._uvs = Arrays.copyOf(this._uvs, capacity * 2);
+            this._colours = Arrays.copyOf(this._colours, capacity);
+            this._lightMaps = Arrays.copyOf(this._lightMaps, capacity);
+            this._overlayMaps = Arrays.copyOf(this._overlayMaps, capacity);
+            this._masks = Arrays.copyOf(this._masks, capacity);
+        }
+
+        private float[] _positions;
+        private float[] _normals;
+        private float[] _uvs;
+        private int[] _colours;
+        private int[] _lightMaps;
+        private int[] _overlayMaps;
+        private byte[] _masks;
+        private int _count;
+
+        //endregion
+    }
+
+    //endregion
+    //region internals
+
+    private PackedVertices(final int count, final float[] positions, final float[] normals, final float[] uvs,
+                           final int[] colours, final int[] lightMaps, final int[] overlayMaps, final byte[] masks) {
+
+        this._count = count;
+        this._positions = positions;
+        this._normals = normals;
+        this._uvs = uvs;
+        this._colours = colours;
+        this._lightMaps = lightMaps;
+        this._overlayMaps = overlayMaps;
+        this._masks = masks;
+
+        int common = 0 == count ? 0 : -1;
+        int union = 0;
+
+        for (final byte mask : masks) {
+
+            common &= mask;
+            union |= mask;
+        }
+
+        this._commonMask = common;
+        this._unionMask = union;
+    }
+
+    private static boolean hasElement(final int mask, final VertexElementType element) {
+        return 0 != (mask & maskOf(element));
+    }
+
+    private final int _count;
+    private final float[] _positions;
+    private final float[] _normals;
+    private final float[] _uvs;
+    private final int[] _colours;
+    private final int[] _lightMaps;
+    private final int[] _overlayMaps;
+    private final byte[] _masks;
+    private final int _commonMask;
+    private final int _unionMask;
+
+    //endregion
+}
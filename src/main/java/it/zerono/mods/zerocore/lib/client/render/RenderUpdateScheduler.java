@@ -0,0 +1,238 @@
+/*
+ *
+ * RenderUpdateScheduler.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.client.render;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.SectionPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.Arrays;
+
+/**
+ * A queue of render update requests for the chunk sections of the client world.
+ *
+ * Requests are de-duplicated by chunk section and are sent to the WorldRenderer at most once per frame, merging
+ * vertically adjacent sections in a single range. A section could also be limited to be rebuilt at most once every
+ * {@link #getMinimumSectionInterval()} milliseconds: requests received before that are kept in the queue until the
+ * interval is elapsed.
+ *
+ * The scheduler is meant to be used from the client main thread only.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class RenderUpdateScheduler {
+
+    public static final RenderUpdateScheduler INSTANCE = new RenderUpdateScheduler();
+
+    /**
+     * Request a render update for all the blocks in the given range.
+     * The same chunk sections marked by {@link WorldRenderer#markBlockRangeForRenderUpdate} will be updated
+     *
+     * @param min the minimum coordinates of the range (inclusive)
+     * @param max the maximum coordinates of the range (inclusive)
+     */
+    public void request(final BlockPos min, final BlockPos max) {
+        this.request(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+    }
+
+    /**
+     * Request a render update for all the blocks in the given range.
+     * The same chunk sections marked by {@link WorldRenderer#markBlockRangeForRenderUpdate} will be updated
+     */
+    public void request(final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+
+        for (int sectionX = (minX - 1) >> 4; sectionX <= (maxX + 1) >> 4; ++sectionX) {
+            for (int sectionZ = (minZ - 1) >> 4; sectionZ <= (maxZ + 1) >> 4; ++sectionZ) {
+                for (int sectionY = (minY - 1) >> 4; sectionY <= (maxY + 1) >> 4; ++sectionY) {
+
+                    ++this._requestedCount;
+                    this._pending.add(SectionPos.asLong(sectionX, sectionY, sectionZ));
+                }
+            }
+        }
+    }
+
+    /**
+     * Send all the pending requests that can be processed now to the WorldRenderer.
+     * Called once per frame
+     *
+     * @param now the current time, in milliseconds
+     */
+    public void flush(final long now) {
+
+        if (this._pending.isEmpty()) {
+            return;
+        }
+
+        final Minecraft mc = Minecraft.getInstance();
+
+        if (null == mc.world) {
+
+            // no world, nothing to render
+            this.clear();
+            return;
+        }
+
+        final LongArrayList ready = this._ready;
+        final LongIterator iterator = this._pending.iterator();
+
+        while (iterator.hasNext()) {
+
+            final long section = iterator.nextLong();
+
+            if (this._minimumSectionInterval > 0) {
+
+                if (now - this._lastRebuild.get(section) < this._minimumSectionInterval) {
+                    continue;
+                }
+
+                this._lastRebuild.put(section, now);
+            }
+
+            ready.add(section);
+            iterator.remove();
+        }
+
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        // sort the sections so that vertically adjacent ones are next to each other in the list
+        // and update them with a single call to the WorldRenderer
+
+        Arrays.sort(ready.elements(), 0, ready.size());
+
+        final WorldRenderer renderer = mc.worldRenderer;
+        final int count = ready.size();
+        int runStart = 0;
+
+        for (int i = 1; i <= count; ++i) {
+
+            if (i == count || !isVerticallyAdjacent(ready.getLong(i - 1), ready.getLong(i))) {
+
+                final long first = ready.getLong(runStart);
+                final int x = SectionPos.extractX(first) << 4;
+                final int z = SectionPos.extractZ(first) << 4;
+
+                // avoid the borders of the sections: WorldRenderer will also update the sections around the given range
+                renderer.markBlockRangeForRenderUpdate(x + 1, (SectionPos.extractY(first) << 4) + 1, z + 1,
+                        x + 14, (SectionPos.extractY(ready.getLong(i - 1)) << 4) + 14, z + 14);
+                runStart = i;
+            }
+        }
+
+        this._rebuildsCount += count;
+        ready.clear();
+
+        if (this._lastRebuild.size() > MAX_TRACKED_SECTIONS) {
+            this._lastRebuild.values().removeIf(time -> now - time >= this._minimumSectionInterval);
+        }
+    }
+
+    /**
+     * Discard all the pending requests
+     */
+    public void clear() {
+
+        this._pending.clear();
+        this._lastRebuild.clear();
+    }
+
+    /**
+     * @return the minimum interval, in milliseconds, between two updates of the same chunk section
+     */
+    public long getMinimumSectionInterval() {
+        return this._minimumSectionInterval;
+    }
+
+    /**
+     * Set the minimum interval, in milliseconds, between two updates of the same chunk section.
+     * Use 0 to update a section on the first frame after each request
+     *
+     * @param interval the interval, in milliseconds
+     */
+    public void setMinimumSectionInterval(final long interval) {
+
+        Preconditions.checkArgument(interval >= 0, "The interval must be positive or zero");
+
+        this._minimumSectionInterval = interval;
+
+        if (0 == interval) {
+            this._lastRebuild.clear();
+        }
+    }
+
+    public int getPendingCount() {
+        return this._pending.size();
+    }
+
+    /**
+     * @return the number of chunk section updates requested since the last call to {@link #resetCounters()}
+     */
+    public long getRequestedCount() {
+        return this._requestedCount;
+    }
+
+    /**
+     * @return the number of chunk section updates actually sent to the WorldRenderer since the last call to {@link #resetCounters()}
+     */
+    public long getRebuildsCount() {
+        return this._rebuildsCount;
+    }
+
+    public void resetCounters() {
+        this._requestedCount = this._rebuildsCount = 0;
+    }
+
+    //region internals
+
+    private RenderUpdateScheduler() {
+
+        this._pending = new LongOpenHashSet();
+        this._ready = new LongArrayList();
+        this._lastRebuild = new Long2LongOpenHashMap();
+        this._lastRebuild.defaultReturnValue(Long.MIN_VALUE / 2);
+        this._minimumSectionInterval = DEFAULT_MINIMUM_SECTION_INTERVAL;
+    }
+
+    private static boolean isVerticallyAdjacent(final long lower, final long upper) {
+        return SectionPos.extractX(lower) == SectionPos.extractX(upper) &&
+                SectionPos.extractZ(lower) == SectionPos.extractZ(upper) &&
+                SectionPos.extractY(lower) + 1 == SectionPos.extractY(upper);
+    }
+
+    private static final long DEFAULT_MINIMUM_SECTION_INTERVAL = 50;
+    private static final int MAX_TRACKED_SECTIONS = 4096;
+
+    private final LongOpenHashSet _pending;
+    private final LongArrayList _ready;
+    private final Long2LongOpenHashMap _lastRebuild;
+    private long _minimumSectionInterval;
+    private long _requestedCount;
+    private long _rebuildsCount;
+
+    //endregion
+}
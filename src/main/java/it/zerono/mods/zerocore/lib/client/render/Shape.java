@@ -18,13 +18,21 @@
 
 package it.zerono.mods.zerocore.lib.client.render;
 
-import com.google.common.collect.Lists;
+import it.zerono.mods.zerocore.lib.data.gfx.Colour;
+import it.zerono.mods.zerocore.lib.data.gfx.LightMap;
+import it.zerono.mods.zerocore.lib.data.gfx.UV;
+import net.minecraft.dispenser.IPosition;
+import net.minecraft.util.math.vector.Vector3f;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
-import java.util.List;
+import javax.annotation.Nullable;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * A sequence of vertices, stored in a packed form (see {@link PackedVertices})
+ */
 @OnlyIn(Dist.CLIENT)
 @SuppressWarnings({"unused", "WeakerAccess"})
 public class Shape implements /*IVertexSource*/ IVertexSequence {
@@ -34,11 +42,21 @@ public class Shape implements /*IVertexSource*/ IVertexSequence {
     }
 
     public Shape(final int initialSize) {
-        this._vertices = Lists.newArrayListWithCapacity(initialSize);
+
+        this._builder = new PackedVertices.Builder(initialSize);
+        this._packed = null;
     }
 
     public void addVertex(final Vertex vertex) {
-        this._vertices.add(vertex);
+        this.addVertex(vertex.POSITION, vertex.NORMAL, vertex.UV, vertex.COLOUR, vertex.LIGHT_MAP, vertex.OVERLAY_MAP);
+    }
+
+    public void addVertex(final IPosition position, @Nullable final Vector3f normal, @Nullable final UV uv,
+                          @Nullable final Colour colour, @Nullable final LightMap lightMap,
+                          @Nullable final LightMap overlayMap) {
+
+        this._builder.add(position, normal, uv, colour, lightMap, overlayMap);
+        this._packed = null;
     }
 
 //    public ImmutableList<Vertex> getVertices() {
@@ -46,14 +64,29 @@ public class Shape implements /*IVertexSource*/ IVertexSequence {
 //    }
 
     public int getVerticesCount() {
-        return this._vertices.size();
+        return this._builder.getVerticesCount();
+    }
+
+    /**
+     * @return the vertices of this shape in packed form
+     */
+    public PackedVertices getPackedVertices() {
+
+        if (null == this._packed) {
+            this._packed = this._builder.build();
+        }
+
+        return this._packed;
     }
 
     //region IVertexSequence
 
     @Override
     public Stream<IVertexSource> getVerticesStream() {
-        return this._vertices.stream().map(vertex -> vertex);
+
+        final PackedVertices packed = this.getPackedVertices();
+
+        return IntStream.range(0, packed.getVerticesCount()).mapToObj(packed::toVertex);
     }
 
     //endregion
@@ -78,7 +111,8 @@ public class Shape implements /*IVertexSource*/ IVertexSequence {
 //    //endregion
     //region internals
 
-    private final List<Vertex> _vertices;
+    private final PackedVertices.Builder _builder;
+    private PackedVertices _packed;
 
     //endregion
 }
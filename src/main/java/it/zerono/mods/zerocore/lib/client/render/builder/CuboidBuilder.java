@@ -22,11 +22,13 @@ import it.zerono.mods.zerocore.lib.block.BlockFacings;
 import it.zerono.mods.zerocore.lib.client.gui.sprite.ISprite;
 import it.zerono.mods.zerocore.lib.client.render.Shape;
 import it.zerono.mods.zerocore.lib.data.geometry.Cuboid;
+import it.zerono.mods.zerocore.lib.data.geometry.MutableVector3d;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
 import it.zerono.mods.zerocore.lib.data.gfx.LightMap;
 import it.zerono.mods.zerocore.lib.data.gfx.UV;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.util.Direction;
+import net.minecraft.util.math.vector.Vector3f;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
@@ -53,6 +55,8 @@ public class CuboidBuilder extends AbstractShapeBuilder {
         super(autoReset);
         this._cuboidData = new PolygonalFaceData[FACES_COUNT];
         this._facesToBeRendered = BlockFacings.ALL;
+        this._scratchVertex = new MutableVector3d();
+        this._scratchNormal = new Vector3f();
 
         for (int faceIndex = 0; faceIndex < this._cuboidData.length; ++faceIndex) {
             this._cuboidData[faceIndex] = new PolygonalFaceData(QuadBuilder.VERTICES_COUNT);
@@ -69,8 +73,6 @@ public class CuboidBuilder extends AbstractShapeBuilder {
         }
 
         final Shape shape = new Shape(VERTICES_COUNT);
-        final VertexBuilder vertexBuilder = new VertexBuilder(true);
-        int vidx = 0;
 
         for (final Direction facing : Direction.values()) {
 
@@ -78,9 +80,13 @@ public class CuboidBuilder extends AbstractShapeBuilder {
 
                 final PolygonalFaceData data = this._cuboidData[facing.getIndex()];
 
+                Cuboid.getFaceNormal(facing, this._scratchNormal);
+
                 for (int vertexIndex = data.VERTICES_COUNT - 1; vertexIndex >= 0; --vertexIndex) {
 //                for (int vertexIndex = 0; vertexIndex < data.VERTICES_COUNT; ++vertexIndex) {
-                    shape.addVertex(QuadBuilder.buildSingleVertex(vidx++, vertexIndex, vertexBuilder, this._cuboid.getFace(facing), data));
+                    QuadBuilder.addSingleVertex(shape, vertexIndex,
+                            this._cuboid.getFaceVertex(facing, vertexIndex, this._scratchVertex),
+                            this._scratchNormal, data);
                 }
             }
         }
@@ -380,6 +386,8 @@ public class CuboidBuilder extends AbstractShapeBuilder {
     private final PolygonalFaceData[] _cuboidData;
     private Cuboid _cuboid;
     private BlockFacings _facesToBeRendered;
+    private final MutableVector3d _scratchVertex;
+    private final Vector3f _scratchNormal;
 
     private static CuboidBuilder s_defaultBuilder = null;
 
@@ -20,13 +20,14 @@ package it.zerono.mods.zerocore.lib.client.render.builder;
 
 import it.zerono.mods.zerocore.lib.client.gui.sprite.ISprite;
 import it.zerono.mods.zerocore.lib.client.render.Shape;
-import it.zerono.mods.zerocore.lib.client.render.Vertex;
 import it.zerono.mods.zerocore.lib.data.geometry.Cuboid;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
 import it.zerono.mods.zerocore.lib.data.gfx.LightMap;
 import it.zerono.mods.zerocore.lib.data.gfx.UV;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.dispenser.IPosition;
 import net.minecraft.util.Direction;
+import net.minecraft.util.math.vector.Vector3f;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 
@@ -63,11 +64,11 @@ public class QuadBuilder extends AbstractShapeBuilder {
         }
 
         final Shape shape = new Shape(VERTICES_COUNT);
-        final VertexBuilder vertexBuilder = new VertexBuilder(true);
+        final Vector3f normal = this._face.getNormal();
 
         for (int vertexIndex = VERTICES_COUNT - 1; vertexIndex >= 0; --vertexIndex) {
 //        for (int vertexIndex = 0; vertexIndex < VERTICES_COUNT; ++vertexIndex) {
-            shape.addVertex(buildSingleVertex(vertexIndex, vertexIndex, vertexBuilder, this._face, this._faceData));
+            addSingleVertex(shape, vertexIndex, this._face.getVertexByIndex(vertexIndex), normal, this._faceData);
         }
 
         if (this.autoReset()) {
@@ -217,21 +218,18 @@ public class QuadBuilder extends AbstractShapeBuilder {
     //endregion
     //region internals
 
-    static Vertex buildSingleVertex(final int vidx,
-                                    final int vertexIndex, final VertexBuilder vertexBuilder,
-                                    final Cuboid.Face face, final PolygonalFaceData faceData) {
-
-        vertexBuilder.setIdx(vidx);
-        vertexBuilder.setPosition(face.getVertexByIndex(vertexIndex));
-
-        faceData.getUvAt(vertexIndex).ifPresent(vertexBuilder::setTexture);
-        faceData.getColourlAt(vertexIndex).ifPresent(vertexBuilder::setColour);
-        faceData.getLightMapAt(vertexIndex).ifPresent(vertexBuilder::setLightMap);
-        faceData.getOverlayMapAt(vertexIndex).ifPresent(vertexBuilder::setOverlayMap);
-        //faceData.getNormalAt(vertexIndex).ifPresent(vertexBuilder::setNormal);
-        vertexBuilder.setNormal(face.getNormal());
-
-        return vertexBuilder.build();
+    /**
+     * Add a vertex of a face to the shape, straight into the shape packed storage.
+     * Both the position and the normal are copied so scratch instances could be used for them
+     */
+    static void addSingleVertex(final Shape shape, final int vertexIndex, final IPosition position,
+                                final Vector3f normal, final PolygonalFaceData faceData) {
+
+        shape.addVertex(position, normal,
+                faceData.checkElement(VertexElementType.Texture) ? faceData.UV_MAP[vertexIndex] : null,
+                faceData.checkElement(VertexElementType.Colour) ? faceData.COLOURS[vertexIndex] : null,
+                faceData.checkElement(VertexElementType.LightMap) ? faceData.LIGHT_MAPS[vertexIndex] : null,
+                faceData.checkElement(VertexElementType.OverlayMap) ? faceData.OVERLAY_MAPS[vertexIndex] : null);
     }
 
     private final PolygonalFaceData _faceData;
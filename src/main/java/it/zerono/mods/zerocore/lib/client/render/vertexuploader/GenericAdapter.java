@@ -77,7 +77,7 @@ public class GenericAdapter implements ISourceAdapter {
         if (null != this._matrix) {
 
             final Vector3d original = source.getPos();
-            final Vector4f v = new Vector4f((float)original.X, (float)original.Y, (float)original.Y, 1.0f);
+            final Vector4f v = new Vector4f((float)original.X, (float)original.Y, (float)original.Z, 1.0f);
 
             v.transform(this._matrix.getLast().getMatrix());
             return Vector3d.from(v);
@@ -128,6 +128,26 @@ public class GenericAdapter implements ISourceAdapter {
     //endregion
     //region internals
 
+    @Nullable
+    MatrixStack getMatrix() {
+        return this._matrix;
+    }
+
+    @Nullable
+    Colour getColourOverride() {
+        return this._colour;
+    }
+
+    @Nullable
+    LightMap getLightOverride() {
+        return this._light;
+    }
+
+    @Nullable
+    LightMap getOverlayOverride() {
+        return this._overlay;
+    }
+
     private MatrixStack _matrix;
     private Colour _colour;
     private LightMap _light;
@@ -19,10 +19,14 @@
 package it.zerono.mods.zerocore.lib.client.render.vertexuploader;
 
 import com.google.common.collect.Maps;
+import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.vertex.IVertexBuilder;
-import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.client.render.CombinedShape;
 import it.zerono.mods.zerocore.lib.client.render.IVertexSequence;
 import it.zerono.mods.zerocore.lib.client.render.IVertexSource;
+import it.zerono.mods.zerocore.lib.client.render.PackedVertices;
+import it.zerono.mods.zerocore.lib.client.render.Shape;
+import it.zerono.mods.zerocore.lib.client.render.builder.VertexElementType;
 import it.zerono.mods.zerocore.lib.data.geometry.Vector3d;
 import it.zerono.mods.zerocore.lib.data.gfx.Colour;
 import it.zerono.mods.zerocore.lib.data.gfx.LightMap;
@@ -30,8 +34,12 @@ import it.zerono.mods.zerocore.lib.data.gfx.UV;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.math.vector.Matrix3f;
+import net.minecraft.util.math.vector.Matrix4f;
 import net.minecraft.util.math.vector.Vector3f;
+import net.minecraft.util.math.vector.Vector4f;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 
@@ -71,10 +79,105 @@ public class VertexUploader {
 
     }
 
+    public void upload(IVertexBuilder builder, Shape shape) {
+        this.upload(builder, shape, DEFAULT_ADAPTER);
+    }
+
+    public void upload(IVertexBuilder builder, CombinedShape shape) {
+        this.upload(builder, shape, DEFAULT_ADAPTER);
+    }
+
+    /**
+     * Upload the vertices of a Shape reading them straight from the shape packed storage.
+     * No intermediate objects are created if the adapter is the default one or a {@link GenericAdapter}
+     *
+     * Must be called from the render thread
+     */
+    public void upload(IVertexBuilder builder, Shape shape, ISourceAdapter adapter) {
+        this.upload(builder, shape.getPackedVertices(), adapter);
+    }
+
+    public void upload(IVertexBuilder builder, CombinedShape shape, ISourceAdapter adapter) {
+
+        final List<Shape> shapes = shape.getShapes();
+
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < shapes.size(); ++i) {
+            this.upload(builder, shapes.get(i).getPackedVertices(), adapter);
+        }
+    }
+
+    public void upload(IVertexBuilder builder, PackedVertices vertices, ISourceAdapter adapter) {
+
+        final int count = vertices.getVerticesCount();
+
+        if (0 == count) {
+            return;
+        }
+
+        final MatrixStack matrix;
+        final Colour colour;
+        final LightMap light, overlay;
+
+        if (DEFAULT_ADAPTER == adapter) {
+
+            matrix = null;
+            colour = null;
+            light = overlay = null;
+
+        } else if (GenericAdapter.class == adapter.getClass()) {
+
+            final GenericAdapter generic = (GenericAdapter)adapter;
+
+            matrix = generic.getMatrix();
+            colour = generic.getColourOverride();
+            light = generic.getLightOverride();
+            overlay = generic.getOverlayOverride();
+
+        } else {
+
+            // unknown adapter: we have to give it a real IVertexSource to work with
+
+            final IUploader uploader = this.getUploaderFor(builder);
+
+            for (int i = 0; i < count; ++i) {
+                uploader.upload(builder, vertices.toVertex(i), adapter);
+            }
+
+            return;
+        }
+
+        this._pose = null != matrix ? matrix.getLast().getMatrix() : null;
+        this._normalMatrix = null != matrix ? matrix.getLast().getNormal() : null;
+        this._colourOverride = null != colour ? PackedVertices.packColour(colour) : 0;
+        this._lightOverride = null != light ? PackedVertices.packLightMap(light) : 0;
+        this._overlayOverride = null != overlay ? PackedVertices.packLightMap(overlay) : 0;
+        this._overridesMask = (null != colour ? COLOUR_MASK : 0) | (null != light ? LIGHT_MASK : 0) |
+                (null != overlay ? OVERLAY_MASK : 0);
+
+        final int mask = vertices.getCommonMask() | this._overridesMask;
+        final VertexFormat format = builder instanceof BufferBuilder ? ((BufferBuilder)builder).getVertexFormat() : null;
+
+        if (DefaultVertexFormats.BLOCK == format && BLOCK_MASK == (mask & BLOCK_MASK)) {
+            this.blockPackedUploader(builder, vertices);
+        } else if (DefaultVertexFormats.ENTITY == format && ENTITY_MASK == (mask & ENTITY_MASK)) {
+            this.entityPackedUploader(builder, vertices);
+        } else {
+            this.fallBackPackedUploader(builder, vertices);
+        }
+
+        this._pose = null;
+        this._normalMatrix = null;
+    }
+
     //region internals
 
     private VertexUploader() {
 
+        this._pos = new Vector4f();
+        this._normal = new Vector3f();
+
+
         this._uploaders = Maps.newHashMapWithExpectedSize(2);
         this._uploaders.put(DefaultVertexFormats.BLOCK, VertexUploader::blockUploader);
         this._uploaders.put(DefaultVertexFormats.ENTITY, VertexUploader::entityUploader);
@@ -150,9 +253,6 @@ public class VertexUploader {
         final LightMap overlay = adapter.getOverlayMap(source);
         final LightMap light = adapter.getLightMap(source);
 
-//        Log.LOGGER.info("UPV p:{} c:{} t:{} o:{} l:{} n:{}", pos, colour, uv, overlay, light, normal);
-        Log.LOGGER.info("UPV {}", source);
-
         builder.pos(pos.X, pos.Y, pos.Z)
                 .color(colour.R, colour.G, colour.B, colour.A)
                 .tex(uv.U, uv.V)
@@ -162,10 +262,160 @@ public class VertexUploader {
                 .endVertex();
     }
 
+    private void blockPackedUploader(IVertexBuilder builder, PackedVertices vertices) {
+
+        final int count = vertices.getVerticesCount();
+        final float[] uvs = vertices.getUVs();
+        final int[] colours = vertices.getColours();
+        final int[] lightMaps = vertices.getLightMaps();
+        final boolean colourOverride = 0 != (this._overridesMask & COLOUR_MASK);
+        final boolean lightOverride = 0 != (this._overridesMask & LIGHT_MASK);
+
+        for (int i = 0; i < count; ++i) {
+
+            final int colour = colourOverride ? this._colourOverride : colours[i];
+            final int light = lightOverride ? this._lightOverride : lightMaps[i];
+
+            this.pos(builder, vertices, i)
+                    .color(colour >>> 24, (colour >> 16) & 0xFF, (colour >> 8) & 0xFF, colour & 0xFF)
+                    .tex(uvs[i * 2], uvs[i * 2 + 1])
+                    .lightmap(light & 0xFFFF, light >>> 16);
+            this.normal(builder, vertices, i)
+                    .endVertex();
+        }
+    }
+
+    private void entityPackedUploader(IVertexBuilder builder, PackedVertices vertices) {
+
+        final int count = vertices.getVerticesCount();
+        final float[] uvs = vertices.getUVs();
+        final int[] colours = vertices.getColours();
+        final int[] lightMaps = vertices.getLightMaps();
+        final int[] overlayMaps = vertices.getOverlayMaps();
+        final boolean colourOverride = 0 != (this._overridesMask & COLOUR_MASK);
+        final boolean lightOverride = 0 != (this._overridesMask & LIGHT_MASK);
+        final boolean overlayOverride = 0 != (this._overridesMask & OVERLAY_MASK);
+
+        for (int i = 0; i < count; ++i) {
+
+            final int colour = colourOverride ? this._colourOverride : colours[i];
+            final int light = lightOverride ? this._lightOverride : lightMaps[i];
+            final int overlay = overlayOverride ? this._overlayOverride : overlayMaps[i];
+
+            this.pos(builder, vertices, i)
+                    .color(colour >>> 24, (colour >> 16) & 0xFF, (colour >> 8) & 0xFF, colour & 0xFF)
+                    .tex(uvs[i * 2], uvs[i * 2 + 1])
+                    .overlay(overlay & 0xFFFF, overlay >>> 16)
+                    .lightmap(light & 0xFFFF, light >>> 16);
+            this.normal(builder, vertices, i)
+                    .endVertex();
+        }
+    }
+
+    private void fallBackPackedUploader(IVertexBuilder builder, PackedVertices vertices) {
+
+        final int count = vertices.getVerticesCount();
+        final float[] uvs = vertices.getUVs();
+        final int[] colours = vertices.getColours();
+        final int[] lightMaps = vertices.getLightMaps();
+        final int[] overlayMaps = vertices.getOverlayMaps();
+
+        for (int i = 0; i < count; ++i) {
+
+            final int mask = vertices.getMask(i);
+            final int overrides = this._overridesMask;
+
+            this.pos(builder, vertices, i);
+
+            if (0 != (overrides & COLOUR_MASK) || 0 != (mask & COLOUR_MASK)) {
+
+                final int colour = 0 != (overrides & COLOUR_MASK) ? this._colourOverride : colours[i];
+
+                builder.color(colour >>> 24, (colour >> 16) & 0xFF, (colour >> 8) & 0xFF, colour & 0xFF);
+            }
+
+            if (0 != (mask & TEXTURE_MASK)) {
+                builder.tex(uvs[i * 2], uvs[i * 2 + 1]);
+            }
+
+            if (0 != (overrides & OVERLAY_MASK) || 0 != (mask & OVERLAY_MASK)) {
+
+                final int overlay = 0 != (overrides & OVERLAY_MASK) ? this._overlayOverride : overlayMaps[i];
+
+                builder.overlay(overlay & 0xFFFF, overlay >>> 16);
+            }
+
+            if (0 != (overrides & LIGHT_MASK) || 0 != (mask & LIGHT_MASK)) {
+
+                final int light = 0 != (overrides & LIGHT_MASK) ? this._lightOverride : lightMaps[i];
+
+                builder.lightmap(light & 0xFFFF, light >>> 16);
+            }
+
+            if (0 != (mask & NORMAL_MASK)) {
+                this.normal(builder, vertices, i);
+            }
+
+            builder.endVertex();
+        }
+    }
+
+    private IVertexBuilder pos(IVertexBuilder builder, PackedVertices vertices, int vertexIndex) {
+
+        final float[] positions = vertices.getPositions();
+        final int offset = vertexIndex * 3;
+
+        if (null == this._pose) {
+            return builder.pos(positions[offset], positions[offset + 1], positions[offset + 2]);
+        }
+
+        final Vector4f v = this._pos;
+
+        v.set(positions[offset], positions[offset + 1], positions[offset + 2], 1.0f);
+        v.transform(this._pose);
+        return builder.pos(v.getX(), v.getY(), v.getZ());
+    }
+
+    private IVertexBuilder normal(IVertexBuilder builder, PackedVertices vertices, int vertexIndex) {
+
+        final float[] normals = vertices.getNormals();
+        final int offset = vertexIndex * 3;
+
+        if (null == this._normalMatrix) {
+            return builder.normal(normals[offset], normals[offset + 1], normals[offset + 2]);
+        }
+
+        final Vector3f v = this._normal;
+
+        v.set(normals[offset], normals[offset + 1], normals[offset + 2]);
+        v.transform(this._normalMatrix);
+        return builder.normal(v.getX(), v.getY(), v.getZ());
+    }
+
     private static final ISourceAdapter DEFAULT_ADAPTER = new ISourceAdapter() {
     };
 
+    private static final int NORMAL_MASK = PackedVertices.maskOf(VertexElementType.Normal);
+    private static final int TEXTURE_MASK = PackedVertices.maskOf(VertexElementType.Texture);
+    private static final int COLOUR_MASK = PackedVertices.maskOf(VertexElementType.Colour);
+    private static final int LIGHT_MASK = PackedVertices.maskOf(VertexElementType.LightMap);
+    private static final int OVERLAY_MASK = PackedVertices.maskOf(VertexElementType.OverlayMap);
+    private static final int BLOCK_MASK = COLOUR_MASK | TEXTURE_MASK | LIGHT_MASK | NORMAL_MASK;
+    private static final int ENTITY_MASK = BLOCK_MASK | OVERLAY_MASK;
+
     private final Map<VertexFormat, IUploader> _uploaders;
 
+    // scratch state for the packed uploaders. Only used from the render thread
+    private final Vector4f _pos;
+    private final Vector3f _normal;
+    @Nullable
+    private Matrix4f _pose;
+    @Nullable
+    private Matrix3f _normalMatrix;
+    private int _colourOverride;
+    private int _lightOverride;
+    private int _overlayOverride;
+    private int _overridesMask;
+
     //endregion
 }
@@ -0,0 +1,391 @@
+/*
+ *
+ * TextLayoutCache.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.client.text;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.resources.IResourceManager;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.resource.IResourceType;
+import net.minecraftforge.resource.ISelectiveResourceReloadListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A LRU bounded cache of measured and wrapped texts.
+ *
+ * Texts are keyed by their content, the FontRenderer used to measure them and the maximum width available for each line. The whole cache is dropped on every resource reload.
+ *
+ * The cache is meant to be used from the client render thread only.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class TextLayoutCache
+        implements ISelectiveResourceReloadListener {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    public static final TextLayoutCache INSTANCE = new TextLayoutCache(DEFAULT_CAPACITY);
+
+    /**
+     * Get the layout of the given text, wrapped to fit the given width
+     *
+     * @param text the text to wrap
+     * @param maxLineWidth the maximum width of a line
+     * @param font the font used to measure the text
+     * @return the (possibly cached) layout of the text
+     */
+    public TextLayout getLayout(final String text, final int maxLineWidth, final FontRenderer font) {
+
+        final Key key = new Key(text, font, maxLineWidth);
+        TextLayout layout = this._entries.get(key);
+
+        if (null == layout) {
+            this._entries.put(key, layout = TextLayout.from(text, maxLineWidth, font));
+        }
+
+        return layout;
+    }
+
+    /**
+     * Get the width of the given text
+     *
+     * @param text the text to measure
+     * @param font the font used to measure the text
+     * @return the (possibly cached) width of the text
+     */
+    public int getWidth(final String text, final FontRenderer font) {
+        return this.getLayout(text, Integer.MAX_VALUE, font).getTextWidth();
+    }
+
+    /**
+     * Remove every cached entry
+     */
+    public void invalidate() {
+        this._entries.clear();
+    }
+
+    public int size() {
+        return this._entries.size();
+    }
+
+    //region TextLayout
+
+    /**
+     * The wrapped lines of a text along with the widths of the original tokens and of each line
+     */
+    public static final class TextLayout {
+
+        public List<String> getLines() {
+            return this._lines;
+        }
+
+        public int getLinesCount() {
+            return this._lineWidths.length;
+        }
+
+        public String getLine(final int lineIndex) {
+            return this._lines.get(lineIndex);
+        }
+
+        public int getLineWidth(final int lineIndex) {
+            return this._lineWidths[lineIndex];
+        }
+
+        /**
+         * @return the index of the first token of the given line
+         */
+        public int getLineBreak(final int lineIndex) {
+            return this._lineBreaks[lineIndex];
+        }
+
+        public int getTokensCount() {
+            return this._tokenWidths.length;
+        }
+
+        public int getTokenWidth(final int tokenIndex) {
+            return this._tokenWidths[tokenIndex];
+        }
+
+        /**
+         * @return the width of the whole, unwrapped, text
+         */
+        public int getTextWidth() {
+            return this._textWidth;
+        }
+
+        //region internals
+
+        private TextLayout(final List<String> lines, final int[] lineWidths, final int[] lineBreaks,
+                           final int[] tokenWidths, final int textWidth) {
+
+            this._lines = lines;
+            this._lineWidths = lineWidths;
+            this._lineBreaks = lineBreaks;
+            this._tokenWidths = tokenWidths;
+            this._textWidth = textWidth;
+        }
+
+        private static TextLayout from(final String text, final int maxLineWidth, final FontRenderer font) {
+
+            final int textWidth = font.getStringWidth(text);
+
+            if (Integer.MAX_VALUE == maxLineWidth) {
+                // measure only
+                return new TextLayout(ImmutableList.of(text), new int[]{textWidth}, new int[]{0}, new int[0], textWidth);
+            }
+
+            // split the text on white spaces, mimicking String.split("\\s+")
+
+            final int length = text.length();
+            int[] tokenStarts = new int[8];
+            int[] tokenEnds = new int[8];
+            int tokensCount = 0;
+            int index = 0;
+
+            while (index < length) {
+
+                final int start = index;
+
+                while (index < length && !isWhitespace(text.charAt(index))) {
+                    ++index;
+                }
+
+                if (tokensCount == tokenStarts.length) {
+
+                    tokenStarts = grow(tokenStarts);
+                    tokenEnds = grow(tokenEnds);
+                }
+
+                tokenStarts[tokensCount] = start;
+                tokenEnds[tokensCount] = index;
+                ++tokensCount;
+
+                while (index < length && isWhitespace(text.charAt(index))) {
+                    ++index;
+                }
+            }
+
+            if (0 == tokensCount) {
+
+                // an empty text is a single empty token...
+
+                tokenStarts[0] = tokenEnds[0] = 0;
+                tokensCount = 1;
+
+            } else if (1 == tokensCount && tokenStarts[0] == tokenEnds[0]) {
+
+                // ... while a text made only of white spaces have no tokens at all
+                tokensCount = 0;
+            }
+
+            // measure the tokens
+
+            final int spaceWidth = font.getStringWidth(" ");
+            final int[] tokenWidths = new int[tokensCount];
+
+            for (int i = 0; i < tokensCount; ++i) {
+                tokenWidths[i] = font.getStringWidth(text.substring(tokenStarts[i], tokenEnds[i]));
+            }
+
+            // wrap the tokens
+
+            final ImmutableList.Builder<String> lines = ImmutableList.builder();
+            int[] lineBreaks = new int[4];
+            int linesCount = 0;
+            final StringBuilder wrappedLine = new StringBuilder(length);
+            int lineStart = 0;
+            int lineWidth = 0;
+
+            for (int i = 0; i < tokensCount; ++i) {
+
+                final int tokenWidth = tokenWidths[i];
+
+                if (lineWidth + tokenWidth + spaceWidth > maxLineWidth) {
+
+                    lines.add(wrappedLine.toString());
+
+                    if (linesCount == lineBreaks.length) {
+                        lineBreaks = grow(lineBreaks);
+                    }
+
+                    lineBreaks[linesCount++] = lineStart;
+                    lineStart = i;
+                    wrappedLine.setLength(0);
+                    lineWidth = 0;
+                }
+
+                wrappedLine.append(text, tokenStarts[i], tokenEnds[i]);
+
+                if (i < tokensCount - 1 && (lineWidth + tokenWidth + spaceWidth + tokenWidths[i + 1] <= maxLineWidth)) {
+
+                    wrappedLine.append(' ');
+                    lineWidth += tokenWidth + spaceWidth;
+
+                } else {
+
+                    lineWidth += tokenWidth;
+                }
+            }
+
+            if (wrappedLine.length() > 0) {
+
+                lines.add(wrappedLine.toString());
+
+                if (linesCount == lineBreaks.length) {
+                    lineBreaks = grow(lineBreaks);
+                }
+
+                lineBreaks[linesCount++] = lineStart;
+            }
+
+            final List<String> wrappedLines = lines.build();
+            final int[] lineWidths = new int[linesCount];
+
+            for (int i = 0; i < linesCount; ++i) {
+                lineWidths[i] = font.getStringWidth(wrappedLines.get(i));
+            }
+
+            return new TextLayout(wrappedLines, lineWidths, trim(lineBreaks, linesCount), tokenWidths, textWidth);
+        }
+
+        /**
+         * Same as the {@code \s} character class of java.util.regex.Pattern
+         */
+        private static boolean isWhitespace(final char c) {
+            return ' ' == c || '\t' == c || '\n' == c || '\u000B' == c || '\f' == c || '\r' == c;
+        }
+
+        private static int[] grow(final int[] array) {
+
+            final int[] newArray = new int[array.length * 2];
+
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            return newArray;
+        }
+
+        private static int[] trim(final int[] array, final int length) {
+
+            if (array.length == length) {
+                return array;
+            }
+
+            final int[] newArray = new int[length];
+
+            System.arraycopy(array, 0, newArray, 0, length);
+            return newArray;
+        }
+
+        private final List<String> _lines;
+        private final int[] _lineWidths;
+        private final int[] _lineBreaks;
+        private final int[] _tokenWidths;
+        private final int _textWidth;
+
+        //endregion
+    }
+
+    //endregion
+    //region ISelectiveResourceReloadListener
+
+    /**
+     * A version of onResourceManager that selectively chooses {@link IResourceType}s
+     * to reload.
+     * When using this, the given predicate should be called to ensure the relevant resources should
+     * be reloaded at this time.
+     *
+     * @param resourceManager   the resource manager being reloaded
+     * @param resourcePredicate predicate to test whether any given resource type should be reloaded
+     */
+    @Override
+    public void onResourceManagerReload(final IResourceManager resourceManager, final Predicate<IResourceType> resourcePredicate) {
+        // both the fonts and the translated texts could change on a reload
+        this.invalidate();
+    }
+
+    //endregion
+    //region internals
+    //region Key
+
+    private static final class Key {
+
+        Key(final String text, final FontRenderer font, final int maxWidth) {
+
+            this._text = text;
+            this._font = font;
+            this._maxWidth = maxWidth;
+            this._hash = 31 * (31 * text.hashCode() + System.identityHashCode(font)) + maxWidth;
+        }
+
+        //region Object
+
+        @Override
+        public boolean equals(final Object other) {
+
+            if (this == other) {
+                return true;
+            }
+
+            if (other instanceof Key) {
+
+                final Key key = (Key)other;
+
+                return this._font == key._font && this._maxWidth == key._maxWidth && this._hash == key._hash &&
+                        this._text.equals(key._text);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return this._hash;
+        }
+
+        //endregion
+
+        private final String _text;
+        private final FontRenderer _font;
+        private final int _maxWidth;
+        private final int _hash;
+    }
+
+    //endregion
+
+    private TextLayoutCache(final int capacity) {
+
+        Preconditions.checkArgument(capacity > 0);
+
+        this._entries = new LinkedHashMap<Key, TextLayout>(capacity, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, TextLayout> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    private final LinkedHashMap<Key, TextLayout> _entries;
+
+    //endregion
+}
@@ -0,0 +1,241 @@
+/*
+ *
+ * MultiblockPreviewCache.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.compat.patchouli;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.mojang.blaze3d.matrix.MatrixStack;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.zerono.mods.zerocore.lib.CodeHelper;
+import it.zerono.mods.zerocore.lib.client.render.DisplayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BlockRendererDispatcher;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.RenderTypeLookup;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraft.util.math.vector.Vector3i;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.client.ForgeHooksClient;
+import net.minecraftforge.resource.IResourceType;
+import net.minecraftforge.resource.ISelectiveResourceReloadListener;
+import net.minecraftforge.resource.VanillaResourceType;
+import vazkii.patchouli.common.multiblock.AbstractMultiblock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Compiled previews of Patchouli multiblocks.
+ *
+ * Each preview is tessellated once per multiblock id and visible layer into one {@link DisplayList} for each
+ * block render type and then replayed with the transformation of the page. The whole cache is dropped on every
+ * resource reload.
+ *
+ * The cache is meant to be used from the client render thread only.
+ */
+@OnlyIn(Dist.CLIENT)
+public final class MultiblockPreviewCache
+        implements ISelectiveResourceReloadListener {
+
+    public static final MultiblockPreviewCache INSTANCE = new MultiblockPreviewCache();
+
+    /**
+     * Visible layer value used to render every layer of a multiblock
+     */
+    public static final int ALL_LAYERS = -1;
+
+    /**
+     * Render the preview of a multiblock, compiling it first if needed
+     *
+     * @param matrix the transformation to apply to the preview
+     * @param id the id of the multiblock
+     * @param multiblock the multiblock
+     * @param visibleLayer the Y layer to render or {@link #ALL_LAYERS} to render them all
+     */
+    public void render(final MatrixStack matrix, final ResourceLocation id, final AbstractMultiblock multiblock,
+                       final int visibleLayer) {
+
+        final Int2ObjectMap<Preview> previews = this._previews.computeIfAbsent(id, k -> new Int2ObjectOpenHashMap<>());
+        Preview preview = previews.get(visibleLayer);
+
+        if (null == preview) {
+            previews.put(visibleLayer, preview = Preview.build(multiblock, visibleLayer));
+        }
+
+        preview.render(matrix.getLast().getMatrix());
+    }
+
+    /**
+     * Release every compiled preview
+     */
+    public void invalidate() {
+
+        this._previews.values().forEach(previews -> previews.values().forEach(Preview::close));
+        this._previews.clear();
+    }
+
+    /**
+     * @return the number of bytes held in GPU memory by all the compiled previews
+     */
+    public long getSize() {
+        return this._previews.values().stream()
+                .flatMap(previews -> previews.values().stream())
+                .mapToLong(Preview::getSize)
+                .sum();
+    }
+
+    //region ISelectiveResourceReloadListener
+
+    /**
+     * A version of onResourceManager that selectively chooses {@link IResourceType}s
+     * to reload.
+     * When using this, the given predicate should be called to ensure the relevant resources should
+     * be reloaded at this time.
+     *
+     * @param resourceManager   the resource manager being reloaded
+     * @param resourcePredicate predicate to test whether any given resource type should be reloaded
+     */
+    @Override
+    public void onResourceManagerReload(final IResourceManager resourceManager, final Predicate<IResourceType> resourcePredicate) {
+
+        if (resourcePredicate.test(VanillaResourceType.MODELS) || resourcePredicate.test(VanillaResourceType.TEXTURES)) {
+            this.invalidate();
+        }
+    }
+
+    //endregion
+    //region internals
+    //region Preview
+
+    private static final class Preview {
+
+        static Preview build(final AbstractMultiblock multiblock, final int visibleLayer) {
+
+            final BlockRendererDispatcher dispatcher = Minecraft.getInstance().getBlockRendererDispatcher();
+            final Vector3i size = multiblock.getSize();
+            final BlockPos min = new BlockPos(0, ALL_LAYERS == visibleLayer ? 0 : visibleLayer, 0);
+            final BlockPos max = new BlockPos(size.getX() - 1, ALL_LAYERS == visibleLayer ? size.getY() - 1 : visibleLayer,
+                    size.getZ() - 1);
+            final MatrixStack matrix = new MatrixStack();
+            final Random random = new Random();
+            final List<RenderType> layers = Lists.newArrayList();
+            final List<DisplayList> lists = Lists.newArrayList();
+
+            for (final RenderType layer : RenderType.getBlockRenderTypes()) {
+
+                final DisplayList list = new DisplayList(layer.getVertexFormat(), layer.getDrawMode());
+                final BufferBuilder builder = list.beginList();
+                boolean empty = true;
+
+                ForgeHooksClient.setRenderLayer(layer);
+
+                for (final BlockPos position : BlockPos.getAllInBoxMutable(min, max)) {
+
+                    final BlockState state = multiblock.getBlockState(position);
+                    final BlockState renderState = Patchouli.getRenderBlockStateFor(multiblock, state);
+
+                    if (RenderTypeLookup.canRenderInLayer(renderState, layer)) {
+
+                        matrix.push();
+                        matrix.translate(position.getX(), position.getY(), position.getZ());
+                        dispatcher.renderModel(renderState, position, multiblock, matrix, builder, false, random,
+                                Patchouli.getModelDataFor(multiblock, state));
+                        matrix.pop();
+                        empty = false;
+                    }
+                }
+
+                ForgeHooksClient.setRenderLayer(null);
+                list.endList();
+
+                if (empty) {
+
+                    list.close();
+
+                } else {
+
+                    layers.add(layer);
+                    lists.add(list);
+                }
+            }
+
+            return new Preview(layers.toArray(new RenderType[0]), lists.toArray(new DisplayList[0]));
+        }
+
+        void render(final Matrix4f transform) {
+
+            for (int i = 0; i < this._layers.length; ++i) {
+
+                final RenderType layer = this._layers[i];
+
+                layer.setupRenderState();
+                this._lists[i].play(transform);
+                layer.clearRenderState();
+            }
+        }
+
+        long getSize() {
+
+            long size = 0;
+
+            for (final DisplayList list : this._lists) {
+                size += list.getSize();
+            }
+
+            return size;
+        }
+
+        void close() {
+
+            for (final DisplayList list : this._lists) {
+                list.close();
+            }
+        }
+
+        private Preview(final RenderType[] layers, final DisplayList[] lists) {
+
+            this._layers = layers;
+            this._lists = lists;
+        }
+
+        private final RenderType[] _layers;
+        private final DisplayList[] _lists;
+    }
+
+    //endregion
+
+    private MultiblockPreviewCache() {
+
+        this._previews = Maps.newHashMap();
+        CodeHelper.addResourceReloadListener(this);
+    }
+
+    private final Map<ResourceLocation, Int2ObjectMap<Preview>> _previews;
+
+    //endregion
+}
@@ -21,22 +21,12 @@ package it.zerono.mods.zerocore.lib.compat.patchouli.component.standardpage;
 import com.google.gson.annotations.SerializedName;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.systems.RenderSystem;
-import com.mojang.blaze3d.vertex.IVertexBuilder;
-import it.zerono.mods.zerocore.lib.compat.patchouli.Patchouli;
-import net.minecraft.block.BlockState;
+import it.zerono.mods.zerocore.lib.compat.patchouli.MultiblockPreviewCache;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screen.Screen;
-import net.minecraft.client.renderer.IRenderTypeBuffer;
-import net.minecraft.client.renderer.RenderType;
-import net.minecraft.client.renderer.RenderTypeLookup;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.vector.Matrix4f;
 import net.minecraft.util.math.vector.Vector3f;
 import net.minecraft.util.math.vector.Vector3i;
-import net.minecraft.util.math.vector.Vector4f;
-import net.minecraftforge.client.ForgeHooksClient;
-import net.minecraftforge.client.model.data.IModelData;
 import vazkii.patchouli.api.IMultiblock;
 import vazkii.patchouli.api.IVariable;
 import vazkii.patchouli.client.base.ClientTicker;
@@ -49,7 +39,6 @@ import vazkii.patchouli.common.book.Book;
 import vazkii.patchouli.common.multiblock.AbstractMultiblock;
 import vazkii.patchouli.common.multiblock.MultiblockRegistry;
 
-import java.util.Random;
 import java.util.function.UnaryOperator;
 
 public class Multiblock
@@ -77,7 +66,8 @@ public class Multiblock
         this.book = page.book;
 
         if (multiblockId != null) {
-            IMultiblock mb = MultiblockRegistry.MULTIBLOCKS.get(new ResourceLocation(multiblockId));
+            multiblockKey = new ResourceLocation(multiblockId);
+            IMultiblock mb = MultiblockRegistry.MULTIBLOCKS.get(multiblockKey);
 
             if (mb instanceof AbstractMultiblock) {
                 multiblockObj = (AbstractMultiblock) mb;
@@ -108,8 +98,8 @@ public class Multiblock
     private transient Book book;
     private transient GuiBookEntry parent;
     private transient AbstractMultiblock multiblockObj;
+    private transient ResourceLocation multiblockKey;
     public transient Minecraft mc;
-    private static final Random RAND = new Random();
 
     @Override
     protected void renderPage(final MatrixStack ms, final int mouseX, final int mouseY, final float partialTicks) {
@@ -148,14 +138,7 @@ public class Multiblock
         ms.scale(scale, scale, scale);
         ms.translate(-(float) sizeX / 2, -(float) sizeY / 2, 0);
 
-        // Initial eye pos somewhere off in the distance in the -Z direction
-        Vector4f eye = new Vector4f(0, 0, -100, 1);
-        Matrix4f rotMat = new Matrix4f();
-        rotMat.setIdentity();
-
-        // For each GL rotation done, track the opposite to keep the eye pos accurate
         ms.rotate(Vector3f.XP.rotationDegrees(-30F));
-        rotMat.mul(Vector3f.XP.rotationDegrees(30));
 
         float offX = (float) -sizeX / 2;
         float offZ = (float) -sizeZ / 2 + 1;
@@ -166,60 +149,29 @@ public class Multiblock
         }
         ms.translate(-offX, 0, -offZ);
         ms.rotate(Vector3f.YP.rotationDegrees(time));
-        rotMat.mul(Vector3f.YP.rotationDegrees(-time));
         ms.rotate(Vector3f.YP.rotationDegrees(45));
-        rotMat.mul(Vector3f.YP.rotationDegrees(-45));
         ms.translate(offX, 0, offZ);
 
-        // Finally apply the rotations
-        eye.transform(rotMat);
-        eye.normalize();
 		/* TODO XXX This does not handle visualization of sparse multiblocks correctly.
 			Dense multiblocks store everything in positive X/Z, so this works, but sparse multiblocks store everything from the JSON as-is.
 			Potential solution: Rotate around the offset vars of the multiblock, and add AABB method for extent of the multiblock
 		*/
-        renderElements(ms, multiblockObj, BlockPos.getAllInBoxMutable(BlockPos.ZERO, new BlockPos(sizeX - 1, sizeY - 1, sizeZ - 1)), eye);
+        renderElements(ms, multiblockObj);
 
         ms.pop();
     }
 
-    private void renderElements(MatrixStack ms, AbstractMultiblock mb, Iterable<? extends BlockPos> blocks, Vector4f eye) {
+    private void renderElements(MatrixStack ms, AbstractMultiblock mb) {
         ms.push();
         RenderSystem.color4f(1F, 1F, 1F, 1F);
         ms.translate(0, 0, -1);
 
-        IRenderTypeBuffer.Impl buffers = Minecraft.getInstance().getRenderTypeBuffers().getBufferSource();
-        doWorldRenderPass(ms, mb, blocks, buffers, eye);
-//        doTileEntityRenderPass(ms, mb, blocks, buffers, eye);
-
+        // the blocks are tessellated only once: from now on only the transformation change
         // todo 1.15 transparency sorting
-        buffers.finish();
+        MultiblockPreviewCache.INSTANCE.render(ms, multiblockKey, mb, MultiblockPreviewCache.ALL_LAYERS);
         ms.pop();
     }
 
-    private void doWorldRenderPass(MatrixStack ms, AbstractMultiblock mb, Iterable<? extends BlockPos> blocks,
-                                   final IRenderTypeBuffer.Impl buffers, Vector4f eye) {
-
-        for (BlockPos pos : blocks) {
-
-            BlockState bs = mb.getBlockState(pos);
-            final BlockState renderBlockState = Patchouli.getRenderBlockStateFor(mb, bs);
-            final IModelData renderModelData = Patchouli.getModelDataFor(mb, bs);
-
-            ms.push();
-            ms.translate(pos.getX(), pos.getY(), pos.getZ());
-            for (RenderType layer : RenderType.getBlockRenderTypes()) {
-                if (RenderTypeLookup.canRenderInLayer(renderBlockState, layer)) {
-                    ForgeHooksClient.setRenderLayer(layer);
-                    IVertexBuilder buffer = buffers.getBuffer(layer);
-                    Minecraft.getInstance().getBlockRendererDispatcher().renderModel(renderBlockState, pos, mb, ms, buffer, false, RAND, renderModelData);
-                    ForgeHooksClient.setRenderLayer(null);
-                }
-            }
-            ms.pop();
-        }
-    }
-
     //endregion
     //endregion
 }
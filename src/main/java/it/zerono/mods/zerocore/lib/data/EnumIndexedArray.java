@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,7 +64,10 @@ public class EnumIndexedArray<Index extends Enum<Index>, Element>
     }
 
     public Element getElement(final Index type, final Element defaultValue) {
-        return this.getElement(type).orElse(defaultValue);
+
+        final Element e = this._elements[this.getOrdinal(type)];
+
+        return null != e ? e : defaultValue;
     }
 
     public <T> T map(final Index type, final Function<Element, T> mapper, final T defaultValue) {
@@ -94,6 +98,39 @@ public class EnumIndexedArray<Index extends Enum<Index>, Element>
         return null == this._elements[this.getOrdinal(type)];
     }
 
+    public void forEach(final Consumer<Element> consumer) {
+
+        for (final Element e : this._elements) {
+            if (null != e) {
+                consumer.accept(e);
+            }
+        }
+    }
+
+    public int sum(final ToIntFunction<Element> mapper) {
+
+        int sum = 0;
+
+        for (final Element e : this._elements) {
+            if (null != e) {
+                sum += mapper.applyAsInt(e);
+            }
+        }
+
+        return sum;
+    }
+
+    public boolean anyMatch(final Predicate<Element> test) {
+
+        for (final Element e : this._elements) {
+            if (null != e && test.test(e)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public Stream<Element> stream() {
         return this.getValidIndices().stream()
                 .flatMap(index -> CodeHelper.optionalStream(this.getElement(index)));
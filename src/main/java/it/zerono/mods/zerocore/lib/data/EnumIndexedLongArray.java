@@ -0,0 +1,142 @@
+/*
+ *
+ * EnumIndexedLongArray.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * An {@link EnumIndexedArray} of primitive long values
+ *
+ * @param <Index> the enum used to index the array
+ */
+public class EnumIndexedLongArray<Index extends Enum<Index>>
+        extends EnumIndexer<Index> {
+
+    @SafeVarargs
+    public EnumIndexedLongArray(final Index firstValidIndex, final Index secondValidIndex, final Index... otherValidIndices) {
+
+        super(firstValidIndex, secondValidIndex, otherValidIndices);
+        this._elements = new long[this.validIndicesCount()];
+    }
+
+    public EnumIndexedLongArray(final Index validIndex) {
+
+        super(validIndex);
+        this._elements = new long[this.validIndicesCount()];
+    }
+
+    public EnumIndexedLongArray(final Index[] validIndices) {
+
+        super(validIndices);
+        this._elements = new long[this.validIndicesCount()];
+    }
+
+    public EnumIndexedLongArray(final Iterable<Index> validIndices) {
+
+        super(validIndices);
+        this._elements = new long[this.validIndicesCount()];
+    }
+
+    public long getElement(final Index type) {
+        return this._elements[this.getOrdinal(type)];
+    }
+
+    public void setElement(final Index type, final long element) {
+        this._elements[this.getOrdinal(type)] = element;
+    }
+
+    public void setAll(final long element) {
+        Arrays.fill(this._elements, element);
+    }
+
+    public long sum() {
+
+        long sum = 0;
+
+        for (final long element : this._elements) {
+            sum += element;
+        }
+
+        return sum;
+    }
+
+    public boolean anyMatch(final LongPredicate test) {
+
+        for (final long element : this._elements) {
+            if (test.test(element)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean allMatch(final LongPredicate test) {
+
+        for (final long element : this._elements) {
+            if (!test.test(element)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void forEach(final LongConsumer consumer) {
+
+        for (final long element : this._elements) {
+            consumer.accept(element);
+        }
+    }
+
+    public void forEach(final ObjLongConsumer<Index> consumer) {
+
+        final List<Index> indices = this.getValidIndices();
+
+        for (int i = 0; i < this._elements.length; ++i) {
+            consumer.accept(indices.get(i), this._elements[i]);
+        }
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(this._elements);
+    }
+
+    //region Object
+
+    @Override
+    public String toString() {
+        return this.getValidIndices().stream()
+                .map(index -> String.format("%s:%d", index.toString(), this.getElement(index)))
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    //endregion
+    //region internals
+
+    private final long[] _elements;
+
+    //endregion
+}
@@ -166,6 +166,38 @@ public class Cuboid {
         return new Face(this, facing);
     }
 
+    /**
+     * Get a vertex of one of the faces of this cuboid without creating a {@link Face}
+     *
+     * @param facing the face
+     * @param index the index of the vertex, in the same order used by {@link Face#getVertexByIndex(int)}
+     * @param vertex the vector to store the vertex into
+     * @return the updated vector
+     */
+    public MutableVector3d getFaceVertex(final Direction facing, final int index, final MutableVector3d vertex) {
+
+        final int corner = FACE_VERTICES[facing.getIndex()][index];
+
+        return vertex.set(0 != (corner & 1) ? this.Max.X : this.Min.X,
+                0 != (corner & 2) ? this.Max.Y : this.Min.Y,
+                0 != (corner & 4) ? this.Max.Z : this.Min.Z);
+    }
+
+    /**
+     * Get the normal of one of the faces of a cuboid
+     *
+     * @param facing the face
+     * @param normal the vector to store the normal into
+     * @return the updated vector
+     */
+    public static Vector3f getFaceNormal(final Direction facing, final Vector3f normal) {
+
+        final Vector3i n = facing.getDirectionVec();
+
+        normal.set(n.getX(), n.getY(), n.getZ());
+        return normal;
+    }
+
     public double getWidth() {
         return this.Max.X - this.Min.X;
     }
@@ -323,4 +355,15 @@ public class Cuboid {
     private Cuboid() {
         this.Min = this.Max = Vector3d.ZERO;
     }
+
+    // the corners of each face, indexed by Direction index and vertex index, as in Face.
+    // For each corner: bit 0 set = Max.X, bit 1 set = Max.Y, bit 2 set = Max.Z
+    private static final int[][] FACE_VERTICES = {
+            {0, 1, 5, 4}, // DOWN
+            {2, 6, 7, 3}, // UP
+            {3, 1, 0, 2}, // NORTH
+            {6, 4, 5, 7}, // SOUTH
+            {2, 0, 4, 6}, // WEST
+            {7, 5, 1, 3}, // EAST
+    };
 }
@@ -0,0 +1,220 @@
+/*
+ *
+ * MutableVector3d.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.data.geometry;
+
+import net.minecraft.dispenser.IPosition;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.vector.Vector3f;
+
+/**
+ * A mutable counterpart of {@link Vector3d}.
+ *
+ * All the operations modify this vector in place and return it to allow chaining.
+ * Meant to be used as a scratch instance in hot paths: use {@link #toImmutable()} to obtain a value that can be stored.
+ */
+@SuppressWarnings({"unused", "WeakerAccess", "UnusedReturnValue"})
+public class MutableVector3d
+    implements IPosition {
+
+    public double X;
+    public double Y;
+    public double Z;
+
+    public MutableVector3d() {
+        this(0, 0, 0);
+    }
+
+    public MutableVector3d(final double x, final double y, final double z) {
+
+        this.X = x;
+        this.Y = y;
+        this.Z = z;
+    }
+
+    public MutableVector3d(final IPosition other) {
+        this(other.getX(), other.getY(), other.getZ());
+    }
+
+    public static MutableVector3d from(final Vector3d data) {
+        return new MutableVector3d(data.X, data.Y, data.Z);
+    }
+
+    public static MutableVector3d from(final Vector3i data) {
+        return new MutableVector3d(data.X, data.Y, data.Z);
+    }
+
+    public Vector3d toImmutable() {
+        return new Vector3d(this.X, this.Y, this.Z);
+    }
+
+    public Vector3f toVector3f() {
+        return new Vector3f((float)this.X, (float)this.Y, (float)this.Z);
+    }
+
+    public MutableVector3d set(final double x, final double y, final double z) {
+
+        this.X = x;
+        this.Y = y;
+        this.Z = z;
+        return this;
+    }
+
+    public MutableVector3d set(final IPosition other) {
+        return this.set(other.getX(), other.getY(), other.getZ());
+    }
+
+    public MutableVector3d set(final Vector3i other) {
+        return this.set(other.X, other.Y, other.Z);
+    }
+
+    public MutableVector3d set(final net.minecraft.util.math.vector.Vector3i other) {
+        return this.set(other.getX(), other.getY(), other.getZ());
+    }
+
+    public MutableVector3d add(final double offsetX, final double offsetY, final double offsetZ) {
+        return this.set(this.X + offsetX, this.Y + offsetY, this.Z + offsetZ);
+    }
+
+    public MutableVector3d add(final double offset) {
+        return this.add(offset, offset, offset);
+    }
+
+    public MutableVector3d add(final IPosition v) {
+        return this.add(v.getX(), v.getY(), v.getZ());
+    }
+
+    public MutableVector3d add(final Vector3i v) {
+        return this.add(v.X, v.Y, v.Z);
+    }
+
+    public MutableVector3d subtract(final double offsetX, final double offsetY, final double offsetZ) {
+        return this.add(-offsetX, -offsetY, -offsetZ);
+    }
+
+    public MutableVector3d subtract(final double offset) {
+        return this.subtract(offset, offset, offset);
+    }
+
+    public MutableVector3d subtract(final IPosition v) {
+        return this.subtract(v.getX(), v.getY(), v.getZ());
+    }
+
+    public MutableVector3d subtract(final Vector3i v) {
+        return this.subtract(v.X, v.Y, v.Z);
+    }
+
+    public MutableVector3d multiply(final double factorX, final double factorY, final double factorZ) {
+        return this.set(this.X * factorX, this.Y * factorY, this.Z * factorZ);
+    }
+
+    public MutableVector3d multiply(final double factor) {
+        return this.multiply(factor, factor, factor);
+    }
+
+    public MutableVector3d multiply(final IPosition v) {
+        return this.multiply(v.getX(), v.getY(), v.getZ());
+    }
+
+    public MutableVector3d divide(final double factorX, final double factorY, final double factorZ) {
+        return this.set(this.X / factorX, this.Y / factorY, this.Z / factorZ);
+    }
+
+    public MutableVector3d divide(final double factor) {
+        return this.divide(factor, factor, factor);
+    }
+
+    public MutableVector3d ceil() {
+        return this.set(MathHelper.ceil(this.X), MathHelper.ceil(this.Y), MathHelper.ceil(this.Z));
+    }
+
+    public MutableVector3d floor() {
+        return this.set(MathHelper.floor(this.X), MathHelper.floor(this.Y), MathHelper.floor(this.Z));
+    }
+
+    public MutableVector3d crossProduct(final IPosition vec) {
+
+        final double x = vec.getX(), y = vec.getY(), z = vec.getZ();
+
+        return this.set(this.Y * z - this.Z * y, this.Z * x - this.X * z, this.X * y - this.Y * x);
+    }
+
+    public double magnitude() {
+        return Math.sqrt(this.X * this.X + this.Y * this.Y + this.Z * this.Z);
+    }
+
+    public MutableVector3d normalize() {
+
+        final double magnitude = this.magnitude();
+
+        if (0 != magnitude) {
+            return this.multiply(1.0 / magnitude);
+        }
+
+        return this;
+    }
+
+    public double scalarProduct(final double x, final double y, final double z) {
+        return this.X * x + this.Y * y + this.Z * z;
+    }
+
+    //region IPosition
+
+    @Override
+    public double getX() {
+        return this.X;
+    }
+
+    @Override
+    public double getY() {
+        return this.Y;
+    }
+
+    @Override
+    public double getZ() {
+        return this.Z;
+    }
+
+    //endregion
+    //region Object
+
+    @Override
+    public boolean equals(Object other) {
+
+        if (other instanceof MutableVector3d) {
+
+            MutableVector3d v = (MutableVector3d)other;
+
+            return this.X == v.X && this.Y == v.Y && this.Z == v.Z;
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(this.X) * 31 * 31 + Double.hashCode(this.Y) * 31 + Double.hashCode(this.Z);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MutableVector3d (%f, %f, %f)", this.X, this.Y, this.Z);
+    }
+
+    //endregion
+}
@@ -0,0 +1,175 @@
+/*
+ *
+ * MutableVector3i.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.data.geometry;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * A mutable counterpart of {@link Vector3i}.
+ *
+ * All the operations modify this vector in place and return it to allow chaining.
+ * Meant to be used as a scratch instance in hot paths: use {@link #toImmutable()} to obtain a value that can be stored.
+ */
+@SuppressWarnings({"unused", "WeakerAccess", "UnusedReturnValue"})
+public class MutableVector3i {
+
+    public int X;
+    public int Y;
+    public int Z;
+
+    public MutableVector3i() {
+        this(0, 0, 0);
+    }
+
+    public MutableVector3i(final int x, final int y, final int z) {
+
+        this.X = x;
+        this.Y = y;
+        this.Z = z;
+    }
+
+    public static MutableVector3i from(final Vector3i data) {
+        return new MutableVector3i(data.X, data.Y, data.Z);
+    }
+
+    public static MutableVector3i from(final net.minecraft.util.math.vector.Vector3i data) {
+        return new MutableVector3i(data.getX(), data.getY(), data.getZ());
+    }
+
+    public Vector3i toImmutable() {
+        return new Vector3i(this.X, this.Y, this.Z);
+    }
+
+    public BlockPos toBlockPos() {
+        return new BlockPos(this.X, this.Y, this.Z);
+    }
+
+    /**
+     * Copy this vector into the given mutable BlockPos
+     *
+     * @param position the position to update
+     * @return the updated position
+     */
+    public BlockPos.Mutable toBlockPos(final BlockPos.Mutable position) {
+        return position.setPos(this.X, this.Y, this.Z);
+    }
+
+    public MutableVector3i set(final int x, final int y, final int z) {
+
+        this.X = x;
+        this.Y = y;
+        this.Z = z;
+        return this;
+    }
+
+    public MutableVector3i set(final Vector3i other) {
+        return this.set(other.X, other.Y, other.Z);
+    }
+
+    public MutableVector3i set(final net.minecraft.util.math.vector.Vector3i other) {
+        return this.set(other.getX(), other.getY(), other.getZ());
+    }
+
+    public MutableVector3i add(final int offsetX, final int offsetY, final int offsetZ) {
+        return this.set(this.X + offsetX, this.Y + offsetY, this.Z + offsetZ);
+    }
+
+    public MutableVector3i add(final int offset) {
+        return this.add(offset, offset, offset);
+    }
+
+    public MutableVector3i add(final Vector3i offset) {
+        return this.add(offset.X, offset.Y, offset.Z);
+    }
+
+    public MutableVector3i add(final net.minecraft.util.math.vector.Vector3i offset) {
+        return this.add(offset.getX(), offset.getY(), offset.getZ());
+    }
+
+    public MutableVector3i subtract(final int offsetX, final int offsetY, final int offsetZ) {
+        return this.set(this.X - offsetX, this.Y - offsetY, this.Z - offsetZ);
+    }
+
+    public MutableVector3i subtract(final int offset) {
+        return this.subtract(offset, offset, offset);
+    }
+
+    public MutableVector3i subtract(final Vector3i offset) {
+        return this.subtract(offset.X, offset.Y, offset.Z);
+    }
+
+    public MutableVector3i subtract(final net.minecraft.util.math.vector.Vector3i offset) {
+        return this.subtract(offset.getX(), offset.getY(), offset.getZ());
+    }
+
+    public MutableVector3i multiply(final int factorX, final int factorY, final int factorZ) {
+        return this.set(this.X * factorX, this.Y * factorY, this.Z * factorZ);
+    }
+
+    public MutableVector3i multiply(final int factor) {
+        return this.multiply(factor, factor, factor);
+    }
+
+    public MutableVector3i divide(final int factorX, final int factorY, final int factorZ) {
+        return this.set(this.X / factorX, this.Y / factorY, this.Z / factorZ);
+    }
+
+    public MutableVector3i divide(final int factor) {
+        return this.divide(factor, factor, factor);
+    }
+
+    public MutableVector3i crossProduct(final Vector3i vec) {
+        return this.set(this.Y * vec.Z - this.Z * vec.Y, this.Z * vec.X - this.X * vec.Z, this.X * vec.Y - this.Y * vec.X);
+    }
+
+    public double magnitude() {
+        return Math.sqrt(this.X * this.X + this.Y * this.Y + this.Z * this.Z);
+    }
+
+    public int scalarProduct(final int x, final int y, final int z) {
+        return this.X * x + this.Y * y + this.Z * z;
+    }
+
+    //region Object
+
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other instanceof MutableVector3i) {
+
+            MutableVector3i v = (MutableVector3i)other;
+
+            return this.X == v.X && this.Y == v.Y && this.Z == v.Z;
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return (this.X * 31 + this.Y) * 31 + this.Z;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MutableVector3i (%d, %d, %d)", this.X, this.Y, this.Z);
+    }
+
+    //endregion
+}
@@ -105,6 +105,10 @@ public class Vector3d
         return data;
     }
 
+    public MutableVector3d toMutable() {
+        return new MutableVector3d(this.X, this.Y, this.Z);
+    }
+
     public Vector3i toVec3i() {
         return new Vector3i(this.X, this.Y, this.Z);
     }
@@ -72,6 +72,10 @@ public class Vector3i {
         return data;
     }
 
+    public MutableVector3i toMutable() {
+        return new MutableVector3i(this.X, this.Y, this.Z);
+    }
+
     public net.minecraft.util.math.vector.Vector3i toVec3i() {
         return new net.minecraft.util.math.vector.Vector3i(this.X, this.Y, this.Z);
     }
@@ -0,0 +1,272 @@
+/*
+ *
+ * NBTFileStore.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.data.nbt;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import it.zerono.mods.zerocore.internal.Log;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read and write GZip compressed NBT files without blocking the calling thread.
+ *
+ * All the I/O is performed by a single background thread. Writes to a file that is still waiting to be written are
+ * coalesced: only the most recent data is written and all the requests complete together.
+ * Files are first written to a temporary file and then moved over the target file to never leave a partially written
+ * file behind.
+ *
+ * To keep the reads and writes to a file in order, always use the same store to access it: the static methods
+ * {@link #readFrom(File)} and {@link #writeTo(File, CompoundNBT, int)} are not ordered against the store operations.
+ */
+public final class NBTFileStore {
+
+    /**
+     * The store used by {@link NBTHelper}
+     */
+    public static final NBTFileStore DEFAULT = new NBTFileStore("Zero CORE NBT writer", Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * Create a new store with it's own background thread
+     *
+     * @param threadName the name of the background thread
+     * @param compressionLevel the GZip compression level (from 0 to 9, or -1 for the default level)
+     */
+    public NBTFileStore(final String threadName, final int compressionLevel) {
+
+        this.setCompressionLevel(compressionLevel);
+        this._pendingWrites = Maps.newHashMap();
+        this._executor = Executors.newSingleThreadExecutor(runnable -> {
+
+            final Thread thread = new Thread(runnable, threadName);
+
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getCompressionLevel() {
+        return this._compressionLevel;
+    }
+
+    /**
+     * Set the GZip compression level used for new writes
+     *
+     * @param level the compression level (from 0 to 9, or -1 for the default level)
+     */
+    public void setCompressionLevel(final int level) {
+
+        Preconditions.checkArgument(Deflater.DEFAULT_COMPRESSION == level ||
+                (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION), "Invalid compression level");
+        this._compressionLevel = level;
+    }
+
+    /**
+     * Load an CompoundNBT from the given file.
+     * If the file is waiting to be written, the data that will be written to it is returned
+     *
+     * @param file the file to read from
+     * @return a future holding the CompoundNBT read from the file or an empty Optional if, for whatever reason, the operation fails
+     */
+    public CompletableFuture<Optional<CompoundNBT>> read(final File file) {
+
+        final Path path = file.toPath().toAbsolutePath();
+
+        synchronized (this._pendingWrites) {
+
+            final PendingWrite pending = this._pendingWrites.get(path);
+
+            if (null != pending) {
+                return CompletableFuture.completedFuture(Optional.of(pending._data.copy()));
+            }
+        }
+
+        return CompletableFuture.supplyAsync(() -> readFrom(path.toFile()), this._executor);
+    }
+
+    /**
+     * Save an CompoundNBT to the given file.
+     * The data is copied before returning so the caller is free to modify it
+     *
+     * @param file the file to write the data to
+     * @param data the data to store in the file
+     * @return a future holding true if the operation succeeded, false otherwise
+     */
+    public CompletableFuture<Boolean> write(final File file, final CompoundNBT data) {
+
+        final Path path = file.toPath().toAbsolutePath();
+        final CompoundNBT snapshot = data.copy();
+
+        synchronized (this._pendingWrites) {
+
+            final PendingWrite pending = this._pendingWrites.get(path);
+
+            if (null != pending) {
+
+                // the file is still waiting to be written: just replace the data
+                pending._data = snapshot;
+                pending._compressionLevel = this._compressionLevel;
+                return pending._result;
+            }
+
+            final PendingWrite newWrite = new PendingWrite(snapshot, this._compressionLevel);
+
+            this._pendingWrites.put(path, newWrite);
+            this._executor.execute(() -> this.processWrite(path));
+            return newWrite._result;
+        }
+    }
+
+    /**
+     * @return a future that complete when all the writes requested so far are completed
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> {}, this._executor);
+    }
+
+    /**
+     * Load an CompoundNBT from the given file on the calling thread.
+     * The read is not ordered against any write still waiting in a store
+     *
+     * @param file the file to read from
+     * @return the CompoundNBT read from the file or an empty Optional if, for whatever reason, the operation fails
+     */
+    public static Optional<CompoundNBT> readFrom(final File file) {
+
+        if (file.exists()) {
+
+            try (final FileInputStream stream = new FileInputStream(file)) {
+                return Optional.of(CompressedStreamTools.readCompressed(stream));
+            } catch (Exception ex) {
+                Log.LOGGER.error(Log.CORE, "Unable to read NBT data from {}", file, ex);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Save an CompoundNBT to the given file on the calling thread.
+     * The data is written to a unique temporary file first, which is then moved over the target file.
+     * The write is not ordered against any write still waiting in a store
+     *
+     * @param file the file to write the data to
+     * @param data the data to store in the file
+     * @param compressionLevel the GZip compression level (from 0 to 9, or -1 for the default level)
+     * @return true if the operation succeeded, false otherwise
+     */
+    public static boolean writeTo(final File file, final CompoundNBT data, final int compressionLevel) {
+
+        final Path target = file.toPath().toAbsolutePath();
+        // a file for every write so that concurrent writers never share it
+        final Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+
+        try {
+
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new LeveledGZIPOutputStream(Files.newOutputStream(temp), compressionLevel)))) {
+                CompressedStreamTools.write(data, output);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return true;
+
+        } catch (Exception ex) {
+
+            Log.LOGGER.error(Log.CORE, "Unable to write NBT data to {}", file, ex);
+
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+
+        return false;
+    }
+
+    //region internals
+    //region PendingWrite
+
+    private static final class PendingWrite {
+
+        PendingWrite(final CompoundNBT data, final int compressionLevel) {
+
+            this._data = data;
+            this._compressionLevel = compressionLevel;
+            this._result = new CompletableFuture<>();
+        }
+
+        private CompoundNBT _data;
+        private int _compressionLevel;
+        private final CompletableFuture<Boolean> _result;
+    }
+
+    //endregion
+    //region LeveledGZIPOutputStream
+
+    private static final class LeveledGZIPOutputStream
+            extends GZIPOutputStream {
+
+        LeveledGZIPOutputStream(final OutputStream stream, final int level) throws IOException {
+
+            super(stream);
+            this.def.setLevel(level);
+        }
+    }
+
+    //endregion
+
+    private void processWrite(final Path path) {
+
+        final PendingWrite pending;
+
+        synchronized (this._pendingWrites) {
+            pending = this._pendingWrites.remove(path);
+        }
+
+        if (null != pending) {
+            pending._result.complete(writeTo(path.toFile(), pending._data, pending._compressionLevel));
+        }
+    }
+
+    private final Map<Path, PendingWrite> _pendingWrites;
+    private final ExecutorService _executor;
+    private volatile int _compressionLevel;
+
+    //endregion
+}
@@ -21,16 +21,14 @@ package it.zerono.mods.zerocore.lib.data.nbt;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import net.minecraft.nbt.CompoundNBT;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.ListNBT;
 import net.minecraftforge.common.util.Constants;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 public final class NBTHelper {
@@ -44,17 +42,8 @@ public final class NBTHelper {
      * @return the CompoundNBT read from the file or null if, for whatever reason, the operation fails
      */
     public static Optional<CompoundNBT> nbtFrom(final File file) {
-
-        if (file.exists()) {
-
-            try (final FileInputStream stream = new FileInputStream(file)) {
-                return Optional.of(CompressedStreamTools.readCompressed(stream));
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        }
-
-        return Optional.empty();
+        // go through the store so that any pending write to the file is taken into account
+        return NBTFileStore.DEFAULT.read(file).join();
     }
 
     /**
@@ -65,17 +54,29 @@ public final class NBTHelper {
      * @return true if the operation succeeded, false otherwise
      */
     public static boolean nbtTo(final File file, final CompoundNBT data) {
+        // go through the store so that this write is ordered with the asynchronous ones
+        return NBTFileStore.DEFAULT.write(file, data).join();
+    }
 
-        try (final FileOutputStream stream = new FileOutputStream(file)) {
-
-            CompressedStreamTools.writeCompressed(data, stream);
-            return true;
-
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
+    /**
+     * Load an CompoundNBT from the given file without blocking the calling thread
+     *
+     * @param file the file to read from
+     * @return a future holding the CompoundNBT read from the file or an empty Optional if, for whatever reason, the operation fails
+     */
+    public static CompletableFuture<Optional<CompoundNBT>> nbtFromAsync(final File file) {
+        return NBTFileStore.DEFAULT.read(file);
+    }
 
-        return false;
+    /**
+     * Save an CompoundNBT to the given file without blocking the calling thread
+     *
+     * @param file the file to write the data to
+     * @param data the data to store in the file
+     * @return a future holding true if the operation succeeded, false otherwise
+     */
+    public static CompletableFuture<Boolean> nbtToAsync(final File file, final CompoundNBT data) {
+        return NBTFileStore.DEFAULT.write(file, data);
     }
 
     /**
@@ -23,6 +23,7 @@ import it.zerono.mods.zerocore.lib.CodeHelper;
 import it.zerono.mods.zerocore.lib.IDebugMessages;
 import it.zerono.mods.zerocore.lib.IDebuggable;
 import it.zerono.mods.zerocore.lib.data.EnumIndexedArray;
+import it.zerono.mods.zerocore.lib.data.EnumIndexedIntArray;
 import it.zerono.mods.zerocore.lib.data.nbt.IMergeableEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
 import net.minecraft.nbt.CompoundNBT;
@@ -53,16 +54,11 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
         this._adapter = stackAdapter;
         this._stacks = new EnumIndexedArray<>(this.getStackAdapter()::createArray, firstValidIndex, secondValidIndex,
                 otherValidIndices);
-        this._lastSeenLevels = new EnumIndexedArray<>(Integer[]::new, firstValidIndex, secondValidIndex,
-                otherValidIndices);
-
-        final Stack empty = this.getStackAdapter().getEmptyStack();
+        this._lastSeenLevels = new EnumIndexedIntArray<>(firstValidIndex, secondValidIndex, otherValidIndices);
+        this._stackAmountGetter = stack -> this.getStackAdapter().getAmount(stack);
 
-        this.getValidIndexes().forEach(type -> {
-
-            this.setStack(type, empty);
-            this.setLastSeenLevel(type, FORCE_UPDATE);
-        });
+        this._stacks.setAll(this.getStackAdapter().getEmptyStack());
+        this._lastSeenLevels.setAll(FORCE_UPDATE);
     }
 
     /**
@@ -101,9 +97,7 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
      * @return the total amount of content
      */
     public int getTotalAmount() {
-        return this.getValidIndexes().stream()
-                .mapToInt(type -> this.getStackAdapter().getAmount(this.getStack(type)))
-                .sum();
+        return this._stacks.sum(this._stackAmountGetter);
     }
 
     /**
@@ -189,11 +183,13 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
 
             final IStackAdapter<Stack, Content> adapter = this.getStackAdapter();
 
+            final List<Index> indices = this.getValidIndexes();
             int deviance = 0;
             boolean shouldUpdate = false;
 
-            for (Index index : this.getValidIndexes()) {
+            for (int i = 0; i < indices.size(); ++i) {
 
+                final Index index = indices.get(i);
                 final Stack stack = this.getStack(index);
                 final int lastLevel = this.getLastSeenLevel(index);
 
@@ -620,7 +616,7 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
      * @return the stack at the specified index or an EMPTY stack if there is no stack there
      */
     protected Stack getStack(Index index) {
-        return this._stacks.getElement(index).orElse(this.getStackAdapter().getEmptyStack());
+        return this._stacks.getElement(index, this.getStackAdapter().getEmptyStack());
     }
 
     /**
@@ -640,7 +636,7 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
      * @return the last amount level detected
      */
     protected int getLastSeenLevel(Index index) {
-        return this._lastSeenLevels.getElement(index).orElse(0);
+        return this._lastSeenLevels.getElement(index);
     }
 
     /**
@@ -659,13 +655,15 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
     protected void updateLastSeenLevels() {
 
         final IStackAdapter<Stack, Content> adapter = this.getStackAdapter();
+        final List<Index> indices = this.getValidIndexes();
 
-        this.getValidIndexes().forEach(type -> {
+        for (int i = 0; i < indices.size(); ++i) {
 
-            final Stack stack = this.getStack(type);
+            final Index index = indices.get(i);
+            final Stack stack = this.getStack(index);
 
-            this.setLastSeenLevel(type, adapter.isEmpty(stack) ? 0 : adapter.getAmount(stack));
-        });
+            this.setLastSeenLevel(index, adapter.isEmpty(stack) ? 0 : adapter.getAmount(stack));
+        }
     }
 
     /**
@@ -674,34 +672,27 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
     protected void clampContentsToCapacity() {
 
         final IStackAdapter<Stack, Content> adapter = this.getStackAdapter();
+        final List<Index> indices = this.getValidIndexes();
         final int capacity = this.getCapacity();
 
         if (this.isCapacityShared()) {
 
-            if (this.getTotalAmount() > capacity) {
+            int excess = this.getTotalAmount() - capacity;
 
-                int excess = this.getTotalAmount() - capacity;
-
-                for (Index index : this.getValidIndexes()) {
-
-                    excess = this.reduceStackExcess(index, excess);
-
-                    if (excess <= 0) {
-                        break;
-                    }
-                }
+            for (int i = 0; excess > 0 && i < indices.size(); ++i) {
+                excess = this.reduceStackExcess(indices.get(i), excess);
             }
 
         } else {
 
-            this.getValidIndexes().forEach(index -> {
+            for (int i = 0; i < indices.size(); ++i) {
 
-                final Stack stack = this.getStack(index);
+                final Stack stack = this.getStack(indices.get(i));
 
-                if (!adapter.isEmpty(stack)) {
-                    adapter.setAmount(stack, Math.min(capacity, adapter.getAmount(stack)));
+                if (!adapter.isEmpty(stack) && adapter.getAmount(stack) > capacity) {
+                    adapter.setAmount(stack, capacity);
                 }
-            });
+            }
         }
     }
 
@@ -815,7 +806,8 @@ public class IndexedStackContainer<Index extends Enum<Index>, Content, Stack>
 
     private final IStackAdapter<Stack, Content> _adapter;
     private final EnumIndexedArray<Index, Stack> _stacks;
-    private final EnumIndexedArray<Index, Integer> _lastSeenLevels;
+    private final EnumIndexedIntArray<Index> _lastSeenLevels;
+    private final ToIntFunction<Stack> _stackAmountGetter;
 
     private int _capacity;
     private final boolean _sharedCapacity;
@@ -0,0 +1,58 @@
+/*
+ *
+ * IPerformanceInspectable.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.debug;
+
+import it.zerono.mods.zerocore.lib.IDebugMessages;
+import net.minecraftforge.fml.LogicalSide;
+
+import javax.annotation.Nullable;
+
+/**
+ * An entity that could collect {@link PerformanceCounters} while it is being inspected with the debug tool
+ */
+public interface IPerformanceInspectable {
+
+    /**
+     * @return the performance counters of this entity or null if the entity is not being inspected
+     */
+    @Nullable
+    PerformanceCounters getPerformanceCounters();
+
+    /**
+     * Start or stop collecting performance data
+     *
+     * @param counters the performance counters to update or null to stop collecting data
+     */
+    void setPerformanceCounters(@Nullable PerformanceCounters counters);
+
+    /**
+     * Add a performance report for this entity to the provided messages list
+     *
+     * @param side the LogicalSide of the caller
+     * @param messages add your messages here
+     */
+    default void getPerformanceMessages(final LogicalSide side, final IDebugMessages messages) {
+
+        final PerformanceCounters counters = this.getPerformanceCounters();
+
+        if (null != counters) {
+            counters.getMessages(messages);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ *
+ * PerformanceCounters.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.debug;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.zerono.mods.zerocore.lib.IDebugMessages;
+import it.zerono.mods.zerocore.lib.network.IModMessage;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.Arrays;
+
+/**
+ * Performance counters collected for a single entity (a block entity or a multiblock controller) while it is
+ * being inspected with the debug tool.
+ *
+ * The entities keep a null reference to their counters when they are not inspected, so the only cost paid
+ * by an entity that is not inspected is a null check.
+ *
+ * Counters are not thread safe and they must be updated and read from the thread of the logical side
+ * they were created on.
+ */
+public final class PerformanceCounters {
+
+    public PerformanceCounters() {
+
+        this._tickTimes = new long[TICK_SAMPLES];
+        this._tickCount = 0;
+        this._syncMessages = new Object2LongOpenHashMap<>(4);
+        this._syncBytes = new Object2LongOpenHashMap<>(4);
+        this._lastValidationTime = -1;
+        this._renderRebuilds = 0;
+        this._startTime = System.nanoTime();
+    }
+
+    //region tick time
+
+    /**
+     * Record the time spent in a tick
+     *
+     * @param elapsedNanos the time spent in the tick, in nanoseconds
+     */
+    public void recordTick(final long elapsedNanos) {
+        this._tickTimes[(int)(this._tickCount++ % TICK_SAMPLES)] = elapsedNanos;
+    }
+
+    /**
+     * Get a percentile of the time spent in the last recorded ticks
+     *
+     * @param percentile the percentile to compute, between 0 and 100
+     * @return the time spent in a tick at the requested percentile, in nanoseconds, or 0 if no tick was recorded
+     */
+    public long getTickTimePercentile(final double percentile) {
+
+        final int samples = (int)Math.min(this._tickCount, TICK_SAMPLES);
+
+        if (0 == samples) {
+            return 0;
+        }
+
+        final long[] sorted = Arrays.copyOf(this._tickTimes, samples);
+        final int rank = (int)Math.ceil(percentile / 100.0 * samples) - 1;
+
+        Arrays.sort(sorted);
+        return sorted[Math.max(0, Math.min(samples - 1, rank))];
+    }
+
+    public long getTickCount() {
+        return this._tickCount;
+    }
+
+    //endregion
+    //region sync
+
+    /**
+     * Record a sync message sent to a player
+     *
+     * @param playerName the name of the player
+     * @param bytes the size of the message
+     */
+    public void recordSync(final String playerName, final int bytes) {
+
+        this._syncMessages.put(playerName, this._syncMessages.getLong(playerName) + 1);
+        this._syncBytes.put(playerName, this._syncBytes.getLong(playerName) + bytes);
+    }
+
+    //endregion
+    //region validation
+
+    /**
+     * Record the time spent validating the entity
+     *
+     * @param elapsedNanos the time spent in the validation, in nanoseconds
+     */
+    public void recordValidation(final long elapsedNanos) {
+        this._lastValidationTime = elapsedNanos;
+    }
+
+    /**
+     * @return the time spent in the last validation, in nanoseconds, or -1 if no validation was recorded
+     */
+    public long getLastValidationTime() {
+        return this._lastValidationTime;
+    }
+
+    //endregion
+    //region render
+
+    public void recordRenderRebuild() {
+        ++this._renderRebuilds;
+    }
+
+    public long getRenderRebuilds() {
+        return this._renderRebuilds;
+    }
+
+    //endregion
+    //region reporting
+
+    /**
+     * @return the time elapsed since the counters were created, in seconds
+     */
+    public double getElapsedSeconds() {
+        return Math.max(1e-3, (System.nanoTime() - this._startTime) / 1e9);
+    }
+
+    /**
+     * Add the full report of the counters to the provided messages list
+     *
+     * @param messages the messages list
+     */
+    public void getMessages(final IDebugMessages messages) {
+
+        final double elapsed = this.getElapsedSeconds();
+
+        messages.addUnlocalized("Inspected for: %1$.1fs", elapsed);
+
+        if (this._tickCount > 0) {
+            messages.addUnlocalized("Tick time: p50 %1$s, p90 %2$s, p99 %3$s, max %4$s (%5$d samples)",
+                    formatNanos(this.getTickTimePercentile(50)), formatNanos(this.getTickTimePercentile(90)),
+                    formatNanos(this.getTickTimePercentile(99)), formatNanos(this.getTickTimePercentile(100)),
+                    Math.min(this._tickCount, TICK_SAMPLES));
+        }
+
+        if (this._lastValidationTime >= 0) {
+            messages.addUnlocalized("Last validation: %1$s", formatNanos(this._lastValidationTime));
+        }
+
+        if (this._renderRebuilds > 0) {
+            messages.addUnlocalized("Render rebuilds: %1$d (%2$.2f/s)", this._renderRebuilds, this._renderRebuilds / elapsed);
+        }
+
+        for (final Object2LongMap.Entry<String> entry : this._syncMessages.object2LongEntrySet()) {
+
+            final String player = entry.getKey();
+
+            messages.addUnlocalized("Sync to %1$s: %2$.2f msg/s, %3$.1f bytes/s", player, entry.getLongValue() / elapsed,
+                    this._syncBytes.getLong(player) / elapsed);
+        }
+    }
+
+    /**
+     * @return a short, single line, summary of the counters
+     */
+    public ITextComponent getSummary() {
+
+        final double elapsed = this.getElapsedSeconds();
+        long messages = 0, bytes = 0;
+
+        for (final long value : this._syncMessages.values()) {
+            messages += value;
+        }
+
+        for (final long value : this._syncBytes.values()) {
+            bytes += value;
+        }
+
+        return new StringTextComponent(String.format("tick p50 %1$s p99 %2$s | sync %3$.1f msg/s %4$.0f B/s | rebuilds %5$d",
+                formatNanos(this.getTickTimePercentile(50)), formatNanos(this.getTickTimePercentile(99)),
+                messages / elapsed, bytes / elapsed, this._renderRebuilds));
+    }
+
+    //endregion
+    //region size helpers
+
+    /**
+     * Compute the size of a CompoundNBT once written to the network
+     *
+     * @param data the data to measure
+     * @return the size of the data, in bytes
+     */
+    public static int getSize(final CompoundNBT data) {
+
+        final ByteBuf buffer = Unpooled.buffer();
+
+        try {
+
+            new PacketBuffer(buffer).writeCompoundTag(data);
+            return buffer.readableBytes();
+
+        } finally {
+
+            buffer.release();
+        }
+    }
+
+    /**
+     * Compute the size of the payload of a network message
+     *
+     * @param message the message to measure
+     * @return the size of the payload of the message, in bytes
+     */
+    public static int getSize(final IModMessage message) {
+
+        final ByteBuf buffer = Unpooled.buffer();
+
+        try {
+
+            message.encodeTo(new PacketBuffer(buffer));
+            return buffer.readableBytes();
+
+        } finally {
+
+            buffer.release();
+        }
+    }
+
+    public static String formatNanos(final long nanos) {
+
+        if (nanos < 1_000L) {
+            return nanos + "ns";
+        } else if (nanos < 1_000_000L) {
+            return String.format("%.1fus", nanos / 1e3);
+        } else {
+            return String.format("%.2fms", nanos / 1e6);
+        }
+    }
+
+    //endregion
+    //region internals
+
+    // 10 seconds worth of ticks
+    private static final int TICK_SAMPLES = 200;
+
+    private final long[] _tickTimes;
+    private long _tickCount;
+    private final Object2LongOpenHashMap<String> _syncMessages;
+    private final Object2LongOpenHashMap<String> _syncBytes;
+    private long _lastValidationTime;
+    private long _renderRebuilds;
+    private final long _startTime;
+
+    //endregion
+}
@@ -18,23 +18,10 @@
 
 package it.zerono.mods.zerocore.lib.event;
 
-import com.google.common.collect.Lists;
-
-import java.util.List;
-import java.util.function.Consumer;
-
+/**
+ * A thread-safe {@link Event}.
+ * The copy-on-write list of handlers used by {@link Event} already let the event be raised from any thread while
+ * handlers are being subscribed or unsubscribed.
+ */
 public class ConcurrentEvent<Handler> extends Event<Handler> {
-
-    //region IEvent
-
-    @Override
-    public void raise(final Consumer<Handler> c) {
-
-        final List<Handler> handlers = Lists.newArrayList(this._handlers);
-
-        handlers.forEach(c);
-        handlers.clear();
-    }
-
-    //endregion
 }
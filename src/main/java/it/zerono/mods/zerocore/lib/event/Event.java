@@ -18,15 +18,27 @@
 
 package it.zerono.mods.zerocore.lib.event;
 
-import com.google.common.collect.Lists;
-
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
+/**
+ * An event backed by a copy-on-write list of handlers.
+ * The list is copied only when handlers are subscribed or unsubscribed so raising the event never allocate
+ * and handlers could safely (un)subscribe while the event is being raised: the change will be visible from
+ * the next raise.
+ */
 public class Event<Handler> implements IEvent<Handler> {
 
     public Event() {
-        this._handlers = Lists.newArrayList();
+        this._handlers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * @return true if there are no subscribed handlers
+     */
+    public boolean isEmpty() {
+        return this._handlers.isEmpty();
     }
 
     //region IEvent
@@ -50,6 +62,7 @@ public class Event<Handler> implements IEvent<Handler> {
 
     @Override
     public void raise(final Consumer<Handler> c) {
+        // iterate over the current snapshot of the handlers
         this._handlers.forEach(c);
     }
 
@@ -21,6 +21,7 @@ package it.zerono.mods.zerocore.lib.item.inventory.container;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.zerono.mods.zerocore.internal.Log;
 import it.zerono.mods.zerocore.lib.item.ItemHelper;
 import it.zerono.mods.zerocore.lib.item.inventory.PlayerInventoryUsage;
@@ -41,7 +42,9 @@ import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.wrapper.InvWrapper;
 import net.minecraftforge.items.wrapper.PlayerInvWrapper;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,6 +64,7 @@ public class ModContainer extends Container {
         this._factory = factory;
         this._registeredInventories = Maps.newHashMap();
         this._inventorySlotsGroups = Maps.newHashMap();
+        this._transferPlans = new EnumMap<>(SlotType.class);
     }
 
     public static ModContainer empty(final ContainerType<?> type, final int windowId) {
@@ -149,30 +153,8 @@ public class ModContainer extends Container {
             while (sourceStack.getCount() > 0 &&
                     (!reverseDirection && targetSlotIndex < endIndex || reverseDirection && targetSlotIndex >= startIndex)) {
 
-                final Slot targetSlot = this.getSlot(targetSlotIndex);
-                final ItemStack targetItemStack = targetSlot.getStack();
-
-                if (!targetItemStack.isEmpty() &&
-                        ItemHelper.stackMatch(targetItemStack, sourceStack, ItemHelper.MatchOption.MATCH_EXISTING_STACK) &&
-                        targetSlot.isItemValid(sourceStack)) {
-
-                    int mergedSize = targetItemStack.getCount() + sourceStack.getCount();
-                    int maxStackSize = Math.min(targetSlot.getSlotStackLimit(), sourceStack.getMaxStackSize());
-
-                    if (mergedSize <= maxStackSize) {
-
-                        ItemHelper.stackSetSize(sourceStack, 0);
-                        ItemHelper.stackSetSize(targetItemStack, mergedSize);
-                        targetSlot.onSlotChanged();
-                        return true;
-
-                    } else if (targetItemStack.getCount() < maxStackSize) {
-
-                        sourceStack.grow(-(maxStackSize - targetItemStack.getCount()));
-                        ItemHelper.stackSetSize(targetItemStack, maxStackSize);
-                        targetSlot.onSlotChanged();
-                        return true;
-                    }
+                if (this.mergeWithSlot(sourceStack, targetSlotIndex)) {
+                    return true;
                 }
 
                 targetSlotIndex += targetSlotIndexModifier;
@@ -187,13 +169,7 @@ public class ModContainer extends Container {
 
             while (!reverseDirection && targetSlotIndex < endIndex || reverseDirection && targetSlotIndex >= startIndex) {
 
-                final Slot targetSlot = this.getSlot(targetSlotIndex);
-
-                if (!targetSlot.getHasStack() && targetSlot.isItemValid(sourceStack)) {
-
-                    targetSlot.putStack(ItemHelper.stackFrom(sourceStack));
-                    targetSlot.onSlotChanged();
-                    ItemHelper.stackSetSize(sourceStack, 0);
+                if (this.moveToEmptySlot(sourceStack, targetSlotIndex)) {
                     return true;
                 }
 
@@ -251,67 +227,35 @@ public class ModContainer extends Container {
             return ItemHelper.stackEmpty();
         }
 
+        final SlotType clickedType = clickedTemplate.get().getType();
+
+        if (SlotType.GhostInput == clickedType || SlotType.GhostOutput == clickedType) {
+            // nothing can be taken out of a ghost slot
+            return ItemHelper.stackEmpty();
+        }
+
         final ItemStack clickedStack = clickedSlot.getStack();
         final ItemStack resultStack = ItemHelper.stackFrom(clickedStack);
 
         // Try to add the clicked-stack to the other slots in this container.
         // The targeted slot are chosen depending on the type of the clicked slot while favoring Special slots over others
 
-        switch (clickedTemplate.map(SlotTemplate::getType).orElse(SlotType.Unknown)) {
+        final int[][] transferPlan = this.getTransferPlan(clickedType);
 
-            case Input:
-            case Output:
-            case Static: {
+        if (null != transferPlan) {
 
-                if (!this.addStackToTargetSlots(clickedStack, SlotType.Special, false) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.PlayerInventory, true) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.PlayerHotbar, false)) {
-
-                    return ItemHelper.stackEmpty();
-                }
-
-                clickedSlot.onSlotChange(clickedStack, resultStack);
-                break;
-            }
-
-            case GhostInput:
-            case GhostOutput: {
-                // nothing can be taken out of a ghost slot
+            if (!this.transferStack(clickedStack, transferPlan)) {
                 return ItemHelper.stackEmpty();
             }
 
-            case PlayerInventory: {
-
-                if (!this.addStackToTargetSlots(clickedStack, SlotType.Special, false) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.Input, false) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.PlayerHotbar, false)) {
+            switch (clickedType) {
 
-                    return ItemHelper.stackEmpty();
-                }
-                break;
-            }
-
-            case PlayerHotbar: {
-
-                if (!this.addStackToTargetSlots(clickedStack, SlotType.Special, false) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.Input, false) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.PlayerInventory, false)) {
-
-                    return ItemHelper.stackEmpty();
-                }
-                break;
-            }
-
-            case Special: {
-
-                if (!this.addStackToTargetSlots(clickedStack, SlotType.PlayerInventory, true) &&
-                    !this.addStackToTargetSlots(clickedStack, SlotType.PlayerHotbar, false)) {
-
-                    return ItemHelper.stackEmpty();
-                }
-
-                clickedSlot.onSlotChange(clickedStack, resultStack);
-                break;
+                case Input:
+                case Output:
+                case Static:
+                case Special:
+                    clickedSlot.onSlotChange(clickedStack, resultStack);
+                    break;
             }
         }
 
@@ -376,19 +320,87 @@ public class ModContainer extends Container {
         this._inventorySlotsGroups.computeIfAbsent(inventoryName, name -> Lists.newArrayList()).add(slot);
     }
 
-    private boolean addStackToTargetSlots(final ItemStack stack, final SlotType targetSlotsType,
-                                          final boolean reverseDirection) {
+    /**
+     * Try to merge the source stack with the (non empty) stack in the target slot
+     *
+     * @return true if some of the source stack was merged, false otherwise
+     */
+    private boolean mergeWithSlot(final ItemStack sourceStack, final int targetSlotIndex) {
+
+        final Slot targetSlot = this.getSlot(targetSlotIndex);
+        final ItemStack targetItemStack = targetSlot.getStack();
 
-        final List<SlotIndexSet> targetIndices = this._factory.getIndicesForType(targetSlotsType);
+        // check the Item first to quickly skip the stacks that could never match
+        if (!targetItemStack.isEmpty() && targetItemStack.getItem() == sourceStack.getItem() &&
+                ItemHelper.stackMatch(targetItemStack, sourceStack, ItemHelper.MatchOption.MATCH_EXISTING_STACK) &&
+                targetSlot.isItemValid(sourceStack)) {
 
-        if (targetIndices.isEmpty()) {
-            return false;
+            int mergedSize = targetItemStack.getCount() + sourceStack.getCount();
+            int maxStackSize = Math.min(targetSlot.getSlotStackLimit(), sourceStack.getMaxStackSize());
+
+            if (mergedSize <= maxStackSize) {
+
+                ItemHelper.stackSetSize(sourceStack, 0);
+                ItemHelper.stackSetSize(targetItemStack, mergedSize);
+                targetSlot.onSlotChanged();
+                return true;
+
+            } else if (targetItemStack.getCount() < maxStackSize) {
+
+                sourceStack.grow(-(maxStackSize - targetItemStack.getCount()));
+                ItemHelper.stackSetSize(targetItemStack, maxStackSize);
+                targetSlot.onSlotChanged();
+                return true;
+            }
         }
 
-        for (final SlotIndexSet indexSet : targetIndices) {
-            for (final Range<Integer> range: indexSet.asRanges()) {
+        return false;
+    }
 
-                if (this.mergeItemStack(stack, range.lowerEndpoint(), range.upperEndpoint(), reverseDirection)) {
+    /**
+     * Try to move the source stack to the target slot if it's empty
+     *
+     * @return true if the source stack was moved, false otherwise
+     */
+    private boolean moveToEmptySlot(final ItemStack sourceStack, final int targetSlotIndex) {
+
+        final Slot targetSlot = this.getSlot(targetSlotIndex);
+
+        if (!targetSlot.getHasStack() && targetSlot.isItemValid(sourceStack)) {
+
+            targetSlot.putStack(ItemHelper.stackFrom(sourceStack));
+            targetSlot.onSlotChanged();
+            ItemHelper.stackSetSize(sourceStack, 0);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Move the given stack to the first compatible slot of the given transfer plan.
+     *
+     * The targets groups are checked in order: for each group, the stack is first merged with an existing compatible
+     * stack and, if none is found, moved to the first empty slot of the group (as {@link #mergeItemStack} does)
+     *
+     * @param stack the stack to move
+     * @param plan the transfer plan to follow
+     * @return true if the stack was (fully or partially) moved, false otherwise
+     */
+    private boolean transferStack(final ItemStack stack, final int[][] plan) {
+
+        for (final int[] targets : plan) {
+
+            if (stack.isStackable()) {
+                for (final int targetSlotIndex : targets) {
+                    if (this.mergeWithSlot(stack, targetSlotIndex)) {
+                        return true;
+                    }
+                }
+            }
+
+            for (final int targetSlotIndex : targets) {
+                if (this.moveToEmptySlot(stack, targetSlotIndex)) {
                     return true;
                 }
             }
@@ -397,9 +409,97 @@ public class ModContainer extends Container {
         return false;
     }
 
+    /**
+     * Get the transfer plan for a shift-click on a slot of the given type.
+     *
+     * A transfer plan is a list of targets groups, one for each range of slots of the types the stack could be moved to,
+     * in order of preference. Each group list the indices of the target slots in the order they should be checked
+     *
+     * @param sourceType the type of the shift-clicked slot
+     * @return the transfer plan or null if stacks could not be moved out of the given type of slot
+     */
+    @Nullable
+    private int[][] getTransferPlan(final SlotType sourceType) {
+
+        if (!this._transferPlans.containsKey(sourceType)) {
+
+            final int[][] plan;
+
+            switch (sourceType) {
+
+                case Input:
+                case Output:
+                case Static:
+                    plan = this.buildTransferPlan(true, SlotType.Special, SlotType.PlayerInventory, SlotType.PlayerHotbar);
+                    break;
+
+                case PlayerInventory:
+                    plan = this.buildTransferPlan(false, SlotType.Special, SlotType.Input, SlotType.PlayerHotbar);
+                    break;
+
+                case PlayerHotbar:
+                    plan = this.buildTransferPlan(false, SlotType.Special, SlotType.Input, SlotType.PlayerInventory);
+                    break;
+
+                case Special:
+                    plan = this.buildTransferPlan(true, SlotType.PlayerInventory, SlotType.PlayerHotbar);
+                    break;
+
+                default:
+                    plan = null;
+                    break;
+            }
+
+            this._transferPlans.put(sourceType, plan);
+        }
+
+        return this._transferPlans.get(sourceType);
+    }
+
+    private int[][] buildTransferPlan(final boolean fillPlayerInventoryFromBottom, final SlotType... targetTypes) {
+
+        final List<int[]> plan = Lists.newArrayListWithCapacity(targetTypes.length);
+
+        for (final SlotType targetType : targetTypes) {
+
+            final boolean reverseDirection = fillPlayerInventoryFromBottom && SlotType.PlayerInventory == targetType;
+
+            for (final SlotIndexSet indexSet : this._factory.getIndicesForType(targetType)) {
+                for (final Range<Integer> range : indexSet.asRanges()) {
+
+                    // one group for each range, like the previous mergeItemStack() based implementation
+                    final IntArrayList targets = new IntArrayList();
+                    final int startIndex = range.lowerEndpoint();
+                    final int endIndex = range.upperEndpoint();
+
+                    if (reverseDirection) {
+                        for (int index = endIndex - 1; index >= startIndex; --index) {
+                            if (this._factory.isIndexValid(index)) {
+                                targets.add(index);
+                            }
+                        }
+                    } else {
+                        for (int index = startIndex; index < endIndex; ++index) {
+                            if (this._factory.isIndexValid(index)) {
+                                targets.add(index);
+                            }
+                        }
+                    }
+
+                    if (!targets.isEmpty()) {
+                        plan.add(targets.toIntArray());
+                    }
+                }
+            }
+        }
+
+        return plan.toArray(new int[0][]);
+    }
+
     private final ContainerFactory _factory;
     private final Map<String, IItemHandler> _registeredInventories;
     private final Map<String, List<Slot>> _inventorySlotsGroups;
+    private final Map<SlotType, int[][]> _transferPlans;
 
     //endregion
 }
@@ -38,6 +38,14 @@ public abstract class Filter implements IFilter {
         this._conditions = Maps.newHashMap();
         this._behavior = FilterBehavior.BlackList;
         this._matchOptions = ItemHelper.MatchOption.MATCH_ALWAYS;
+        this._matcher = null;
+    }
+
+    /**
+     * Must be called when a condition of this filter was modified without going through addCondition() or removeCondition()
+     */
+    public void onConditionsChanged() {
+        this._matcher = null;
     }
 
     //region IFilter
@@ -49,13 +57,15 @@ public abstract class Filter implements IFilter {
             return false;
         }
 
-        for (final IFilterCondition condition : this._conditions.values()) {
-            if (condition.match(stack, this.getMatchOptions())) {
+        if (null == this._matcher) {
+            this._matcher = FilterMatcher.compile(this._conditions.values(), this.getMatchOptions());
+        }
+
+        if (this._matcher.anyMatch(stack)) {
 
-                // one of the conditions matches the ItemStack:
-                // the ItemStack can be accepted only if we are in WhiteList mode
-                return FilterBehavior.WhiteList == this.getBehavior();
-            }
+            // one of the conditions matches the ItemStack:
+            // the ItemStack can be accepted only if we are in WhiteList mode
+            return FilterBehavior.WhiteList == this.getBehavior();
         }
 
         // no condition matches the ItemStack:
@@ -71,11 +81,13 @@ public abstract class Filter implements IFilter {
     @Override
     public void addCondition(String name, IFilterCondition condition) {
         this._conditions.put(name, condition);
+        this.onConditionsChanged();
     }
 
     @Override
     public void removeCondition(String name) {
         this._conditions.remove(name);
+        this.onConditionsChanged();
     }
 
     @Override
@@ -96,6 +108,7 @@ public abstract class Filter implements IFilter {
     @Override
     public void setMatchOptions(EnumSet<ItemHelper.MatchOption> options) {
         this._matchOptions = options;
+        this.onConditionsChanged();
     }
 
     //region INBTSerializable
@@ -150,11 +163,14 @@ public abstract class Filter implements IFilter {
         if (nbt.contains(NBT_OPTIONS_KEY)) {
             this._matchOptions = NBTHelper.nbtGetEnumSet(nbt, NBT_OPTIONS_KEY, ItemHelper.MatchOption.class);
         }
+
+        this.onConditionsChanged();
     }
 
     private final Map<String, IFilterCondition> _conditions;
     private FilterBehavior _behavior;
     private EnumSet<ItemHelper.MatchOption> _matchOptions;
+    private FilterMatcher _matcher;
 
     private static final String NBT_BEHAVIOR_KEY = "Behavior";
     private static final String NBT_OPTIONS_KEY = "Options";
@@ -136,7 +136,9 @@ public class FilterInventory extends Filter implements IItemHandlerModifiable {
 
             // the filter is missing it's filter stack ...
             if (!simulate) {
+
                 itemStackFilter.get().setFilterStack(stack);
+                this.onConditionsChanged();
             }
 
             return ItemHelper.stackEmpty();
@@ -157,7 +159,9 @@ public class FilterInventory extends Filter implements IItemHandlerModifiable {
         final boolean reachedLimit = stack.getCount() > limit;
 
         if (!simulate) {
+
             existing.grow(reachedLimit ? limit : stack.getCount());
+            this.onConditionsChanged();
         }
 
         return reachedLimit ? ItemHelper.stackFrom(stack, stack.getCount() - limit) : ItemHelper.stackEmpty();
@@ -198,7 +202,9 @@ public class FilterInventory extends Filter implements IItemHandlerModifiable {
         } else {
 
             if (!simulate) {
+
                 itemStackFilter.get().setFilterStack(existing, existing.getCount() - toExtract);
+                this.onConditionsChanged();
             }
 
             return ItemHelper.stackFrom(existing, toExtract);
@@ -226,7 +232,9 @@ public class FilterInventory extends Filter implements IItemHandlerModifiable {
                     final ItemStack existing = filter.getFilterStack();
 
                     if (null == existing || !ItemStack.areItemStacksEqual(existing, stack)) {
+
                         filter.setFilterStack(stack);
+                        this.onConditionsChanged();
                     }
                 },
                 () -> this.addFilterStack(slot, stack));
@@ -0,0 +1,241 @@
+/*
+ *
+ * FilterMatcher.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.item.inventory.filter;
+
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.zerono.mods.zerocore.lib.item.ItemHelper;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.NBTUtil;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A precompiled version of the conditions of a {@link Filter}
+ *
+ * The ItemStackFilterConditions (but not their subclasses) are indexed by Item (when the match options include the
+ * Item option) and their NBT tags are pre-hashed. Any other condition is evaluated as-is.
+ * When the result of a match depends only on the Item, damage and NBT tag of the stack, the result for stacks without
+ * an NBT tag is memoized by Item.
+ */
+final class FilterMatcher {
+
+    static FilterMatcher compile(final Collection<IFilterCondition> conditions, final EnumSet<ItemHelper.MatchOption> options) {
+        return new FilterMatcher(conditions, options);
+    }
+
+    /**
+     * Check if any of the compiled conditions match the given stack
+     *
+     * @param stack the stack to check. Must not be empty
+     * @return true if at least one condition match the stack, false otherwise
+     */
+    boolean anyMatch(final ItemStack stack) {
+
+        // stacks with an NBT tag are never memoized: hashing the tag would cost as much as matching it
+
+        if (null == this._memo || null != stack.getTag()) {
+            return this.computeAnyMatch(stack);
+        }
+
+        final Item item = stack.getItem();
+
+        if (this._memo.containsKey(item)) {
+            return this._memo.getBoolean(item);
+        }
+
+        final boolean result = this.computeAnyMatch(stack);
+
+        if (this._memo.size() >= MAX_MEMO_SIZE) {
+            this._memo.clear();
+        }
+
+        this._memo.put(item, result);
+        return result;
+    }
+
+    //region internals
+
+    private FilterMatcher(final Collection<IFilterCondition> conditions, final EnumSet<ItemHelper.MatchOption> options) {
+
+        this._options = EnumSet.copyOf(options);
+        this._optionsWithoutNBT = EnumSet.copyOf(options);
+        this._optionsWithoutNBT.remove(ItemHelper.MatchOption.NBT);
+        this._matchAlways = options.isEmpty();
+        this._itemOnly = ItemHelper.MatchOption.MATCH_ITEM.equals(options);
+        this._byItem = options.contains(ItemHelper.MatchOption.Item);
+
+        final ImmutableList.Builder<IFilterCondition> generic = ImmutableList.builder();
+        final ImmutableList.Builder<CompiledStack> unindexed = ImmutableList.builder();
+        final Set<Item> items = new ReferenceOpenHashSet<>();
+        final Reference2ObjectOpenHashMap<Item, ImmutableList.Builder<CompiledStack>> indexed = new Reference2ObjectOpenHashMap<>();
+        boolean hasStacks = false;
+
+        for (final IFilterCondition condition : conditions) {
+
+            // subclasses could override match() so only the exact class could be compiled
+            if (null != condition && ItemStackFilterCondition.class == condition.getClass()) {
+
+                final ItemStack filterStack = ((ItemStackFilterCondition)condition).getFilterStack();
+
+                if (null == filterStack || filterStack.isEmpty()) {
+                    // invalid conditions never match anything
+                    continue;
+                }
+
+                hasStacks = true;
+
+                if (this._itemOnly) {
+                    items.add(filterStack.getItem());
+                } else if (this._byItem) {
+                    indexed.computeIfAbsent(filterStack.getItem(), item -> ImmutableList.builder()).add(new CompiledStack(filterStack));
+                } else {
+                    unindexed.add(new CompiledStack(filterStack));
+                }
+
+            } else {
+
+                generic.add(condition);
+            }
+        }
+
+        this._genericConditions = generic.build();
+        this._hasStacks = hasStacks;
+        this._items = items;
+        this._unindexedStacks = unindexed.build();
+        this._indexedStacks = new Reference2ObjectOpenHashMap<>(indexed.size());
+        indexed.forEach((item, builder) -> this._indexedStacks.put(item, builder.build()));
+
+        // the result of a match can be memoized only if it doesn't depend on anything other than the Item, the damage
+        // (which is stored in the NBT tag) and the NBT tag of the stack
+
+        this._memo = this._genericConditions.isEmpty() && !this._itemOnly && !this._matchAlways &&
+                MEMOIZABLE_OPTIONS.containsAll(options) ? new Reference2BooleanOpenHashMap<>() : null;
+    }
+
+    private boolean computeAnyMatch(final ItemStack stack) {
+
+        if (this._hasStacks) {
+
+            if (this._matchAlways) {
+                return true;
+            }
+
+            if (this._itemOnly) {
+
+                if (this._items.contains(stack.getItem())) {
+                    return true;
+                }
+
+            } else {
+
+                final List<CompiledStack> candidates = this._byItem ?
+                        this._indexedStacks.getOrDefault(stack.getItem(), ImmutableList.of()) : this._unindexedStacks;
+
+                for (int i = 0; i < candidates.size(); ++i) {
+                    if (candidates.get(i).match(stack, this._options, this._optionsWithoutNBT)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < this._genericConditions.size(); ++i) {
+            if (this._genericConditions.get(i).match(stack, this._options)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    //region CompiledStack
+
+    private static final class CompiledStack {
+
+        CompiledStack(final ItemStack filterStack) {
+
+            this._stack = filterStack;
+            this._tag = filterStack.getTag();
+            this._tagSize = null != this._tag ? this._tag.size() : 0;
+        }
+
+        boolean match(final ItemStack stack, final EnumSet<ItemHelper.MatchOption> options,
+                      final EnumSet<ItemHelper.MatchOption> optionsWithoutNBT) {
+
+            if (options.contains(ItemHelper.MatchOption.NBT)) {
+
+                // NBTUtil.areNBTEquals() check if the filter tag is contained in the stack tag: a stack tag with
+                // fewer entries than the filter tag can be quickly rejected
+
+                final CompoundNBT tag = stack.getTag();
+
+                if (null == this._tag || null == tag) {
+
+                    if (this._tag != tag) {
+                        return false;
+                    }
+
+                } else if (tag.size() < this._tagSize || !NBTUtil.areNBTEquals(this._tag, tag, true)) {
+
+                    return false;
+                }
+
+                // the NBT tags are already known to match
+                return optionsWithoutNBT.isEmpty() || ItemHelper.stackMatch(this._stack, stack, optionsWithoutNBT);
+            }
+
+            return ItemHelper.stackMatch(this._stack, stack, options);
+        }
+
+        private final ItemStack _stack;
+        @Nullable
+        private final CompoundNBT _tag;
+        private final int _tagSize;
+    }
+
+    //endregion
+
+    private static final EnumSet<ItemHelper.MatchOption> MEMOIZABLE_OPTIONS = EnumSet.of(ItemHelper.MatchOption.Item,
+            ItemHelper.MatchOption.Damage, ItemHelper.MatchOption.NBT);
+    private static final int MAX_MEMO_SIZE = 4096;
+
+    private final EnumSet<ItemHelper.MatchOption> _options;
+    private final EnumSet<ItemHelper.MatchOption> _optionsWithoutNBT;
+    private final boolean _matchAlways;
+    private final boolean _itemOnly;
+    private final boolean _byItem;
+    private final boolean _hasStacks;
+    private final List<IFilterCondition> _genericConditions;
+    private final Set<Item> _items;
+    private final List<CompiledStack> _unindexedStacks;
+    private final Reference2ObjectOpenHashMap<Item, List<CompiledStack>> _indexedStacks;
+    @Nullable
+    private final Reference2BooleanOpenHashMap<Item> _memo;
+
+    //endregion
+}
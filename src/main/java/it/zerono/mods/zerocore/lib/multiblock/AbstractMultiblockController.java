@@ -46,12 +46,16 @@ import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.zerono.mods.zerocore.internal.Log;
 import it.zerono.mods.zerocore.lib.CodeHelper;
+import it.zerono.mods.zerocore.lib.IDebugMessages;
 import it.zerono.mods.zerocore.lib.block.IBlockStateUpdater;
 import it.zerono.mods.zerocore.lib.data.nbt.INestedSyncableEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
+import it.zerono.mods.zerocore.lib.debug.IPerformanceInspectable;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
 import it.zerono.mods.zerocore.lib.event.Event;
 import it.zerono.mods.zerocore.lib.event.IEvent;
 import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockRegistry;
+import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockSavedData;
 import it.zerono.mods.zerocore.lib.multiblock.validation.IMultiblockValidator;
 import it.zerono.mods.zerocore.lib.multiblock.validation.ValidationError;
 import it.zerono.mods.zerocore.lib.network.INetworkTileEntitySyncProvider;
@@ -62,7 +66,10 @@ import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.fml.LogicalSide;
 
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.Stream;
@@ -75,7 +82,8 @@ import java.util.stream.Stream;
  */
 @SuppressWarnings("WeakerAccess")
 public abstract class AbstractMultiblockController<Controller extends AbstractMultiblockController<Controller>>
-        implements IMultiblockController<Controller>, IMultiblockValidator, INestedSyncableEntity, INetworkTileEntitySyncProvider {
+        implements IMultiblockController<Controller>, IMultiblockValidator, INestedSyncableEntity, INetworkTileEntitySyncProvider,
+                    IPerformanceInspectable {
 
     /**
      * Raised when the multiblock data was loaded from disk or from the network.
@@ -84,6 +92,13 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      */
     public final IEvent<Runnable> DataUpdated;
 
+    /**
+     * Raised after {@link #DataUpdated}, when the multiblock data was loaded from disk or from the network.
+     * Subscribers are never removed automatically and must unsubscribe when they are no longer interested in the
+     * multiblock data (like an event-driven {@link it.zerono.mods.zerocore.lib.client.gui.databind.BindingGroup} does)
+     */
+    public final IEvent<Runnable> PersistentDataUpdated;
+
 	//region IMultiblockController
 
     /**
@@ -134,7 +149,12 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
         final BlockPos coord = part.getWorldPosition();
 
-        if (!this._connectedParts.add(part)) {
+        if (this._connectedParts.add(part)) {
+
+            this._partsIndex.add(coord, part);
+
+        } else {
+
             Log.LOGGER.warn(Log.MULTIBLOCK, "[{}] Controller {} is double-adding part {} @ {}. This is unusual. If you encounter odd behavior, please tear down the machine and rebuild it.",
                     CodeHelper.getWorldSideName(this.getWorld()), hashCode(), part.hashCode(), coord);
         }
@@ -171,50 +191,7 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
             part.forfeitMultiblockSaveDelegate();
         }
 
-        final BlockPos partPos = part.getWorldPosition();
-        int curX, curY, curZ;
-        int newX, newY, newZ;
-        int partCoord;
-
-        if (this._minimumCoord != null) {
-
-            curX = this._minimumCoord.getX();
-            curY = this._minimumCoord.getY();
-            curZ = this._minimumCoord.getZ();
-
-            partCoord = partPos.getX();
-            newX = Math.min(partCoord, curX);
-
-            partCoord = partPos.getY();
-            newY = Math.min(partCoord, curY);
-
-            partCoord = partPos.getZ();
-            newZ = Math.min(partCoord, curZ);
-
-            if ((newX != curX) || (newY != curY) || (newZ != curZ)) {
-                this._minimumCoord = new BlockPos(newX, newY, newZ);
-            }
-        }
-
-        if (this._maximumCoord != null) {
-
-            curX = this._maximumCoord.getX();
-            curY = this._maximumCoord.getY();
-            curZ = this._maximumCoord.getZ();
-
-            partCoord = partPos.getX();
-            newX = Math.max(partCoord, curX);
-
-            partCoord = partPos.getY();
-            newY = Math.max(partCoord, curY);
-
-            partCoord = partPos.getZ();
-            newZ = Math.max(partCoord, curZ);
-
-            if ((newX != curX) || (newY != curY) || (newZ != curZ)) {
-                this._maximumCoord = new BlockPos(newX, newY, newZ);
-            }
-        }
+        this.updateBoundingBox();
 
         this.getRegistry().addDirtyController(this.castSelf());
 
@@ -284,6 +261,9 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
         this._connectedParts = new ObjectOpenHashSet<>();
         this._connectedPartsUnmodifiable = null;
+        this._partsIndex.clear();
+        this._validationFingerprint.invalidate();
+        this.updateBoundingBox();
         return detachedParts;
     }
 
@@ -315,11 +295,17 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         partsToAcquire.stream()
                 .filter(acquiredPart -> !acquiredPart.isPartInvalid())
                 .forEach(acquiredPart -> {
-                    this._connectedParts.add(acquiredPart);
+
+                    if (this._connectedParts.add(acquiredPart)) {
+                        this._partsIndex.add(acquiredPart.getWorldPosition(), acquiredPart);
+                    }
+
                     acquiredPart.onAssimilated(this.castSelf());
                     this.onPartAdded(acquiredPart);
                 });
 
+        this.updateBoundingBox();
+
         this.onAssimilate(other);
         other.onAssimilated(this);
     }
@@ -432,7 +418,6 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
             }
 
             part.setUnvisited();
-            part.forfeitMultiblockSaveDelegate();
 
             if (null == this._referenceCoord) {
 
@@ -461,7 +446,14 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
         } else {
 
+            for (final IMultiblockPart<Controller> connectedPart : this._connectedParts) {
+                if (connectedPart != referencePart) {
+                    connectedPart.forfeitMultiblockSaveDelegate();
+                }
+            }
+
             referencePart.becomeMultiblockSaveDelegate();
+            this.forgetDetachedReferenceCoord();
         }
 
         // Now visit all connected parts, breadth-first, starting from reference coord's part
@@ -559,9 +551,26 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
     @Override
     public void checkIfMachineIsWhole() {
 
+        final PerformanceCounters counters = this._performanceCounters;
+
+        if (null == counters) {
+
+            this.checkIfMachineIsWholeInternal();
+
+        } else {
+
+            final long start = System.nanoTime();
+
+            this.checkIfMachineIsWholeInternal();
+            counters.recordValidation(System.nanoTime() - start);
+        }
+    }
+
+    private void checkIfMachineIsWholeInternal() {
+
         this._lastValidationError = null;
 
-        if (this.isMachineWhole(this)) {
+        if (this.isMachineWholeOrUnchanged()) {
 
             // This will alter assembly state
             this.assembleMachine(this._assemblyState.isPaused());
@@ -575,6 +584,37 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
         this.callOnLogicalClient(CodeHelper::clearErrorReport);
     }
+
+    /**
+     * Check if the structure is the same one that was found valid the last time, otherwise validate it
+     *
+     * @return True if the machine is "whole" and should be assembled. False otherwise.
+     */
+    @SuppressWarnings("deprecation")
+    private boolean isMachineWholeOrUnchanged() {
+
+        if (!this.isValidationFingerprintEnabled()) {
+            return this.isMachineWhole(this);
+        }
+
+        final World world = this.getWorld();
+
+        if (this._validationFingerprint.matches(world, this._minimumCoord, this._maximumCoord, this.getPartsCount())) {
+            return true;
+        }
+
+        if (this.isMachineWhole(this)) {
+
+            if (world.isAreaLoaded(this._minimumCoord, this._maximumCoord)) {
+                this._validationFingerprint.capture(world, this._minimumCoord, this._maximumCoord, this._partsIndex);
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * @return True if this multiblock machine is considered assembled and ready to go.
      */
@@ -603,10 +643,122 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      * Driver for the update loop. If the machine is assembled, runs
      * the game logic update method.
      */
-    @SuppressWarnings("deprecation")
     @Override
     public final void updateMultiblockEntity() {
 
+        final PerformanceCounters counters = this._performanceCounters;
+
+        if (null == counters) {
+
+            this.updateMultiblockEntityInternal();
+
+        } else {
+
+            final long start = System.nanoTime();
+
+            this.updateMultiblockEntityInternal();
+            counters.recordTick(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Run the isolated part of the update loop: only the server-side update is run here while everything that
+     * could touch the world is deferred to {@link #commitIsolatedUpdate()}
+     *
+     * While the isolated update is running, {@link #getWorld()} will throw an IllegalStateException: the main thread
+     * is waiting for the update to complete and any world access from a worker thread would deadlock the server
+     */
+    @Override
+    public final void updateMultiblockEntityIsolated() {
+
+        this._isolatedUpdateRunning = true;
+
+        if (this.isEmpty() || !this.isAssembled()) {
+            // let the main thread deal with it in commitIsolatedUpdate()
+            return;
+        }
+
+        final PerformanceCounters counters = this._performanceCounters;
+
+        this._isolatedUpdateThread = Thread.currentThread();
+
+        try {
+
+            if (null == counters) {
+
+                this._isolatedUpdateChangedData = this.updateServer();
+
+            } else {
+
+                final long start = System.nanoTime();
+
+                this._isolatedUpdateChangedData = this.updateServer();
+                counters.recordTick(System.nanoTime() - start);
+            }
+
+        } finally {
+
+            this._isolatedUpdateThread = null;
+        }
+    }
+
+    /**
+     * Run the world actions deferred by the isolated update, in the order they were requested
+     */
+    @Override
+    public final void commitIsolatedUpdate() {
+
+        this._isolatedUpdateRunning = false;
+
+        if (this.isEmpty()) {
+
+            this._deferredWorldActions.clear();
+            this.getRegistry().addDeadController(this.castSelf());
+            return;
+        }
+
+        if (!this._deferredWorldActions.isEmpty()) {
+
+            this._deferredWorldActions.forEach(Runnable::run);
+            this._deferredWorldActions.clear();
+        }
+
+        if (this._isolatedUpdateChangedData) {
+
+            this._isolatedUpdateChangedData = false;
+            this.onServerDataChanged();
+        }
+    }
+
+    /**
+     * Run an action that interact with the world (for example, sending energy or items to the neighbours of the machine).
+     *
+     * If the machine is being updated in parallel with other machines, the action is deferred to the end of the
+     * update and run on the main thread. Otherwise it is run immediately
+     *
+     * @param action the action to run
+     */
+    protected void deferWorldAction(final Runnable action) {
+
+        if (this._isolatedUpdateRunning) {
+            this._deferredWorldActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Mark the chunk of a part of this machine as dirty. When the machine is being updated in parallel with other
+     * machines, parts must be marked as dirty with this method and never directly
+     *
+     * @param part the part to mark as dirty
+     */
+    protected void markPartDirty(final TileEntity part) {
+        this.deferWorldAction(part::markDirty);
+    }
+
+    private void updateMultiblockEntityInternal() {
+
         if (this.isEmpty()) {
 
             // This shouldn't happen, but just in case...
@@ -629,30 +781,36 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
         } else if (this.updateServer()) {
 
-            this.raiseDataUpdated();
+            this.onServerDataChanged();
+        }
+        // Else: Server, but no need to save data.
+    }
 
-            // If this returns true, the server has changed its internal data.
-            // If our chunks are loaded (they should be), we must mark our chunks as dirty.
+    @SuppressWarnings("deprecation")
+    private void onServerDataChanged() {
 
-            final World myWorld = this.getWorld();
+        this.raiseDataUpdated();
 
-            if (null != this._minimumCoord && null != this._maximumCoord &&
-                    myWorld.isAreaLoaded(this._minimumCoord, this._maximumCoord)) {
+        // The server has changed its internal data.
+        // If our chunks are loaded (they should be), we must mark our chunks as dirty.
 
-                final int minChunkX = WorldHelper.getChunkXFromBlock(this._minimumCoord);
-                final int minChunkZ = WorldHelper.getChunkZFromBlock(this._minimumCoord);
-                final int maxChunkX = WorldHelper.getChunkXFromBlock(this._maximumCoord);
-                final int maxChunkZ = WorldHelper.getChunkZFromBlock(this._maximumCoord);
+        final World myWorld = this.getWorld();
 
-                for (int x = minChunkX; x <= maxChunkX; ++x) {
-                    for( int z = minChunkZ; z <= maxChunkZ; ++z) {
-                        // Ensure that we save our data, even if our save delegate has no TEs.
-                        myWorld.getChunk(x, z).markDirty();
-                    }
+        if (null != this._minimumCoord && null != this._maximumCoord &&
+                myWorld.isAreaLoaded(this._minimumCoord, this._maximumCoord)) {
+
+            final int minChunkX = WorldHelper.getChunkXFromBlock(this._minimumCoord);
+            final int minChunkZ = WorldHelper.getChunkZFromBlock(this._minimumCoord);
+            final int maxChunkX = WorldHelper.getChunkXFromBlock(this._maximumCoord);
+            final int maxChunkZ = WorldHelper.getChunkZFromBlock(this._maximumCoord);
+
+            for (int x = minChunkX; x <= maxChunkX; ++x) {
+                for( int z = minChunkZ; z <= maxChunkZ; ++z) {
+                    // Ensure that we save our data, even if our save delegate has no TEs.
+                    myWorld.getChunk(x, z).markDirty();
                 }
             }
         }
-        // Else: Server, but no need to save data.
     }
 
     /**
@@ -675,48 +833,23 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      */
     @Override
     public World getWorld() {
+
+        if (null != this._isolatedUpdateThread && Thread.currentThread() == this._isolatedUpdateThread) {
+            throw new IllegalStateException("The World can't be accessed while running an isolated update. Use deferWorldAction() instead");
+        }
+
         return this._world;
     }
 
     /**
      * Force this multiblock to recalculate its minimum and maximum coordinates
      * from the list of connected parts.
+     *
+     * The bounding box is kept up to date while parts are attached or detached so this is a O(log n) operation
      */
     @Override
     public void recalculateCoords() {
-
-        if (this.isEmpty()) {
-
-            // if the multiblock has no parts in it, there will be no minimum or maximum coordinates
-            this._minimumCoord = this._maximumCoord = null;
-            return;
-        }
-
-        int minX, minY, minZ, maxX, maxY, maxZ;
-
-        minX = minY = minZ = Integer.MAX_VALUE;
-        maxX = maxY = maxZ = Integer.MIN_VALUE;
-
-        for (final IMultiblockPart<Controller> part : this._connectedParts) {
-
-            final BlockPos partPos = part.getWorldPosition();
-            int partCoord;
-
-            partCoord = partPos.getX();
-            if (partCoord < minX) minX = partCoord;
-            if (partCoord > maxX) maxX = partCoord;
-
-            partCoord = partPos.getY();
-            if (partCoord < minY) minY = partCoord;
-            if (partCoord > maxY) maxY = partCoord;
-
-            partCoord = partPos.getZ();
-            if (partCoord < minZ) minZ = partCoord;
-            if (partCoord > maxZ) maxZ = partCoord;
-        }
-
-        this._minimumCoord = new BlockPos(minX, minY, minZ);
-        this._maximumCoord = new BlockPos(maxX, maxY, maxZ);
+        this.updateBoundingBox();
     }
 
     /**
@@ -886,6 +1019,32 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         this.callOnLogicalServer(this._syncProvider::sendUpdates);
     }
 
+    //endregion
+    //region IPerformanceInspectable
+
+    @Nullable
+    @Override
+    public PerformanceCounters getPerformanceCounters() {
+        return this._performanceCounters;
+    }
+
+    @Override
+    public void setPerformanceCounters(@Nullable final PerformanceCounters counters) {
+
+        this._performanceCounters = counters;
+        this._syncProvider.setPerformanceCounters(counters);
+    }
+
+    @Override
+    public void getPerformanceMessages(final LogicalSide side, final IDebugMessages messages) {
+
+        messages.addUnlocalized("Multiblock controller: %1$s", this.getClass().getSimpleName());
+        messages.addUnlocalized("Parts: %1$d", this.getPartsCount());
+        messages.addUnlocalized("Serialized NBT size: %1$d bytes",
+                PerformanceCounters.getSize(this.syncDataTo(new CompoundNBT(), SyncReason.FullSync)));
+        IPerformanceInspectable.super.getPerformanceMessages(side, messages);
+    }
+
     //endregion
     //region AbstractMultiblockController
 
@@ -894,6 +1053,8 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         this._assemblyState = new AssemblyState();
         this._connectedParts = new ObjectOpenHashSet<>();
         this._connectedPartsUnmodifiable = null;
+        this._partsIndex = new PartPositionIndex<>();
+        this._validationFingerprint = new ValidationFingerprint();
         this._world = world;
         this._lastValidationError = null;
         this._referenceCoord = this._minimumCoord = this._maximumCoord = null;
@@ -901,8 +1062,13 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         this._syncProvider = NetworkTileEntitySyncProvider.create(
                 () -> this.getReferenceCoord().orElseGet(() -> new BlockPos(0, 0, 0)), this);
         this._requestDataUpdateNotification = false;
+        this._performanceCounters = null;
+        this._deferredWorldActions = Lists.newArrayList();
+        this._isolatedUpdateRunning = this._isolatedUpdateChangedData = false;
+        this._isolatedUpdateThread = null;
 
         this.DataUpdated = new Event<>();
+        this.PersistentDataUpdated = new Event<>();
 	}
 
     /**
@@ -1006,6 +1172,21 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 	 */
 	protected abstract boolean isMachineWhole(IMultiblockValidator validatorCallback);
 
+	/**
+	 * If the structure of the machine is found to be identical (same block states and parts positions) to the last
+	 * one that was found valid, {@link #isMachineWhole(IMultiblockValidator)} will not be called again.
+	 *
+	 * This is an opt-in feature: override this method and return true only if the validation of your machine depends
+	 * solely on the block states of its blocks (and not, for example, on the data stored in a tile entity or on
+	 * configuration values) and if isMachineWhole() has no side effects you rely on.
+	 * The structure is only reused on the logical server, on the client it is always validated again
+	 *
+	 * @return true if the last valid structure could be reused, false otherwise
+	 */
+	protected boolean isValidationFingerprintEnabled() {
+	    return false;
+	}
+
 	/**
 	 * Callback. Called after this controller assimilates all the blocks
 	 * from another controller.
@@ -1120,6 +1301,10 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
 
                         this.getWorld().markChunkDirty(coord, tile);
                         WorldHelper.notifyBlockUpdate(this.getWorld(), coord);
+
+                        if (this.isPersistedInWorldSavedData() && this.getWorld() instanceof ServerWorld) {
+                            MultiblockSavedData.get((ServerWorld)this.getWorld()).markDirty(coord);
+                        }
                     }));
     }
 
@@ -1360,6 +1545,7 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
     private void assembleMachine(final boolean currentlyPaused) {
 
         this._connectedParts.forEach(part -> part.onPreMachineAssembled(this.castSelf()));
+        this.trackInSavedData();
 
         this._assemblyState.setAssembled();
         this.clearDataUpdatedSubscribers();
@@ -1392,38 +1578,66 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         this.onUpdateBlockState();
     }
 
-    @SuppressWarnings("deprecation")
-    private void selectNewReferenceCoord() {
-
-        final World myWorld = this.getWorld();
-        IMultiblockPart<Controller> theChosenOne = null;
+    /**
+     * Drop the saved-data entry of the reference coordinate this controller had before its reference part was detached.
+     * The state stored there (if any) is stale now that a new reference part is tracking the controller
+     */
+    private void forgetDetachedReferenceCoord() {
 
-        this._referenceCoord = null;
+        final BlockPos oldCoord = this._detachedReferenceCoord;
+        final World world = this.getWorld();
 
-        for (final IMultiblockPart<Controller> part : this._connectedParts) {
+        this._detachedReferenceCoord = null;
 
-            final BlockPos position = part.getWorldPosition();
+        if (null != oldCoord && world instanceof ServerWorld && !oldCoord.equals(this._referenceCoord)) {
+            MultiblockSavedData.getIfPresent((ServerWorld)world).ifPresent(savedData -> savedData.remove(oldCoord));
+        }
+    }
 
-            if (part.isPartInvalid() || !myWorld.isBlockLoaded(position)) {
-                // Chunk is unloading, skip this coord to prevent chunk thrashing
-                continue;
-            }
+    /**
+     * Link this controller to its state in the world saved-data, if it use it
+     */
+    private void trackInSavedData() {
 
-            if (null == this._referenceCoord || this._referenceCoord.compareTo(position) > 0) {
+        final World world = this.getWorld();
 
-                this._referenceCoord = position;
-                theChosenOne = part;
-            }
+        if (this.isPersistedInWorldSavedData() && world instanceof ServerWorld) {
+            this.getReferenceCoord().ifPresent(coord -> MultiblockSavedData.get((ServerWorld)world).track(coord, this));
         }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void selectNewReferenceCoord() {
+
+        final World myWorld = this.getWorld();
+        // skip the parts in unloading chunks to prevent chunk thrashing
+        final IMultiblockPart<Controller> theChosenOne = this._partsIndex.findFirst(part -> !part.isPartInvalid() &&
+                myWorld.isBlockLoaded(part.getWorldPosition()));
 
         if (null != theChosenOne) {
+
+            this._referenceCoord = theChosenOne.getWorldPosition();
             theChosenOne.becomeMultiblockSaveDelegate();
+            this.forgetDetachedReferenceCoord();
+
+        } else {
+
+            this._referenceCoord = null;
         }
     }
 
+    /**
+     * Update the minimum and maximum coordinates from the positions index
+     */
+    private void updateBoundingBox() {
+
+        this._minimumCoord = this._partsIndex.getMinimumCoord();
+        this._maximumCoord = this._partsIndex.getMaximumCoord();
+    }
+
     /**
      * Callback whenever a part is removed (or will very shortly be removed) from a controller.
-     * Do housekeeping/callbacks, also nulls min/max coords.
+     * Do housekeeping/callbacks, also update min/max coords.
      * @param part The part being removed.
      */
     private void onDetachPart(final IMultiblockPart<Controller> part) {
@@ -1433,9 +1647,13 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         this.onPartRemoved(part);
         part.forfeitMultiblockSaveDelegate();
 
-        this._minimumCoord = this._maximumCoord = null;
+        if (this._partsIndex.remove(part.getWorldPosition(), part)) {
+            this.updateBoundingBox();
+        }
 
         if (null != this._referenceCoord && this._referenceCoord.equals(part.getWorldPosition())) {
+
+            this._detachedReferenceCoord = this._referenceCoord;
             this._referenceCoord = null;
         }
 
@@ -1461,6 +1679,9 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
         }
 
         this._connectedParts.clear();
+        this._partsIndex.clear();
+        this._validationFingerprint.invalidate();
+        this.updateBoundingBox();
     }
 
     /**
@@ -1509,6 +1730,11 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      * Marks the whole multiblock for a render update on the client. On the server, this does nothing
      */
 	protected void markMultiblockForRenderUpdate() {
+
+        if (null != this._performanceCounters) {
+            this._performanceCounters.recordRenderRebuild();
+        }
+
 	    this.forBoundingBoxCoordinates(WorldHelper::markBlockRangeForRenderUpdate);
 	}
 
@@ -1540,6 +1766,7 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
     private void raiseDataUpdated() {
 
         this.DataUpdated.raise(Runnable::run);
+        this.PersistentDataUpdated.raise(Runnable::run);
         this._requestDataUpdateNotification = false;
     }
 
@@ -1553,6 +1780,16 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
     private Set<IMultiblockPart<Controller>> _connectedParts;
     private Set<IMultiblockPart<Controller>> _connectedPartsUnmodifiable;
 
+    /**
+     * The positions of the connected parts, used to track the bounding box and the reference coordinate
+     */
+    private final PartPositionIndex<IMultiblockPart<Controller>> _partsIndex;
+
+    /**
+     * The last valid structure of this machine
+     */
+    private final ValidationFingerprint _validationFingerprint;
+
     /**
      * Machine state
      */
@@ -1571,6 +1808,11 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      */
     private BlockPos _referenceCoord;
 
+    /**
+     * The reference coordinate this controller had before its reference part was detached, if any
+     */
+    private BlockPos _detachedReferenceCoord;
+
     /**
      * Minimum bounding box coordinate. Blocks do not necessarily exist at this coord if your machine
      * is not a cube/rectangular prism.
@@ -1593,8 +1835,17 @@ public abstract class AbstractMultiblockController<Controller extends AbstractMu
      */
     private ValidationError _lastValidationError;
 
-    private final INetworkTileEntitySyncProvider _syncProvider;
+    private final NetworkTileEntitySyncProvider _syncProvider;
     private boolean _requestDataUpdateNotification;
+    private PerformanceCounters _performanceCounters;
+
+    /**
+     * The world actions deferred while running an isolated update
+     */
+    private final List<Runnable> _deferredWorldActions;
+    private boolean _isolatedUpdateRunning;
+    private volatile Thread _isolatedUpdateThread;
+    private boolean _isolatedUpdateChangedData;
 
     //private boolean _clientValidationRequested;
 
@@ -49,11 +49,13 @@ import it.zerono.mods.zerocore.lib.IDebugMessages;
 import it.zerono.mods.zerocore.lib.IDebuggable;
 import it.zerono.mods.zerocore.lib.block.AbstractModBlockEntity;
 import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockRegistry;
+import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockSavedData;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.fml.LogicalSide;
 
 import java.util.Collections;
@@ -81,6 +83,7 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
 		this._controller = null;
         this._visited = this._saveMultiblockData = false;
         this._cachedMultiblockData = null;
+        this._hasSavedDataReference = false;
 	}
 
 	public World getPartWorldOrFail() {
@@ -251,11 +254,22 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
 
     @Override
     public void becomeMultiblockSaveDelegate() {
+
         this._saveMultiblockData = true;
+        this.forSavedData(savedData -> this.getMultiblockController()
+                .ifPresent(c -> savedData.track(this.getWorldPosition(), c)));
     }
 
     @Override
     public void forfeitMultiblockSaveDelegate() {
+
+        final World world = this.getWorld();
+
+        if (this._saveMultiblockData && world instanceof ServerWorld) {
+            // the controller state will be tracked at the new reference coordinate
+            MultiblockSavedData.getIfPresent((ServerWorld)world).ifPresent(savedData -> savedData.forget(this.getWorldPosition()));
+        }
+
         this._saveMultiblockData = false;
     }
 
@@ -329,22 +343,30 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
 
     @Override
     public boolean hasMultiblockSaveData() {
+
+        this.resolveSavedDataReference();
         return null != this._cachedMultiblockData;
     }
 
     @Override
     public Optional<CompoundNBT> getMultiblockSaveData() {
+
+        this.resolveSavedDataReference();
         return Optional.ofNullable(this._cachedMultiblockData);
     }
 
     @Override
     public <T> T mapMultiblockSaveData(final Function<CompoundNBT, T> mapper, final T defaultValue) {
+
+        this.resolveSavedDataReference();
         return null != this._cachedMultiblockData ? mapper.apply(this._cachedMultiblockData) : defaultValue;
     }
 
     @Override
     public void forMultiblockSaveData(final Consumer<CompoundNBT> consumer) {
 
+        this.resolveSavedDataReference();
+
         if (null != this._cachedMultiblockData) {
             consumer.accept(this._cachedMultiblockData);
         }
@@ -384,7 +406,14 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
 	@Override
 	public void syncDataFrom(CompoundNBT data, SyncReason syncReason) {
 
-        if (data.contains("multiblockData")) {
+        if (SyncReason.FullSync == syncReason && data.contains("multiblockDataRef")) {
+
+            // The controller state is stored in the world saved-data but the world is not available yet:
+            // the data will be retrieved when the controller will ask for it
+            this._cachedMultiblockData = null;
+            this._hasSavedDataReference = true;
+
+        } else if (data.contains("multiblockData")) {
 
             final CompoundNBT multiblockData = data.getCompound("multiblockData");
 
@@ -412,8 +441,21 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
     public CompoundNBT syncDataTo(CompoundNBT data, SyncReason syncReason) {
 
         if (this.isMultiblockSaveDelegate()) {
-            this.getMultiblockController()
-                    .ifPresent(c -> data.put("multiblockData", c.syncDataTo(new CompoundNBT(), syncReason)));
+            this.getMultiblockController().ifPresent(c -> {
+
+                final World world = this.getWorld();
+
+                if (SyncReason.FullSync == syncReason && c.isPersistedInWorldSavedData() && world instanceof ServerWorld &&
+                        MultiblockSavedData.get((ServerWorld)world).isWritten(this.getWorldPosition())) {
+
+                    // the controller state is already on disk, only store a reference to it
+                    data.putBoolean("multiblockDataRef", true);
+
+                } else {
+
+                    data.put("multiblockData", c.syncDataTo(new CompoundNBT(), syncReason));
+                }
+            });
         }
 
 		return data;
@@ -463,6 +505,7 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
     public void remove() {
 
         super.remove();
+        this.forSavedData(savedData -> savedData.remove(this.getWorldPosition()));
         this.detachSelf(false);
     }
 
@@ -470,6 +513,7 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
     public void onChunkUnloaded() {
 
         super.onChunkUnloaded();
+        this.forSavedData(savedData -> savedData.untrack(this.getWorldPosition()));
         this.detachSelf(true);
     }
 
@@ -517,6 +561,36 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
 			controller.markMultiblockForRenderUpdate();
 	}*/
 
+    /**
+     * If this part is the save-delegate of a controller that store it's state in the world saved-data,
+     * run the given action on the saved-data
+     */
+    private void forSavedData(final Consumer<MultiblockSavedData> action) {
+
+        final World world = this.getWorld();
+
+        if (this.isMultiblockSaveDelegate() && world instanceof ServerWorld &&
+                this.getMultiblockController().map(IMultiblockController::isPersistedInWorldSavedData).orElse(false)) {
+            action.accept(MultiblockSavedData.get((ServerWorld)world));
+        }
+    }
+
+    private void resolveSavedDataReference() {
+
+        if (this._hasSavedDataReference) {
+
+            final World world = this.getWorld();
+
+            if (world instanceof ServerWorld) {
+
+                this._hasSavedDataReference = false;
+                this._cachedMultiblockData = MultiblockSavedData.get((ServerWorld)world)
+                        .getData(this.getWorldPosition())
+                        .orElse(null);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private IMultiblockRegistry<Controller> getRegistry() {
         return (IMultiblockRegistry<Controller>) MultiblockRegistry.INSTANCE;
@@ -526,6 +600,7 @@ public abstract class AbstractMultiblockPart<Controller extends IMultiblockContr
     private boolean _visited;
     private boolean _saveMultiblockData;
     private CompoundNBT _cachedMultiblockData;
+    private boolean _hasSavedDataReference;
 
     //endregion
 }
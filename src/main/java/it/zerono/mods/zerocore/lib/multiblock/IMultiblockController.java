@@ -42,6 +42,7 @@
 package it.zerono.mods.zerocore.lib.multiblock;
 
 import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
+import it.zerono.mods.zerocore.lib.multiblock.registry.MultiblockSavedData;
 import it.zerono.mods.zerocore.lib.multiblock.validation.IMultiblockValidator;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.world.World;
@@ -198,6 +199,36 @@ public interface IMultiblockController<Controller extends IMultiblockController<
      */
     void updateMultiblockEntity();
 
+    /**
+     * An isolated controller only touch its own state (its internal data and buffers) while it's being updated so it
+     * could be updated, on the server, in parallel with other isolated controllers.
+     * Isolated controllers are updated in parallel only if the parallel updates are enabled in the registry.
+     *
+     * The isolated part of the update runs on a worker thread while the main thread wait for it: accessing the World
+     * or any TileEntity (including the parts of the machine: getting them from the world, marking them as dirty,
+     * notifying block updates, etc) is forbidden and will deadlock the server.
+     * Every interaction with the World must be deferred to the commit phase that will run on the main thread.
+     *
+     * @return true if this controller is isolated, false otherwise
+     */
+    default boolean isUpdateIsolated() {
+        return false;
+    }
+
+    /**
+     * Run the isolated part of the update loop. This could be called from a worker thread.
+     * The update will be completed, on the main thread, by {@link #commitIsolatedUpdate()}
+     */
+    default void updateMultiblockEntityIsolated() {
+    }
+
+    /**
+     * Complete, on the main thread, an update started by {@link #updateMultiblockEntityIsolated()}
+     */
+    default void commitIsolatedUpdate() {
+        this.updateMultiblockEntity();
+    }
+
     //endregion
     //region Miscellanea
 
@@ -209,5 +240,16 @@ public interface IMultiblockController<Controller extends IMultiblockController<
 
     void forceStructureUpdate(World world);
 
+    /**
+     * Check if the state of this controller is stored in the world saved-data (see {@link MultiblockSavedData})
+     * instead of being stored in the chunk of the save-delegate part.
+     * Controllers saved with the old layout are migrated automatically the next time they are saved.
+     *
+     * @return true to store the state of this controller in the world saved-data, false otherwise
+     */
+    default boolean isPersistedInWorldSavedData() {
+        return false;
+    }
+
     //endregion
 }
@@ -0,0 +1,196 @@
+/*
+ *
+ * PartPositionIndex.java
+ *
+ * A multiblock library for making irregularly-shaped multiblock machines
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * Original author: Erogenous Beef
+ * https://github.com/erogenousbeef/BeefCore
+ *
+ * Minecraft 1.9+ port and further development: ZeroNoRyouki
+ * https://github.com/ZeroNoRyouki/ZeroCore2
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 "ZeroNoRyouki"
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.multiblock;
+
+import it.unimi.dsi.fastutil.ints.Int2IntRBTreeMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.objects.ObjectBidirectionalIterator;
+import net.minecraft.util.math.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keep track of the positions of the parts of a multiblock controller.
+ *
+ * The parts are indexed by their position (in {@link BlockPos} natural order, the same used to pick the reference
+ * coordinate of a controller) and each axis keep a count of the parts lying on every coordinate so that the bounding
+ * box of the parts could be computed without scanning them all.
+ * Adding or removing a part cost O(log n).
+ *
+ * @param <Part> the type of the indexed parts
+ */
+final class PartPositionIndex<Part> {
+
+    PartPositionIndex() {
+
+        this._parts = new Object2ObjectRBTreeMap<>();
+        this._xCounts = new Int2IntRBTreeMap();
+        this._yCounts = new Int2IntRBTreeMap();
+        this._zCounts = new Int2IntRBTreeMap();
+    }
+
+    /**
+     * Add a part to the index.
+     * If another part was already indexed at the same position, it will be replaced by the new one
+     *
+     * @param position the position of the part
+     * @param part the part to add
+     */
+    void add(final BlockPos position, final Part part) {
+
+        if (null == this._parts.put(position, part)) {
+
+            increment(this._xCounts, position.getX());
+            increment(this._yCounts, position.getY());
+            increment(this._zCounts, position.getZ());
+        }
+    }
+
+    /**
+     * Remove a part from the index.
+     * Nothing is done if the part is not the one indexed at the given position
+     *
+     * @param position the position of the part
+     * @param part the part to remove
+     * @return true if the part was removed, false otherwise
+     */
+    boolean remove(final BlockPos position, final Part part) {
+
+        if (part != this._parts.get(position)) {
+            return false;
+        }
+
+        this._parts.remove(position);
+        decrement(this._xCounts, position.getX());
+        decrement(this._yCounts, position.getY());
+        decrement(this._zCounts, position.getZ());
+        return true;
+    }
+
+    void clear() {
+
+        this._parts.clear();
+        this._xCounts.clear();
+        this._yCounts.clear();
+        this._zCounts.clear();
+    }
+
+    boolean isEmpty() {
+        return this._parts.isEmpty();
+    }
+
+    int size() {
+        return this._parts.size();
+    }
+
+    void forEachPosition(final Consumer<BlockPos> consumer) {
+        this._parts.keySet().forEach(consumer);
+    }
+
+    /**
+     * @return the minimum bounding box coordinate of the indexed parts or null if the index is empty
+     */
+    @Nullable
+    BlockPos getMinimumCoord() {
+        return this.isEmpty() ? null :
+                new BlockPos(this._xCounts.firstIntKey(), this._yCounts.firstIntKey(), this._zCounts.firstIntKey());
+    }
+
+    /**
+     * @return the maximum bounding box coordinate of the indexed parts or null if the index is empty
+     */
+    @Nullable
+    BlockPos getMaximumCoord() {
+        return this.isEmpty() ? null :
+                new BlockPos(this._xCounts.lastIntKey(), this._yCounts.lastIntKey(), this._zCounts.lastIntKey());
+    }
+
+    /**
+     * Find the indexed part with the lowest position that match the given filter
+     *
+     * @param filter the filter to apply to the parts
+     * @return the part found or null if no parts match the filter
+     */
+    @Nullable
+    Part findFirst(final Predicate<Part> filter) {
+
+        final ObjectBidirectionalIterator<Map.Entry<BlockPos, Part>> iterator = this._parts.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+
+            final Part part = iterator.next().getValue();
+
+            if (filter.test(part)) {
+                return part;
+            }
+        }
+
+        return null;
+    }
+
+    //region internals
+
+    private static void increment(final Int2IntRBTreeMap counts, final int coord) {
+        counts.put(coord, counts.get(coord) + 1);
+    }
+
+    private static void decrement(final Int2IntRBTreeMap counts, final int coord) {
+
+        final int count = counts.get(coord) - 1;
+
+        if (count > 0) {
+            counts.put(coord, count);
+        } else {
+            counts.remove(coord);
+        }
+    }
+
+    private final Object2ObjectRBTreeMap<BlockPos, Part> _parts;
+    private final Int2IntRBTreeMap _xCounts;
+    private final Int2IntRBTreeMap _yCounts;
+    private final Int2IntRBTreeMap _zCounts;
+
+    //endregion
+}
@@ -0,0 +1,262 @@
+/*
+ *
+ * ValidationFingerprint.java
+ *
+ * A multiblock library for making irregularly-shaped multiblock machines
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * Original author: Erogenous Beef
+ * https://github.com/erogenousbeef/BeefCore
+ *
+ * Minecraft 1.9+ port and further development: ZeroNoRyouki
+ * https://github.com/ZeroNoRyouki/ZeroCore2
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 "ZeroNoRyouki"
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.multiblock;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A compact description of the last valid structure of a multiblock controller.
+ *
+ * The fingerprint store the bounding box of the structure, the number of its parts and the block state of every part.
+ * While the fingerprint is valid, the block changes happening inside the bounding box are collected from the
+ * world block-change events (see {@link BlockEvent.NeighborNotifyEvent}) so that only the changed positions need to
+ * be checked again: if all of them are parts positions that got back the same block state they had when the
+ * fingerprint was captured, the structure is the same one that was found valid before.
+ *
+ * Block changes that do not notify their neighbors (and changes to the data of the tile entities) are not tracked.
+ * The block-change events are only raised on the logical server: fingerprints are never captured for a client world
+ * and a structure in a client world is always validated again
+ */
+final class ValidationFingerprint {
+
+    ValidationFingerprint() {
+
+        this._partStates = new Long2IntOpenHashMap();
+        this._partStates.defaultReturnValue(-1);
+        this._changedPositions = new LongOpenHashSet();
+        this._world = null;
+        this._minimumCoord = this._maximumCoord = null;
+        this._partsCount = 0;
+        this._overflow = false;
+    }
+
+    /**
+     * Capture the fingerprint of a valid structure. Nothing is captured if the world is a client world
+     *
+     * @param world the World containing the structure
+     * @param minimumCoord the minimum coordinate of the structure bounding box
+     * @param maximumCoord the maximum coordinate of the structure bounding box
+     * @param parts the positions of the parts of the structure
+     */
+    void capture(final World world, final BlockPos minimumCoord, final BlockPos maximumCoord,
+                 final PartPositionIndex<?> parts) {
+
+        this.invalidate();
+
+        if (world.isRemote()) {
+            // the block changes could not be tracked
+            return;
+        }
+
+        this._world = world;
+        this._minimumCoord = minimumCoord;
+        this._maximumCoord = maximumCoord;
+        this._partsCount = parts.size();
+
+        parts.forEachPosition(position -> this._partStates.put(position.toLong(), Block.getStateId(world.getBlockState(position))));
+        this.forEachSection((index, section) -> index.computeIfAbsent(section, k -> newFingerprintsSet()).add(this));
+    }
+
+    /**
+     * Check if the given structure is the same one that was captured
+     *
+     * @param world the World containing the structure
+     * @param minimumCoord the minimum coordinate of the structure bounding box
+     * @param maximumCoord the maximum coordinate of the structure bounding box
+     * @param partsCount the number of parts in the structure
+     * @return true if the structure match the captured one, false otherwise
+     */
+    boolean matches(final World world, @Nullable final BlockPos minimumCoord, @Nullable final BlockPos maximumCoord,
+                    final int partsCount) {
+
+        if (null == this._minimumCoord || this._overflow || this._world != world || this._partsCount != partsCount ||
+                !this._minimumCoord.equals(minimumCoord) || !this._maximumCoord.equals(maximumCoord)) {
+            return false;
+        }
+
+        final LongIterator iterator = this._changedPositions.iterator();
+
+        while (iterator.hasNext()) {
+
+            final long packed = iterator.nextLong();
+            final int capturedState = this._partStates.get(packed);
+
+            // only a part that got back its original block state is acceptable
+            if (-1 == capturedState || capturedState != Block.getStateId(world.getBlockState(BlockPos.fromLong(packed)))) {
+                return false;
+            }
+        }
+
+        // the structure is back to its captured state
+        this._changedPositions.clear();
+        return true;
+    }
+
+    /**
+     * Forget the captured structure
+     */
+    void invalidate() {
+
+        if (null != this._minimumCoord) {
+            this.forEachSection((index, section) -> {
+
+                final Set<ValidationFingerprint> fingerprints = index.get(section);
+
+                if (null != fingerprints) {
+
+                    fingerprints.remove(this);
+
+                    if (fingerprints.isEmpty()) {
+                        index.remove(section);
+                    }
+                }
+            });
+        }
+
+        this._partStates.clear();
+        this._changedPositions.clear();
+        this._world = null;
+        this._minimumCoord = this._maximumCoord = null;
+        this._partsCount = 0;
+        this._overflow = false;
+    }
+
+    //region internals
+
+    private void onBlockChanged(final BlockPos position) {
+
+        if (this._overflow || null == this._minimumCoord ||
+                position.getX() < this._minimumCoord.getX() || position.getX() > this._maximumCoord.getX() ||
+                position.getY() < this._minimumCoord.getY() || position.getY() > this._maximumCoord.getY() ||
+                position.getZ() < this._minimumCoord.getZ() || position.getZ() > this._maximumCoord.getZ()) {
+            return;
+        }
+
+        if (this._changedPositions.size() < MAX_CHANGED_POSITIONS) {
+            this._changedPositions.add(position.toLong());
+        } else {
+            // too many changes, the structure will be validated again
+            this._overflow = true;
+            this._changedPositions.clear();
+        }
+    }
+
+    private void forEachSection(final SectionAction action) {
+
+        final Long2ObjectOpenHashMap<Set<ValidationFingerprint>> index = getWorldIndex(this._world);
+
+        for (int sx = this._minimumCoord.getX() >> 4; sx <= this._maximumCoord.getX() >> 4; ++sx) {
+            for (int sy = this._minimumCoord.getY() >> 4; sy <= this._maximumCoord.getY() >> 4; ++sy) {
+                for (int sz = this._minimumCoord.getZ() >> 4; sz <= this._maximumCoord.getZ() >> 4; ++sz) {
+                    action.accept(index, SectionPos.asLong(sx, sy, sz));
+                }
+            }
+        }
+    }
+
+    private static void onNeighborNotify(final BlockEvent.NeighborNotifyEvent event) {
+
+        final Long2ObjectOpenHashMap<Set<ValidationFingerprint>> index = s_worldIndices.get(event.getWorld());
+
+        if (null == index || index.isEmpty()) {
+            return;
+        }
+
+        final BlockPos position = event.getPos();
+        final Set<ValidationFingerprint> fingerprints = index.get(SectionPos.asLong(position.getX() >> 4,
+                position.getY() >> 4, position.getZ() >> 4));
+
+        if (null != fingerprints) {
+            fingerprints.forEach(fingerprint -> fingerprint.onBlockChanged(position));
+        }
+    }
+
+    private static Long2ObjectOpenHashMap<Set<ValidationFingerprint>> getWorldIndex(final IWorld world) {
+        return s_worldIndices.computeIfAbsent(world, w -> new Long2ObjectOpenHashMap<>());
+    }
+
+    private static Set<ValidationFingerprint> newFingerprintsSet() {
+        // the fingerprints go away with their controllers
+        return Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    @FunctionalInterface
+    private interface SectionAction {
+        void accept(Long2ObjectOpenHashMap<Set<ValidationFingerprint>> index, long section);
+    }
+
+    private static final int MAX_CHANGED_POSITIONS = 256;
+
+    // the fingerprints covering every chunk section, for each world
+    private static final Map<IWorld, Long2ObjectOpenHashMap<Set<ValidationFingerprint>>> s_worldIndices =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    static {
+        MinecraftForge.EVENT_BUS.addListener(ValidationFingerprint::onNeighborNotify);
+    }
+
+    private final Long2IntOpenHashMap _partStates;
+    private final LongOpenHashSet _changedPositions;
+    private World _world;
+    private BlockPos _minimumCoord;
+    private BlockPos _maximumCoord;
+    private int _partsCount;
+    private boolean _overflow;
+
+    //endregion
+}
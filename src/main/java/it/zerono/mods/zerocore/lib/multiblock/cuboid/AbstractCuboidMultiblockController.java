@@ -41,17 +41,20 @@
 
 package it.zerono.mods.zerocore.lib.multiblock.cuboid;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.zerono.mods.zerocore.lib.multiblock.AbstractMultiblockController;
 import it.zerono.mods.zerocore.lib.multiblock.validation.IMultiblockValidator;
 import it.zerono.mods.zerocore.lib.multiblock.validation.ValidationError;
+import it.zerono.mods.zerocore.lib.world.RegionScanner;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraftforge.common.util.Constants;
 
+import javax.annotation.Nullable;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public abstract class AbstractCuboidMultiblockController<Controller extends AbstractCuboidMultiblockController<Controller>>
         extends AbstractMultiblockController<Controller> {
@@ -65,6 +68,23 @@ public abstract class AbstractCuboidMultiblockController<Controller extends Abst
         return this.mapBoundingBoxCoordinates((minPos, maxPos) -> minPos.compareTo(position) < 0 && maxPos.compareTo(position) > 0, false);
     }
 
+    /**
+     * Return a predicate that accept the block states that are always valid inside the machine interior.
+     *
+     * If a predicate is provided, the interior of the machine is scanned in parallel, one chunk section at a time,
+     * and only the blocks rejected by the predicate are then validated on the main thread with
+     * {@link #isBlockGoodForInterior(World, int, int, int, IMultiblockValidator)} or by the part occupying them.
+     *
+     * The predicate will be called from multiple threads so it must be thread-safe and must only look at the
+     * provided BlockState. It must never accept the BlockState of a multiblock part.
+     *
+     * @return the predicate or null to validate every interior block on the main thread
+     */
+    @Nullable
+    protected Predicate<BlockState> getInteriorBlockStatePredicate() {
+        return null;
+    }
+
 	//region AbstractMultiblockController
 
 	/**
@@ -83,6 +103,7 @@ public abstract class AbstractCuboidMultiblockController<Controller extends Abst
         return this.mapBoundingBoxCoordinates((min, max) -> this.isMachineWhole(validatorCallback, min, max), false);
     }
 
+    @SuppressWarnings("deprecation")
     private boolean isMachineWhole(final IMultiblockValidator validatorCallback,
                                    final BlockPos minimumCoord, final BlockPos maximumCoord) {
 
@@ -99,160 +120,215 @@ public abstract class AbstractCuboidMultiblockController<Controller extends Abst
             return false;
         }
 
-		// Now we run a simple check on each block within that volume.
-		// Any block deviating = NO DEAL SIR
+        final Predicate<BlockState> interiorPredicate = this.getInteriorBlockStatePredicate();
 
-		boolean isPartValid;
+        if (null == interiorPredicate || maxX - minX < 2 || maxY - minY < 2 || maxZ - minZ < 2 ||
+                !this.getWorld().isAreaLoaded(minimumCoord, maximumCoord)) {
 
-		for (int x = minX; x <= maxX; x++) {
-			for (int y = minY; y <= maxY; y++) {
-				for (int z = minZ; z <= maxZ; z++) {
+            // Now we run a simple check on each block within that volume.
+            // Any block deviating = NO DEAL SIR
 
-					// Okay, figure out what sort of block this should be.
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        if (!this.validateBlock(validatorCallback, x, y, z, minimumCoord, maximumCoord)) {
+                            return false;
+                        }
+                    }
+                }
+            }
 
-                    final BlockPos partLocation = new BlockPos(x, y, z);
-                    final Optional<AbstractCuboidMultiblockPart<Controller>> part = this.getCuboidPartFromWorld(partLocation);
-                    final AbstractCuboidMultiblockPart<Controller> cuboidPart;
-                    final boolean isCuboidMultiblockPart;
+            return true;
+        }
 
-                    if (part.isPresent()) {
+        // Check the frame and the external faces first...
 
-                        isCuboidMultiblockPart = true;
-                        cuboidPart = part.get();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
 
-                        // Ensure this part should actually be allowed within a cube of this controller's type
-                        if (!cuboidPart.getMultiblockController().map(this::isControllerCompatible).orElse(false)) {
+                final boolean onFace = x == minX || x == maxX || y == minY || y == maxY;
+                final int zStep = onFace ? 1 : maxZ - minZ;
 
-                            validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part");
-                            return false;
-                        }
+                for (int z = minZ; z <= maxZ; z += zStep) {
+                    if (!this.validateBlock(validatorCallback, x, y, z, minimumCoord, maximumCoord)) {
+                        return false;
+                    }
+                }
+            }
+        }
 
-                        if (!this.containsPart(cuboidPart)) {
+        // ... then scan the interior in parallel looking for the blocks rejected by the predicate
+        // and validate only those, as usual, on this thread
 
-                            validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_foreign_part");
-                            return false;
-                        }
+        final LongArrayList candidates = RegionScanner.scan(this.getWorld(), minimumCoord.add(1, 1, 1),
+                maximumCoord.add(-1, -1, -1), interiorPredicate.negate(), true);
 
-                    } else {
+        for (int i = 0; i < candidates.size(); ++i) {
 
-                        // This is permitted so that we can incorporate certain non-multiblock parts inside interiors
-                        isCuboidMultiblockPart = false;
-                        cuboidPart = null;
-                    }
+            final long packed = candidates.getLong(i);
+
+            if (!this.validateBlock(validatorCallback, BlockPos.unpackX(packed), BlockPos.unpackY(packed),
+                    BlockPos.unpackZ(packed), minimumCoord, maximumCoord)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean validateBlock(final IMultiblockValidator validatorCallback, final int x, final int y, final int z,
+                                           final BlockPos minimumCoord, final BlockPos maximumCoord) {
+
+        final int minX = minimumCoord.getX();
+        final int minY = minimumCoord.getY();
+        final int minZ = minimumCoord.getZ();
+        final int maxX = maximumCoord.getX();
+        final int maxY = maximumCoord.getY();
+        final int maxZ = maximumCoord.getZ();
+        boolean isPartValid;
+
+        // Okay, figure out what sort of block this should be.
+
+        final BlockPos partLocation = new BlockPos(x, y, z);
+        final Optional<AbstractCuboidMultiblockPart<Controller>> part = this.getCuboidPartFromWorld(partLocation);
+        final AbstractCuboidMultiblockPart<Controller> cuboidPart;
+        final boolean isCuboidMultiblockPart;
+
+        if (part.isPresent()) {
+
+            isCuboidMultiblockPart = true;
+            cuboidPart = part.get();
+
+            // Ensure this part should actually be allowed within a cube of this controller's type
+            if (!cuboidPart.getMultiblockController().map(this::isControllerCompatible).orElse(false)) {
 
-					// Validate block type against both part-level and material-level validators.
+                validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part");
+                return false;
+            }
 
-                    final PartPosition position = PartPosition.positionIn(this.castSelf(), partLocation);
-					int extremes = 0;
+            if (!this.containsPart(cuboidPart)) {
 
-					if (x == minX) {
-					    ++extremes;
-					}
+                validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_foreign_part");
+                return false;
+            }
 
-					if (y == minY) {
-					    ++extremes;
-					}
+        } else {
 
-					if (z == minZ) {
-					    ++extremes;
-					}
-					
-					if (x == maxX) {
-					    ++extremes;
-					}
+            // This is permitted so that we can incorporate certain non-multiblock parts inside interiors
+            isCuboidMultiblockPart = false;
+            cuboidPart = null;
+        }
 
-					if (y == maxY) {
-					    ++extremes;
-					}
+        // Validate block type against both part-level and material-level validators.
 
-					if (z == maxZ) {
-					    ++extremes;
-					}
+        final PartPosition position = PartPosition.positionIn(this.castSelf(), partLocation);
+        int extremes = 0;
 
-					if (extremes >= 2) {
+        if (x == minX) {
+            ++extremes;
+        }
 
-						isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
-                                this.isBlockGoodForFrame(this.getWorld(), x, y, z, validatorCallback);
+        if (y == minY) {
+            ++extremes;
+        }
 
-						if (!isPartValid) {
+        if (z == minZ) {
+            ++extremes;
+        }
 
-							if (!validatorCallback.getLastError().isPresent()) {
-                                validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_frame");
-                            }
+        if (x == maxX) {
+            ++extremes;
+        }
 
-							return false;
-						}
+        if (y == maxY) {
+            ++extremes;
+        }
 
-					} else if (1 == extremes) {
+        if (z == maxZ) {
+            ++extremes;
+        }
 
-						if (y == maxY) {
+        if (extremes >= 2) {
 
-							isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
-                                    this.isBlockGoodForTop(this.getWorld(), x, y, z, validatorCallback);
+            isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
+                    this.isBlockGoodForFrame(this.getWorld(), x, y, z, validatorCallback);
 
-							if (!isPartValid) {
+            if (!isPartValid) {
 
-                                if (!validatorCallback.getLastError().isPresent()) {
-                                    validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_top");
-                                }
+                if (!validatorCallback.getLastError().isPresent()) {
+                    validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_frame");
+                }
 
-								return false;
-							}
+                return false;
+            }
 
-						} else if (y == minY) {
+        } else if (1 == extremes) {
 
-							isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
-                                    this.isBlockGoodForBottom(this.getWorld(), x, y, z, validatorCallback);
+            if (y == maxY) {
 
-							if (!isPartValid) {
+                isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
+                        this.isBlockGoodForTop(this.getWorld(), x, y, z, validatorCallback);
 
-                                if (!validatorCallback.getLastError().isPresent()) {
-                                    validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_bottom");
-                                }
+                if (!isPartValid) {
 
-								return false;
-							}
+                    if (!validatorCallback.getLastError().isPresent()) {
+                        validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_top");
+                    }
 
-						} else {
+                    return false;
+                }
 
-							// Side
-							isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
-                                    this.isBlockGoodForSides(this.getWorld(), x, y, z, validatorCallback);
+            } else if (y == minY) {
 
-							if (!isPartValid) {
+                isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
+                        this.isBlockGoodForBottom(this.getWorld(), x, y, z, validatorCallback);
 
-                                if (!validatorCallback.getLastError().isPresent()) {
-                                    validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_sides");
-                                }
+                if (!isPartValid) {
 
-								return false;
-							}
-						}
+                    if (!validatorCallback.getLastError().isPresent()) {
+                        validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_bottom");
+                    }
 
-					} else {
+                    return false;
+                }
 
-						isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
-                                this.isBlockGoodForInterior(this.getWorld(), x, y, z, validatorCallback);
+            } else {
 
-						if (!isPartValid) {
+                // Side
+                isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
+                        this.isBlockGoodForSides(this.getWorld(), x, y, z, validatorCallback);
 
-                            if (!validatorCallback.getLastError().isPresent()) {
-                                validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_interior");
-                            }
+                if (!isPartValid) {
 
-							return false;
-						}
-					}
-				}
-			}
-		}
+                    if (!validatorCallback.getLastError().isPresent()) {
+                        validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_sides");
+                    }
 
-		return true;
-	}
+                    return false;
+                }
+            }
+
+        } else {
+
+            isPartValid = isCuboidMultiblockPart ? cuboidPart.isGoodForPosition(position, validatorCallback) :
+                    this.isBlockGoodForInterior(this.getWorld(), x, y, z, validatorCallback);
+
+            if (!isPartValid) {
+
+                if (!validatorCallback.getLastError().isPresent()) {
+                    validatorCallback.setLastError(partLocation, "zerocore:api.multiblock.validation.invalid_part_for_interior");
+                }
+
+                return false;
+            }
+        }
+
+        return true;
+    }
 
 	@Override
 	public void forceStructureUpdate(final World world) {
-	    this.forBoundingBoxCoordinates((min, max) -> forceStructureUpdate(world, min, max));
+	    this.forBoundingBoxCoordinates((min, max) -> WorldHelper.notifyBlockRangeUpdate(world, min, max));
 	}
 
 	//endregion
@@ -287,27 +363,5 @@ public abstract class AbstractCuboidMultiblockController<Controller extends Abst
                 .map(te -> (AbstractCuboidMultiblockPart<Controller>)te);
     }
 
-    private static void forceStructureUpdate(final World world, final BlockPos minCoord, final BlockPos maxCoord) {
-
-        final int minX = minCoord.getX();
-        final int minY = minCoord.getY();
-        final int minZ = minCoord.getZ();
-        final int maxX = maxCoord.getX();
-        final int maxY = maxCoord.getY();
-        final int maxZ = maxCoord.getZ();
-
-        for (int x = minX; x <= maxX; ++x) {
-            for (int y = minY; y <= maxY; ++y) {
-                for (int z = minZ; z <= maxZ; ++z) {
-
-                    final BlockPos pos = new BlockPos(x, y, z);
-                    final BlockState state = world.getBlockState(pos);
-
-                    world.notifyBlockUpdate(pos, state, state, Constants.BlockFlags.DEFAULT);
-                }
-            }
-        }
-    }
-
     //endregion
 }
@@ -45,12 +45,10 @@ import it.zerono.mods.zerocore.lib.multiblock.AbstractMultiblockController;
 import it.zerono.mods.zerocore.lib.multiblock.validation.IMultiblockValidator;
 import it.zerono.mods.zerocore.lib.multiblock.validation.ValidationError;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
-import net.minecraft.block.BlockState;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.vector.Vector3i;
 import net.minecraft.world.World;
-import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
 import java.util.Optional;
@@ -180,7 +178,7 @@ public abstract class AbstractRectangularMultiblockController<Controller extends
 
     @Override
     public void forceStructureUpdate(final World world) {
-        this.forBoundingBoxCoordinates((min, max) -> forceStructureUpdate(world, min, max));
+        this.forBoundingBoxCoordinates((min, max) -> WorldHelper.notifyBlockRangeUpdate(world, min, max));
     }
 
     //endregion
@@ -305,27 +303,5 @@ public abstract class AbstractRectangularMultiblockController<Controller extends
                 .map(te -> (AbstractRectangularMultiblockPart<Controller>)te);
     }
 
-    private static void forceStructureUpdate(final World world, final BlockPos minCoord, final BlockPos maxCoord) {
-
-        final int minX = minCoord.getX();
-        final int minY = minCoord.getY();
-        final int minZ = minCoord.getZ();
-        final int maxX = maxCoord.getX();
-        final int maxY = maxCoord.getY();
-        final int maxZ = maxCoord.getZ();
-
-        for (int x = minX; x <= maxX; ++x) {
-            for (int y = minY; y <= maxY; ++y) {
-                for (int z = minZ; z <= maxZ; ++z) {
-
-                    final BlockPos pos = new BlockPos(x, y, z);
-                    final BlockState state = world.getBlockState(pos);
-
-                    world.notifyBlockUpdate(pos, state, state, Constants.BlockFlags.DEFAULT);
-                }
-            }
-        }
-    }
-
     //endregion
 }
@@ -41,6 +41,8 @@
 
 package it.zerono.mods.zerocore.lib.multiblock.registry;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import it.zerono.mods.zerocore.internal.Log;
 import it.zerono.mods.zerocore.lib.CodeHelper;
@@ -61,6 +63,7 @@ import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.DistExecutor;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -71,6 +74,61 @@ public final class MultiblockRegistry<Controller extends IMultiblockController<C
     @SuppressWarnings("rawtypes")
     public static final IMultiblockRegistry INSTANCE = new MultiblockRegistry();
 
+    /**
+     * Enable or disable the parallel update of the isolated controllers (see {@link IMultiblockController#isUpdateIsolated()})
+     * The parallel updates are disabled by default
+     *
+     * @param enabled true to enable the parallel updates, false to disable them
+     */
+    public static void setParallelUpdatesEnabled(final boolean enabled) {
+        s_parallelUpdates = enabled;
+    }
+
+    public static boolean isParallelUpdatesEnabled() {
+        return s_parallelUpdates;
+    }
+
+    /**
+     * Set the maximum average update time of a controller. A controller that exceed it will be throttled and updated
+     * only once every given number of ticks until its average update time fall below half the budget.
+     * The throttling is disabled by default: a throttled controller is not told how many ticks were skipped so it's up
+     * to the server operators to enable it (with the zerocore multiblock throttling command)
+     *
+     * @param budget the maximum average update time, in nanoseconds, of a controller. Use 0 to disable the throttling
+     * @param interval the number of ticks between the updates of a throttled controller
+     */
+    public static void setUpdateThrottling(final long budget, final int interval) {
+
+        Preconditions.checkArgument(budget >= 0, "The update budget must not be negative");
+        Preconditions.checkArgument(interval > 0, "The update interval of a throttled controller must be positive");
+
+        s_updateBudget = budget;
+        s_throttledUpdateInterval = interval;
+    }
+
+    /**
+     * @return the maximum average update time, in nanoseconds, of a controller or 0 if the throttling is disabled
+     */
+    public static long getUpdateBudget() {
+        return s_updateBudget;
+    }
+
+    public static int getThrottledUpdateInterval() {
+        return s_throttledUpdateInterval;
+    }
+
+    /**
+     * @return a description of every controller that is currently throttled, in every world
+     */
+    public static List<String> getThrottledControllers() {
+
+        final List<String> descriptions = Lists.newArrayList();
+
+        ((MultiblockRegistry<?>)INSTANCE)._registries.values()
+                .forEach(registry -> registry.describeThrottledControllers(descriptions));
+        return descriptions;
+    }
+
     //region IMultiblockRegistry
 
     /**
@@ -156,7 +214,7 @@ public final class MultiblockRegistry<Controller extends IMultiblockController<C
         this.forRegistry(world, registry -> {
 
             registry.processMultiblockChanges();
-            registry.tickStart();
+            registry.tickStart(s_parallelUpdates);
         });
 
         world.getProfiler().endSection();
@@ -254,6 +312,10 @@ public final class MultiblockRegistry<Controller extends IMultiblockController<C
 
     //endregion
 
+    private static volatile boolean s_parallelUpdates = false;
+    private static volatile long s_updateBudget = 0;
+    private static volatile int s_throttledUpdateInterval = 10;
+
     private final Map<IWorld, MultiblockWorldRegistry<Controller>> _registries;
 
     //endregion
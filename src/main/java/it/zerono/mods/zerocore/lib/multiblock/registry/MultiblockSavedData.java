@@ -0,0 +1,315 @@
+/*
+ *
+ * MultiblockSavedData.java
+ *
+ * A multiblock library for making irregularly-shaped multiblock machines
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * Original author: Erogenous Beef
+ * https://github.com/erogenousbeef/BeefCore
+ *
+ * Minecraft 1.9+ port and further development: ZeroNoRyouki
+ * https://github.com/ZeroNoRyouki/ZeroCore2
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 "ZeroNoRyouki"
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.multiblock.registry;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
+import it.zerono.mods.zerocore.lib.multiblock.IMultiblockController;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Store the state of the multiblock controllers of a world outside of the chunks containing their save-delegate part.
+ *
+ * The data of each controller is keyed by the controller reference coordinate (the position of the save-delegate part)
+ * and it's kept in binary form: a controller is serialized again only if it was marked as dirty since the last save,
+ * otherwise the previously serialized data is written back to disk as is.
+ *
+ * Controllers must opt-in this storage by overriding {@link IMultiblockController#isPersistedInWorldSavedData()}
+ */
+public class MultiblockSavedData
+        extends WorldSavedData {
+
+    public static final String NAME = "zerocore_multiblocks";
+
+    public static MultiblockSavedData get(final ServerWorld world) {
+        return world.getSavedData().getOrCreate(MultiblockSavedData::new, NAME);
+    }
+
+    /**
+     * Get the saved-data of the given world, without creating it if it does not exist yet
+     *
+     * @param world the world
+     * @return the saved-data, if any
+     */
+    public static Optional<MultiblockSavedData> getIfPresent(final ServerWorld world) {
+        return Optional.ofNullable(world.getSavedData().get(MultiblockSavedData::new, NAME));
+    }
+
+    public MultiblockSavedData() {
+
+        super(NAME);
+        this._entries = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Link a live controller to the given reference coordinate. The state of the controller will be saved with the world
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     * @param controller the controller
+     */
+    public void track(final BlockPos referenceCoord, final IMultiblockController<?> controller) {
+
+        final Entry entry = this._entries.computeIfAbsent(referenceCoord.toLong(), key -> new Entry());
+
+        if (entry._controller != controller) {
+
+            entry._controller = controller;
+            entry._dirty = true;
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Serialize the state of the controller linked to the given reference coordinate now, and stop tracking it.
+     * Call this when the controller is about to be unloaded
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     */
+    public void untrack(final BlockPos referenceCoord) {
+
+        final Entry entry = this._entries.get(referenceCoord.toLong());
+
+        if (null != entry && null != entry._controller) {
+
+            entry.serialize();
+            entry._controller = null;
+            // the new data must reach the disk with the next save
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Check if the state of the controller linked to the given reference coordinate was written to disk at least once.
+     * Until then, the save-delegate part must keep storing the controller state in its own chunk
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     * @return true if the saved-data contains the controller state, false otherwise
+     */
+    public boolean isWritten(final BlockPos referenceCoord) {
+
+        final Entry entry = this._entries.get(referenceCoord.toLong());
+
+        return null != entry && entry._written;
+    }
+
+    /**
+     * Remove the data stored for the given reference coordinate if it is still linked to a live controller.
+     * Call this when the reference coordinate of the controller is moved elsewhere: the data of a controller that was
+     * unloaded (see {@link #untrack(BlockPos)}) is kept until its parts are loaded again
+     *
+     * @param referenceCoord the old reference coordinate of the controller
+     */
+    public void forget(final BlockPos referenceCoord) {
+
+        final Entry entry = this._entries.get(referenceCoord.toLong());
+
+        if (null != entry && null != entry._controller) {
+
+            this._entries.remove(referenceCoord.toLong());
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Remove the data stored for the given reference coordinate
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     */
+    public void remove(final BlockPos referenceCoord) {
+
+        if (null != this._entries.remove(referenceCoord.toLong())) {
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Mark the state of the controller linked to the given reference coordinate as changed
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     */
+    public void markDirty(final BlockPos referenceCoord) {
+
+        final Entry entry = this._entries.get(referenceCoord.toLong());
+
+        if (null != entry && null != entry._controller) {
+
+            entry._dirty = true;
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Get the last saved state for the given reference coordinate
+     *
+     * @param referenceCoord the reference coordinate of the controller
+     * @return the state of the controller, if any
+     */
+    public Optional<CompoundNBT> getData(final BlockPos referenceCoord) {
+
+        final Entry entry = this._entries.get(referenceCoord.toLong());
+
+        return null != entry ? entry.deserialize() : Optional.empty();
+    }
+
+    //region WorldSavedData
+
+    @Override
+    public void read(final CompoundNBT nbt) {
+
+        this._entries.clear();
+
+        final ListNBT list = nbt.getList("entries", Constants.NBT.TAG_COMPOUND);
+
+        for (int i = 0; i < list.size(); ++i) {
+
+            final CompoundNBT entryData = list.getCompound(i);
+            final Entry entry = new Entry();
+
+            entry._data = entryData.getByteArray("data");
+            entry._written = true;
+            this._entries.put(entryData.getLong("pos"), entry);
+        }
+    }
+
+    @Override
+    public CompoundNBT write(final CompoundNBT compound) {
+
+        final ListNBT list = new ListNBT();
+
+        for (final Long2ObjectMap.Entry<Entry> mapEntry : this._entries.long2ObjectEntrySet()) {
+
+            final Entry entry = mapEntry.getValue();
+
+            if (entry._dirty) {
+                entry.serialize();
+            }
+
+            if (null != entry._data) {
+
+                final CompoundNBT entryData = new CompoundNBT();
+
+                entryData.putLong("pos", mapEntry.getLongKey());
+                entryData.putByteArray("data", entry._data);
+                list.add(entryData);
+                entry._written = true;
+            }
+        }
+
+        compound.put("entries", list);
+        return compound;
+    }
+
+    //endregion
+    //region internals
+    //region Entry
+
+    private static final class Entry {
+
+        void serialize() {
+
+            if (null == this._controller) {
+                return;
+            }
+
+            final CompoundNBT data = this._controller.syncDataTo(new CompoundNBT(), ISyncableEntity.SyncReason.FullSync);
+
+            try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream(); final DataOutputStream output = new DataOutputStream(bytes)) {
+
+                CompressedStreamTools.write(data, output);
+                output.flush();
+                this._data = bytes.toByteArray();
+                this._dirty = false;
+
+            } catch (IOException ex) {
+                Log.LOGGER.error(Log.MULTIBLOCK, "Unable to serialize the state of a multiblock controller", ex);
+            }
+        }
+
+        Optional<CompoundNBT> deserialize() {
+
+            if (null != this._controller) {
+                return Optional.of(this._controller.syncDataTo(new CompoundNBT(), ISyncableEntity.SyncReason.FullSync));
+            }
+
+            if (null == this._data) {
+                return Optional.empty();
+            }
+
+            try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(this._data))) {
+                return Optional.of(CompressedStreamTools.read(input));
+            } catch (IOException ex) {
+
+                Log.LOGGER.error(Log.MULTIBLOCK, "Unable to deserialize the state of a multiblock controller", ex);
+                return Optional.empty();
+            }
+        }
+
+        @Nullable
+        private IMultiblockController<?> _controller;
+        @Nullable
+        private byte[] _data;
+        private boolean _dirty;
+        private boolean _written;
+    }
+
+    //endregion
+
+    private final Long2ObjectOpenHashMap<Entry> _entries;
+
+    //endregion
+}
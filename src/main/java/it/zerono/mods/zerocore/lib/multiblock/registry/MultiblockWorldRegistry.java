@@ -45,6 +45,8 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import it.zerono.mods.zerocore.internal.Log;
+import it.zerono.mods.zerocore.lib.CodeHelper;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
 import it.zerono.mods.zerocore.lib.multiblock.IMultiblockController;
 import it.zerono.mods.zerocore.lib.multiblock.IMultiblockPart;
 import it.zerono.mods.zerocore.lib.world.WorldHelper;
@@ -53,6 +55,7 @@ import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * This class manages all the multiblock controllers that exist in a given world,
@@ -77,6 +80,8 @@ final class MultiblockWorldRegistry<Controller extends IMultiblockController<Con
 
         this._world = world;
         this._controllers = Sets.newHashSet();
+        this._updateCosts = Maps.newHashMap();
+        this._tickCount = 0;
         this._deadControllers = Sets.newHashSet();
         this._dirtyControllers = Sets.newHashSet();
         this._detachedParts = Sets.newHashSet();
@@ -88,31 +93,163 @@ final class MultiblockWorldRegistry<Controller extends IMultiblockController<Con
 
     /**
      * Called before Tile Entities are ticked in the world. Run game logic.
+     *
+     * @param parallelUpdates if true, the isolated controllers are updated in parallel on the server
      */
-    void tickStart() {
+    void tickStart(final boolean parallelUpdates) {
 
         this._world.getProfiler().startSection("Zero CORE|Multiblock|World|Tick");
 
+        ++this._tickCount;
+
         if (!this._controllers.isEmpty()) {
 
-            this._controllers.stream()
-                    .filter(controller -> this._world == controller.getWorld())
-                    .forEach(controller -> {
+            final boolean isolatedUpdates = parallelUpdates && !this._world.isRemote();
+            List<Controller> isolatedControllers = null;
+            List<UpdateCost> isolatedCosts = null;
 
-                        if (controller.isEmpty()) {
-                            // This happens on the server when the user breaks the last block. It's fine.
-                            // Mark 'er dead and move on.
-                            this._deadControllers.add(controller);
-                        } else {
-                            // Run the game logic for this world
-                            controller.updateMultiblockEntity();
-                        }
-                    });
+            for (final Controller controller : this._controllers) {
+
+                if (this._world != controller.getWorld()) {
+                    continue;
+                }
+
+                if (controller.isEmpty()) {
+
+                    // This happens on the server when the user breaks the last block. It's fine.
+                    // Mark 'er dead and move on.
+                    this._deadControllers.add(controller);
+                    continue;
+                }
+
+                final UpdateCost cost = this._updateCosts.computeIfAbsent(controller, c -> new UpdateCost());
+
+                if (!cost.shouldUpdate(this._tickCount)) {
+                    continue;
+                }
+
+                if (isolatedUpdates && controller.isUpdateIsolated()) {
+
+                    if (null == isolatedControllers) {
+
+                        isolatedControllers = Lists.newArrayList();
+                        isolatedCosts = Lists.newArrayList();
+                    }
+
+                    isolatedControllers.add(controller);
+                    isolatedCosts.add(cost);
+
+                } else {
+
+                    // Run the game logic for this world
+                    final long start = System.nanoTime();
+
+                    controller.updateMultiblockEntity();
+                    this.accountUpdate(controller, cost, System.nanoTime() - start);
+                }
+            }
+
+            if (null != isolatedControllers) {
+                this.updateIsolatedControllers(isolatedControllers, isolatedCosts);
+            }
         }
 
         this._world.getProfiler().endSection();
     }
 
+    /**
+     * Update the isolated controllers in parallel and then commit, on this thread and always in the same order,
+     * the changes to the world requested by them
+     *
+     * @param controllers the controllers to update
+     * @param costs the update costs of the controllers, in the same order
+     */
+    private void updateIsolatedControllers(final List<Controller> controllers, final List<UpdateCost> costs) {
+
+        final int count = controllers.size();
+
+        this._world.getProfiler().startSection("Isolated");
+
+        if (count > 1) {
+            IntStream.range(0, count).parallel().forEach(i -> costs.get(i).measureIsolatedUpdate(controllers.get(i)));
+        } else {
+            costs.get(0).measureIsolatedUpdate(controllers.get(0));
+        }
+
+        this._world.getProfiler().endStartSection("Commit");
+
+        for (int i = 0; i < count; ++i) {
+
+            final Controller controller = controllers.get(i);
+            final UpdateCost cost = costs.get(i);
+            final long start = System.nanoTime();
+
+            controller.commitIsolatedUpdate();
+            this.accountUpdate(controller, cost, cost.getIsolatedUpdateTime() + System.nanoTime() - start);
+        }
+
+        this._world.getProfiler().endSection();
+    }
+
+    /**
+     * Update the average update time of a server-side controller and throttle it (or stop throttling it) if needed
+     *
+     * @param controller the controller
+     * @param cost the update cost of the controller
+     * @param elapsed the time taken by the last update, in nanoseconds
+     */
+    private void accountUpdate(final Controller controller, final UpdateCost cost, final long elapsed) {
+
+        if (this._world.isRemote()) {
+            // only the server-side updates are throttled
+            return;
+        }
+
+        final long budget = MultiblockRegistry.getUpdateBudget();
+
+        cost.addSample(elapsed);
+
+        if (cost.isThrottled()) {
+
+            if (budget <= 0 || cost.getAverage() < budget / 2) {
+
+                cost.setThrottled(false, 0, 1);
+                Log.LOGGER.info(Log.MULTIBLOCK, "[{}] Controller {} @ {} is no longer throttled, average update time: {}",
+                        CodeHelper.getWorldSideName(this._world), controller.getClass().getSimpleName(),
+                        controller.getReferenceCoord().map(Object::toString).orElse("?"),
+                        PerformanceCounters.formatNanos(cost.getAverage()));
+            }
+
+        } else if (budget > 0 && cost.getAverage() > budget && cost.hasEnoughSamples()) {
+
+            final int interval = MultiblockRegistry.getThrottledUpdateInterval();
+
+            cost.setThrottled(true, this._tickCount, interval);
+            Log.LOGGER.warn(Log.MULTIBLOCK, "[{}] Controller {} @ {} is too slow (average update time: {}, budget: {}). It will now be updated every {} ticks",
+                    CodeHelper.getWorldSideName(this._world), controller.getClass().getSimpleName(),
+                    controller.getReferenceCoord().map(Object::toString).orElse("?"),
+                    PerformanceCounters.formatNanos(cost.getAverage()), PerformanceCounters.formatNanos(budget), interval);
+        }
+    }
+
+    /**
+     * Describe the controllers that are currently throttled
+     *
+     * @param descriptions the list to add the descriptions to
+     */
+    void describeThrottledControllers(final List<String> descriptions) {
+
+        this._updateCosts.forEach((controller, cost) -> {
+
+            if (cost.isThrottled()) {
+                descriptions.add(String.format("[%s] %s @ %s - average update time: %s, updated every %d ticks",
+                        this._world.getDimensionKey().getLocation(), controller.getClass().getSimpleName(),
+                        controller.getReferenceCoord().map(Object::toString).orElse("?"),
+                        PerformanceCounters.formatNanos(cost.getAverage()), cost.getInterval()));
+            }
+        });
+    }
+
     /**
      * Called prior to processing multiblock controllers. Do bookkeeping.
      */
@@ -332,6 +469,7 @@ final class MultiblockWorldRegistry<Controller extends IMultiblockController<Con
 
                 // THIS IS THE ONLY PLACE WHERE CONTROLLERS ARE UNREGISTERED.
                 this._controllers.remove(controller);
+                this._updateCosts.remove(controller);
             }
 
             this._deadControllers.clear();
@@ -446,6 +584,7 @@ final class MultiblockWorldRegistry<Controller extends IMultiblockController<Con
         this._world.getProfiler().startSection("Zero CORE|Multiblock|World|WorldUnloaded");
 
         this._controllers.clear();
+        this._updateCosts.clear();
         this._deadControllers.clear();
         this._dirtyControllers.clear();
         this._detachedParts.clear();
@@ -528,11 +667,105 @@ final class MultiblockWorldRegistry<Controller extends IMultiblockController<Con
         }
     }
 
+    //region UpdateCost
+
+    /**
+     * Keep track of the (exponentially weighted moving) average update time of a controller and of its update schedule
+     */
+    private static final class UpdateCost {
+
+        UpdateCost() {
+
+            this._average = 0;
+            this._samples = 0;
+            this._isolatedUpdateTime = 0;
+            this.setThrottled(false, 0, 1);
+        }
+
+        boolean shouldUpdate(final long tick) {
+            return !this._throttled || 0 == (tick - this._phase) % this._interval;
+        }
+
+        /**
+         * Run and measure the isolated update of a controller. This could be called from a worker thread
+         */
+        void measureIsolatedUpdate(final IMultiblockController<?> controller) {
+
+            final long start = System.nanoTime();
+
+            controller.updateMultiblockEntityIsolated();
+            this._isolatedUpdateTime = System.nanoTime() - start;
+        }
+
+        long getIsolatedUpdateTime() {
+            return this._isolatedUpdateTime;
+        }
+
+        void addSample(final long elapsed) {
+
+            if (0 == this._samples) {
+                this._average = elapsed;
+            } else {
+                this._average += (elapsed - this._average) * AVERAGE_WEIGHT;
+            }
+
+            if (this._samples < MINIMUM_SAMPLES) {
+                ++this._samples;
+            }
+        }
+
+        long getAverage() {
+            return (long)this._average;
+        }
+
+        /**
+         * @return true if enough updates were measured to not be fooled by a single slow update (like the first one after an assembly)
+         */
+        boolean hasEnoughSamples() {
+            return this._samples >= MINIMUM_SAMPLES;
+        }
+
+        boolean isThrottled() {
+            return this._throttled;
+        }
+
+        int getInterval() {
+            return this._interval;
+        }
+
+        void setThrottled(final boolean throttled, final long phase, final int interval) {
+
+            this._throttled = throttled;
+            this._phase = phase;
+            this._interval = Math.max(1, interval);
+        }
+
+        //region internals
+
+        private static final double AVERAGE_WEIGHT = 0.05;
+        private static final int MINIMUM_SAMPLES = 20;
+
+        private double _average;
+        private int _samples;
+        private long _isolatedUpdateTime;
+        private boolean _throttled;
+        private long _phase;
+        private int _interval;
+
+        //endregion
+    }
+
+    //endregion
+
     private World _world;
 
     // Active controllers
     private final Set<Controller> _controllers;
 
+    // The update costs of the active controllers
+    private final Map<Controller, UpdateCost> _updateCosts;
+    private long _tickCount;
+
     // Controllers whose parts lists have changed
     private final Set<Controller> _dirtyControllers;
 
@@ -30,8 +30,10 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent;
 
+import javax.annotation.Nullable;
 import java.util.Optional;
 
 /**
@@ -49,12 +51,8 @@ public abstract class AbstractModTileMessage
      */
     protected AbstractModTileMessage(final PacketBuffer buffer) {
 
-        if (buffer.readBoolean()) {
-            this._dimension = RegistryKey.getOrCreateKey(Registry.WORLD_KEY, new ResourceLocation(buffer.readString(4096)));
-        } else {
-            this._dimension = null;
-        }
-
+        this._dimensionReference = buffer.readBoolean() ? NetworkStringTable.read(buffer, 4096) : null;
+        this._dimension = null;
         this._tilePosition = buffer.readBlockPos();
     }
 
@@ -67,7 +65,8 @@ public abstract class AbstractModTileMessage
     }
 
     /**
-     * Returns the dimension of the target TileEntity
+     * Returns the dimension of the target TileEntity.
+     * On the receiving side, the dimension is available only while the message is being processed
      * @return the dimension of the target
      */
     public Optional<RegistryKey<World>> getDimension() {
@@ -95,7 +94,7 @@ public abstract class AbstractModTileMessage
         if (null != this._dimension) {
 
             buffer.writeBoolean(true);
-            buffer.writeResourceLocation(this._dimension.getLocation());
+            NetworkStringTable.write(buffer, this._dimension.getLocation().toString());
 
         } else {
 
@@ -108,11 +107,49 @@ public abstract class AbstractModTileMessage
     @Override
     public void processMessage(NetworkEvent.Context messageContext) {
 
+        if (this.resolveDimension(messageContext.getDirection().getReceptionSide())) {
+            this.processMessage(messageContext.getDirection(), messageContext.getSender());
+        }
+    }
+
+    /**
+     * Resolve the dimension of the target TileEntity received from the network
+     *
+     * @param receiver the LogicalSide that received this message
+     * @return true if the dimension was resolved (or if no dimension was sent), false otherwise
+     */
+    protected boolean resolveDimension(final LogicalSide receiver) {
+
+        if (null != this._dimensionReference && null == this._dimension) {
+
+            final Optional<String> dimension = this._dimensionReference.resolve(receiver);
+
+            if (!dimension.isPresent()) {
+
+                Log.LOGGER.error(Log.NETWORK, "Unknown dimension id {} found while processing a ModTileEntityMessage: skipping message",
+                        this._dimensionReference.getId());
+                return false;
+            }
+
+            this._dimension = RegistryKey.getOrCreateKey(Registry.WORLD_KEY, new ResourceLocation(dimension.get()));
+        }
+
+        return true;
+    }
+
+    /**
+     * Look up the target TileEntity and process the message. The dimension must be already resolved
+     *
+     * @param direction the direction of the message
+     * @param sender the player that sent the message, if the message is coming from a client
+     */
+    protected void processMessage(final NetworkDirection direction, @Nullable final ServerPlayerEntity sender) {
+
         final BlockPos position = this.getTileEntityPosition();
 
-        CodeHelper.optionalIfPresentOrElse(this.getWorld(messageContext),
+        CodeHelper.optionalIfPresentOrElse(this.getWorld(direction, sender),
                 w -> CodeHelper.optionalIfPresentOrElse(WorldHelper.getTile(w, position),
-                        tile -> this.processTileEntityMessage(messageContext.getDirection().getOriginationSide(), tile),
+                        tile -> this.processTileEntityMessage(direction.getOriginationSide(), tile),
                         () -> Log.LOGGER.error(Log.NETWORK, "No tile entity found at {}, {}, {} while processing a ModTileEntityMessage: skipping message",
                                 position.getX(), position.getY(), position.getZ())),
                 () -> Log.LOGGER.error(Log.NETWORK, "Invalid world instance found while processing a ModTileEntityMessage: skipping message")
@@ -128,6 +165,7 @@ public abstract class AbstractModTileMessage
 
         this._tilePosition = tileEntityPosition;
         this._dimension = null;
+        this._dimensionReference = null;
     }
 
     /**
@@ -140,14 +178,15 @@ public abstract class AbstractModTileMessage
 
         this._tilePosition = tileEntityPosition;
         this._dimension = dimension;
+        this._dimensionReference = null;
     }
 
     //endregion
     //region internals
 
-    private Optional<World> getWorld(final NetworkEvent.Context messageContext) {
+    private Optional<World> getWorld(final NetworkDirection direction, @Nullable final ServerPlayerEntity player) {
 
-        switch (messageContext.getDirection()) {
+        switch (direction) {
 
             // Server -> Client
             case PLAY_TO_CLIENT:
@@ -156,8 +195,6 @@ public abstract class AbstractModTileMessage
             // Client -> Server
             case PLAY_TO_SERVER: {
 
-                final ServerPlayerEntity player = messageContext.getSender();
-
                 if (null != player) {
 
                     if (null != this._dimension) {
@@ -175,7 +212,8 @@ public abstract class AbstractModTileMessage
     }
 
     private final BlockPos _tilePosition;
-    private final RegistryKey<World> _dimension;
+    private RegistryKey<World> _dimension;
+    private final NetworkStringTable.Reference _dimensionReference;
 
     //endregion
 }
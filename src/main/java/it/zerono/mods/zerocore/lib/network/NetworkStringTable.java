@@ -0,0 +1,299 @@
+/*
+ *
+ * NetworkStringTable.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.network;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.zerono.mods.zerocore.internal.network.Network;
+import it.zerono.mods.zerocore.internal.network.StringTableMessage;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.common.thread.EffectiveSide;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A table of strings shared between the server and its clients so that recurring strings (dimension names,
+ * tile command names, ...) could be sent over the network as small integer ids.
+ *
+ * The server owns the authoritative table ({@link #SERVER}): only the strings chosen by the server itself are added to
+ * it (the strings registered with {@link #register(String)} and the ones sent by the server) and, at the end of every
+ * server tick, the new entries are sent to all the connected players that mirror them in the {@link #CLIENT} table.
+ * A player receive the whole table when it log in. Strings received in full from a client are never added to the table.
+ *
+ * A string is sent as an id only if the other side is known to already have it, otherwise the full string is sent.
+ * Ids read from the network are resolved when the message is processed on the main thread, so any table update
+ * received before the message is already in place.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class NetworkStringTable {
+
+    public static final NetworkStringTable SERVER = new NetworkStringTable();
+    public static final NetworkStringTable CLIENT = new NetworkStringTable();
+
+    /**
+     * Add a string to the server table so that the clients will be able to send it as an id
+     *
+     * @param value the string
+     */
+    public static void register(final String value) {
+        SERVER.intern(value);
+    }
+
+    /**
+     * Write a string to the buffer, as an id if possible.
+     * The table to use is selected from the side of the current thread.
+     * On the server, the string is added to the table: never use this method to send back a string received from a client
+     *
+     * @param buffer the buffer to write to
+     * @param value the string to write
+     */
+    public static void write(final PacketBuffer buffer, final String value) {
+
+        int id;
+
+        if (EffectiveSide.get().isServer()) {
+
+            id = SERVER.intern(value);
+
+            if (id >= SERVER.getPublishedCount()) {
+                // not all the clients know about this id yet
+                id = -1;
+            }
+
+        } else {
+
+            id = CLIENT.getId(value);
+        }
+
+        buffer.writeVarInt(id + 1);
+
+        if (-1 == id) {
+            buffer.writeString(value);
+        }
+    }
+
+    /**
+     * Read a string written by {@link #write(PacketBuffer, String)}
+     *
+     * @param buffer the buffer to read from
+     * @param maxLength the max length of the string, if it was sent in full
+     * @return a reference to the string, to be resolved when the message is processed
+     */
+    public static Reference read(final PacketBuffer buffer, final int maxLength) {
+
+        final int id = buffer.readVarInt() - 1;
+
+        return -1 == id ? new Reference(-1, buffer.readString(maxLength)) : new Reference(id, null);
+    }
+
+    /**
+     * Get the id of the given string
+     *
+     * @param value the string
+     * @return the id of the string or -1 if the string is not in the table
+     */
+    public synchronized int getId(final String value) {
+        return this._ids.getInt(value);
+    }
+
+    /**
+     * Get the string with the given id
+     *
+     * @param id the id of the string
+     * @return the string, if it is present in the table
+     */
+    public synchronized Optional<String> get(final int id) {
+        return id >= 0 && id < this._values.size() ? Optional.ofNullable(this._values.get(id)) : Optional.empty();
+    }
+
+    public synchronized int size() {
+        return this._values.size();
+    }
+
+    //region Reference
+
+    /**
+     * A string read from the network, either in full or as an id
+     */
+    public static final class Reference {
+
+        /**
+         * @return the id of the string, if known, or -1
+         */
+        public int getId() {
+            return this._id;
+        }
+
+        /**
+         * Resolve the string
+         *
+         * @param receiver the side that received the string
+         * @return the string or an empty Optional if the id is unknown
+         */
+        public Optional<String> resolve(final LogicalSide receiver) {
+
+            if (null != this._value) {
+                // strings sent in full by a client are not added to the table
+                return Optional.of(this._value);
+            }
+
+            final Optional<String> value = (receiver.isServer() ? SERVER : CLIENT).get(this._id);
+
+            value.ifPresent(v -> this._value = v);
+            return value;
+        }
+
+        //region internals
+
+        private Reference(final int id, @Nullable final String value) {
+
+            this._id = id;
+            this._value = value;
+        }
+
+        private int _id;
+        private String _value;
+
+        //endregion
+    }
+
+    //endregion
+    //region internals
+    //region server side
+
+    /**
+     * Send the whole server table to a player that just logged in
+     */
+    public static void sendServerTableTo(final ServerPlayerEntity player) {
+
+        final List<String> values;
+
+        synchronized (SERVER) {
+            values = new ObjectArrayList<>(SERVER._values);
+        }
+
+        Network.HANDLER.sendToPlayer(new StringTableMessage(true, 0, values), player);
+    }
+
+    /**
+     * Send the entries added to the server table since the last call to all the players
+     */
+    public static void publishServerEntries() {
+
+        final int first;
+        final List<String> values;
+
+        synchronized (SERVER) {
+
+            first = SERVER._publishedCount;
+
+            if (first == SERVER._values.size()) {
+                return;
+            }
+
+            values = new ObjectArrayList<>(SERVER._values.subList(first, SERVER._values.size()));
+            SERVER._publishedCount = SERVER._values.size();
+        }
+
+        Network.sendToAllPlayers(new StringTableMessage(false, first, values));
+    }
+
+    /**
+     * Add a string to the table
+     *
+     * @param value the string
+     * @return the id of the string or -1 if the table is full
+     */
+    synchronized int intern(final String value) {
+
+        int id = this._ids.getInt(value);
+
+        if (-1 == id && this._values.size() < MAX_ENTRIES) {
+
+            id = this._values.size();
+            this._values.add(value);
+            this._ids.put(value, id);
+        }
+
+        return id;
+    }
+
+    synchronized int getPublishedCount() {
+        return this._publishedCount;
+    }
+
+    //endregion
+    //region client side
+
+    /**
+     * Update the client mirror of the server table
+     *
+     * @param reset if true, the whole table was sent
+     * @param firstId the id of the first string
+     * @param values the strings
+     */
+    public synchronized void update(final boolean reset, final int firstId, final List<String> values) {
+
+        if (reset) {
+            this.clear();
+        }
+
+        for (int i = 0; i < values.size(); ++i) {
+
+            final int id = firstId + i;
+            final String value = values.get(i);
+
+            while (this._values.size() <= id) {
+                this._values.add(null);
+            }
+
+            this._values.set(id, value);
+            this._ids.put(value, id);
+        }
+    }
+
+    public synchronized void clear() {
+
+        this._values.clear();
+        this._ids.clear();
+        this._publishedCount = 0;
+    }
+
+    //endregion
+
+    private NetworkStringTable() {
+
+        this._values = new ObjectArrayList<>(64);
+        this._ids = new Object2IntOpenHashMap<>(64);
+        this._ids.defaultReturnValue(-1);
+        this._publishedCount = 0;
+    }
+
+    private static final int MAX_ENTRIES = 8192;
+
+    private final ObjectArrayList<String> _values;
+    private final Object2IntOpenHashMap<String> _ids;
+    private int _publishedCount;
+
+    //endregion
+}
@@ -22,10 +22,12 @@ import com.google.common.collect.Sets;
 import it.zerono.mods.zerocore.internal.network.Network;
 import it.zerono.mods.zerocore.lib.data.nbt.INestedSyncableEntity;
 import it.zerono.mods.zerocore.lib.data.nbt.ISyncableEntity;
+import it.zerono.mods.zerocore.lib.debug.PerformanceCounters;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.common.util.NonNullSupplier;
 
+import javax.annotation.Nullable;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -90,12 +92,24 @@ public class NetworkTileEntitySyncProvider implements INetworkTileEntitySyncProv
         this.getUpdateMessage().ifPresent(update -> this._players.forEach(player -> this.sendUpdate(update, player)));
     }
 
+    //endregion
+
+    /**
+     * Start or stop recording the updates sent to the players
+     *
+     * @param counters the performance counters to update or null to stop recording
+     */
+    public void setPerformanceCounters(@Nullable final PerformanceCounters counters) {
+        this._performanceCounters = counters;
+    }
+
     //region internals
 
     private NetworkTileEntitySyncProvider(final Supplier<IModMessage> messageSupplier) {
 
         this._messageSupplier = messageSupplier;
         this._players = Sets.newHashSet();
+        this._performanceCounters = null;
     }
 
     private Optional<IModMessage> getUpdateMessage() {
@@ -103,11 +117,19 @@ public class NetworkTileEntitySyncProvider implements INetworkTileEntitySyncProv
     }
 
     private void sendUpdate(final IModMessage update, final ServerPlayerEntity player) {
+
+        final PerformanceCounters counters = this._performanceCounters;
+
+        if (null != counters) {
+            counters.recordSync(player.getName().getString(), PerformanceCounters.getSize(update));
+        }
+
         Network.HANDLER.sendToPlayer(update, player);
     }
 
     private final Supplier<IModMessage> _messageSupplier;
     private final Set<ServerPlayerEntity> _players;
+    private PerformanceCounters _performanceCounters;
 
     //endregion
 }
@@ -0,0 +1,211 @@
+/*
+ *
+ * RegionScanner.java
+ *
+ * This file is part of Zero CORE 2 by ZeroNoRyouki, a Minecraft mod.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *
+ * DO NOT REMOVE OR EDIT THIS HEADER
+ *
+ */
+
+package it.zerono.mods.zerocore.lib.world;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Find the blocks matching a predicate inside a region of a world.
+ *
+ * The region is walked one chunk section at a time, reading the block states straight from the sections:
+ * sections whose palette does not contain any state accepted by the predicate are skipped entirely and
+ * chunks that are not loaded are ignored.
+ *
+ * The positions of the matching blocks are returned in a LongArrayList, packed with {@link BlockPos#toLong()}.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class RegionScanner {
+
+    /**
+     * Find all the blocks matching the given predicate inside the region delimited by the two provided corners (inclusive)
+     *
+     * @param world the world to scan
+     * @param min the minimum corner of the region
+     * @param max the maximum corner of the region
+     * @param matcher the predicate to test the blocks with
+     * @return the packed positions of the matching blocks
+     */
+    public static LongArrayList scan(final World world, final BlockPos min, final BlockPos max,
+                                     final Predicate<BlockState> matcher) {
+        return scan(world, min, max, matcher, false);
+    }
+
+    /**
+     * Find all the blocks matching the given predicate inside the region delimited by the two provided corners (inclusive)
+     *
+     * If parallel is true the sections are scanned concurrently on the common fork-join pool: the sections are only
+     * read and the calling thread waits for the scan to complete but the predicate must be thread-safe and the world
+     * must not be modified by other threads during the scan
+     *
+     * @param world the world to scan
+     * @param min the minimum corner of the region
+     * @param max the maximum corner of the region
+     * @param matcher the predicate to test the blocks with
+     * @param parallel if true, scan the sections in parallel
+     * @return the packed positions of the matching blocks, in the same order for both the sequential and parallel mode
+     */
+    public static LongArrayList scan(final World world, final BlockPos min, final BlockPos max,
+                                     final Predicate<BlockState> matcher, final boolean parallel) {
+
+        final List<SectionScan> scans = collectSections(world, min, max, matcher);
+
+        if (scans.isEmpty()) {
+            return new LongArrayList();
+        }
+
+        if (parallel && scans.size() > 1) {
+
+            final List<LongArrayList> results = scans.parallelStream()
+                    .map(SectionScan::scan)
+                    .collect(Collectors.toList());
+            final LongArrayList positions = new LongArrayList(results.stream().mapToInt(LongArrayList::size).sum());
+
+            for (final LongArrayList result : results) {
+                positions.addAll(result);
+            }
+
+            return positions;
+
+        } else {
+
+            final LongArrayList positions = new LongArrayList();
+
+            for (final SectionScan scan : scans) {
+                scan.scanInto(positions);
+            }
+
+            return positions;
+        }
+    }
+
+    //region internals
+
+    private RegionScanner() {
+    }
+
+    private static List<SectionScan> collectSections(final World world, final BlockPos min, final BlockPos max,
+                                                     final Predicate<BlockState> matcher) {
+
+        final int minX = Math.min(min.getX(), max.getX()), maxX = Math.max(min.getX(), max.getX());
+        final int minY = Math.max(0, Math.min(min.getY(), max.getY()));
+        final int maxY = Math.min(world.getHeight() - 1, Math.max(min.getY(), max.getY()));
+        final int minZ = Math.min(min.getZ(), max.getZ()), maxZ = Math.max(min.getZ(), max.getZ());
+        final List<SectionScan> scans = Lists.newArrayList();
+
+        if (minY > maxY) {
+            return scans;
+        }
+
+        // air is what an empty (or missing) section is made of
+        final boolean matchAir = matcher.test(Blocks.AIR.getDefaultState());
+
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; ++chunkX) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; ++chunkZ) {
+
+                final Chunk chunk = world.getChunkProvider().getChunk(chunkX, chunkZ, false);
+
+                if (null == chunk) {
+                    continue;
+                }
+
+                final ChunkSection[] sections = chunk.getSections();
+
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; ++sectionY) {
+
+                    final ChunkSection section = sectionY < sections.length ? sections[sectionY] : null;
+
+                    if (ChunkSection.isEmpty(section) ? !matchAir :
+                            !section.func_235962_a_/* contains any state matching */(matcher)) {
+                        continue;
+                    }
+
+                    scans.add(new SectionScan(section, matcher,
+                            Math.max(minX, chunkX << 4), Math.min(maxX, (chunkX << 4) + 15),
+                            Math.max(minY, sectionY << 4), Math.min(maxY, (sectionY << 4) + 15),
+                            Math.max(minZ, chunkZ << 4), Math.min(maxZ, (chunkZ << 4) + 15)));
+                }
+            }
+        }
+
+        return scans;
+    }
+
+    //region SectionScan
+
+    private static final class SectionScan {
+
+        SectionScan(final ChunkSection section, final Predicate<BlockState> matcher,
+                    final int minX, final int maxX, final int minY, final int maxY, final int minZ, final int maxZ) {
+
+            this._section = ChunkSection.isEmpty(section) ? null : section;
+            this._matcher = matcher;
+            this._minX = minX;
+            this._maxX = maxX;
+            this._minY = minY;
+            this._maxY = maxY;
+            this._minZ = minZ;
+            this._maxZ = maxZ;
+        }
+
+        LongArrayList scan() {
+
+            final LongArrayList positions = new LongArrayList();
+
+            this.scanInto(positions);
+            return positions;
+        }
+
+        void scanInto(final LongArrayList positions) {
+
+            final ChunkSection section = this._section;
+
+            for (int y = this._minY; y <= this._maxY; ++y) {
+                for (int z = this._minZ; z <= this._maxZ; ++z) {
+                    for (int x = this._minX; x <= this._maxX; ++x) {
+
+                        // a null section is all air and we are here only if air is a match
+                        if (null == section || this._matcher.test(section.getBlockState(x & 15, y & 15, z & 15))) {
+                            positions.add(BlockPos.pack(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+
+        private final ChunkSection _section;
+        private final Predicate<BlockState> _matcher;
+        private final int _minX, _maxX;
+        private final int _minY, _maxY;
+        private final int _minZ, _maxZ;
+    }
+
+    //endregion
+    //endregion
+}
@@ -19,6 +19,7 @@
 package it.zerono.mods.zerocore.lib.world;
 
 import it.zerono.mods.zerocore.ZeroCore;
+import it.zerono.mods.zerocore.internal.network.BulkBlockUpdateMessage;
 import it.zerono.mods.zerocore.lib.item.ItemHelper;
 import it.zerono.mods.zerocore.lib.multiblock.IMultiblockController;
 import it.zerono.mods.zerocore.lib.multiblock.IMultiblockPart;
@@ -45,6 +46,7 @@ import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Random;
 import java.util.function.BiFunction;
@@ -137,6 +139,41 @@ public final class WorldHelper {
         world.notifyBlockUpdate(position, oldState, newState, 3);
     }
 
+    /**
+     * Send the current state, and tile entity data, of all the blocks in the given range to the clients.
+     * On the server the blocks are sent in bulk, grouped by chunk section, in place of one update for each block.
+     * On the client the range is marked for a render update.
+     *
+     * @param world the world containing the blocks
+     * @param min the minimum coordinates of the range (inclusive)
+     * @param max the maximum coordinates of the range (inclusive)
+     */
+    public static void notifyBlockRangeUpdate(final World world, final BlockPos min, final BlockPos max) {
+
+        if (world instanceof ServerWorld) {
+            BulkBlockUpdateMessage.sendRange((ServerWorld)world, min, max);
+        } else if (world.isRemote()) {
+            markBlockRangeForRenderUpdate(min, max);
+        }
+    }
+
+    /**
+     * Send the current state, and tile entity data, of the given blocks to the clients.
+     * On the server the blocks are sent in bulk, grouped by chunk section, in place of one update for each block.
+     * On the client the blocks are marked for a render update.
+     *
+     * @param world the world containing the blocks
+     * @param positions the positions of the blocks
+     */
+    public static void notifyBlocksUpdate(final World world, final Collection<BlockPos> positions) {
+
+        if (world instanceof ServerWorld) {
+            BulkBlockUpdateMessage.sendPositions((ServerWorld)world, positions);
+        } else if (world.isRemote()) {
+            positions.forEach(position -> markBlockRangeForRenderUpdate(position, position));
+        }
+    }
+
     public static void markBlockRangeForRenderUpdate(BlockPos min, BlockPos max) {
         ZeroCore.getProxy().markBlockRangeForRenderUpdate(min, max);
     }